@@ -12,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.servlet.ServletComponentScan;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.util.UrlPathHelper;
@@ -26,6 +27,7 @@ import org.springframework.web.util.UrlPathHelper;
 @MapperScan("dev.jianmu.infrastructure.mapper")
 @EnableRetry
 @EnableAsync(proxyTargetClass = true)
+@EnableScheduling
 @SecurityScheme(
         name = "bearerAuth",
         type = SecuritySchemeType.HTTP,
@@ -6,6 +6,7 @@ import dev.jianmu.infrastructure.exception.DBException;
 import org.apache.catalina.connector.ClientAbortException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.BadSqlGrammarException;
@@ -116,6 +117,18 @@ public class RestExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorMessage taskRejectedException(TaskRejectedException ex, WebRequest request) {
+        logger.warn("事件通道繁忙: {}", ex.getMessage());
+        return ErrorMessage.builder()
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .message("系统繁忙，请稍后重试")
+                .description(request.getDescription(false))
+                .build();
+    }
+
     @ExceptionHandler(ClientAbortException.class)
     public void clientAbortException(Exception ex, HandlerMethod handlerMethod, WebRequest request) {
         logger.error("client abort: class:{} params:{}", handlerMethod.getBeanType(), handlerMethod.getMethodParameters());
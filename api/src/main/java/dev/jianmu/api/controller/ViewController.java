@@ -1,11 +1,15 @@
 package dev.jianmu.api.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pagehelper.PageInfo;
 import dev.jianmu.api.dto.*;
+import dev.jianmu.api.eventhandler.DashboardEventHandler;
 import dev.jianmu.api.mapper.*;
 import dev.jianmu.api.vo.*;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.service.*;
+import dev.jianmu.infrastructure.dashboard.DashboardHub;
 import dev.jianmu.infrastructure.storage.StorageService;
 import dev.jianmu.infrastructure.storage.vo.LogVo;
 import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
@@ -20,7 +24,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.http.HttpServletResponse;
@@ -28,7 +34,9 @@ import javax.validation.Valid;
 import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static dev.jianmu.application.service.ProjectGroupApplication.DEFAULT_PROJECT_GROUP_NAME;
@@ -54,6 +62,8 @@ public class ViewController {
     private final ParameterApplication parameterApplication;
     private final StorageService storageService;
     private final ProjectGroupApplication projectGroupApplication;
+    private final ObjectMapper objectMapper;
+    private final DashboardHub dashboardHub;
 
     public ViewController(
             ProjectApplication projectApplication,
@@ -66,7 +76,9 @@ public class ViewController {
             TaskInstanceApplication taskInstanceApplication,
             ParameterApplication parameterApplication,
             StorageService storageService,
-            ProjectGroupApplication projectGroupApplication) {
+            ProjectGroupApplication projectGroupApplication,
+            ObjectMapper objectMapper,
+            DashboardHub dashboardHub) {
         this.projectApplication = projectApplication;
         this.triggerApplication = triggerApplication;
         this.workflowInstanceApplication = workflowInstanceApplication;
@@ -78,6 +90,8 @@ public class ViewController {
         this.parameterApplication = parameterApplication;
         this.storageService = storageService;
         this.projectGroupApplication = projectGroupApplication;
+        this.objectMapper = objectMapper;
+        this.dashboardHub = dashboardHub;
     }
 
     @GetMapping("/parameters/types")
@@ -214,36 +228,24 @@ public class ViewController {
     }
 
     @GetMapping("/projects")
-    @Operation(summary = "查询项目列表", description = "查询项目列表")
-    public List<ProjectVo> findAll() {
-        var projects = this.projectApplication.findAll();
-        return projects.stream().map(project -> this.instanceApplication
-                .findByRefAndSerialNoMax(project.getWorkflowRef())
-                .map(workflowInstance -> {
-                    var projectVo = ProjectMapper.INSTANCE.toProjectVo(project);
-                    projectVo.setLatestTime(workflowInstance.getEndTime());
-                    projectVo.setSuspendedTime(workflowInstance.getSuspendedTime());
-                    projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-                    if (workflowInstance.getStatus().equals(ProcessStatus.TERMINATED)) {
-                        projectVo.setStatus("FAILED");
-                    }
-                    if (workflowInstance.getStatus() == ProcessStatus.SUSPENDED) {
-                        projectVo.setStatus("SUSPENDED");
-                    }
-                    if (workflowInstance.getStatus().equals(ProcessStatus.FINISHED)) {
-                        projectVo.setStatus("SUCCEEDED");
-                    }
-                    if (workflowInstance.getStatus().equals(ProcessStatus.RUNNING)) {
-                        projectVo.setStartTime(workflowInstance.getStartTime());
-                        projectVo.setStatus("RUNNING");
-                    }
-                    return projectVo;
-                })
-                .orElseGet(() -> {
-                    var projectVo = ProjectMapper.INSTANCE.toProjectVo(project);
-                    projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-                    return projectVo;
-                })).collect(Collectors.toList());
+    @Operation(summary = "查询项目列表", description = "查询项目列表，内容未变化时返回304")
+    public List<ProjectVo> findAll(WebRequest request) {
+        var projects = this.projectApplication.findAllWithLastExecution();
+        var nextFireTimes = this.triggerApplication.calculateNextFireTimes(projects.stream()
+                .map(dev.jianmu.project.query.ProjectVo::getSchedule)
+                .collect(Collectors.toList()));
+        var projectVos = projects.stream()
+                .map(project -> this.toProjectVo(project, nextFireTimes))
+                .collect(Collectors.toList());
+        try {
+            var etag = DigestUtils.md5DigestAsHex(this.objectMapper.writeValueAsBytes(projectVos));
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("项目列表序列化失败", e);
+        }
+        return projectVos;
     }
 
     @GetMapping("/projects/{projectId}")
@@ -378,6 +380,18 @@ public class ViewController {
         return this.storageService.readLog(logId, dto.getSize(), false);
     }
 
+    @GetMapping(path = "/triggers/{triggerId}/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "流程执行状态订阅接口", description = "使用SSE方式订阅流程实例、异步任务实例与任务实例的状态变化")
+    public SseEmitter subscribeTrigger(@PathVariable String triggerId) {
+        return this.dashboardHub.subscribe(DashboardEventHandler.TRIGGER_CHANNEL + triggerId);
+    }
+
+    @GetMapping(path = "/project_groups/{projectGroupId}/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "项目组执行状态订阅接口", description = "使用SSE方式订阅项目组内流程实例的状态变化")
+    public SseEmitter subscribeProjectGroup(@PathVariable String projectGroupId) {
+        return this.dashboardHub.subscribe(DashboardEventHandler.PROJECT_GROUP_CHANNEL + projectGroupId);
+    }
+
     @GetMapping(path = "/logs/task/random/{logId}")
     @Operation(summary = "任务日志随机获取接口", description = "任务日志随机获取接口")
     public List<LogVo> loadMoreTaskLog(@PathVariable String logId, @Valid LogRandomSubscribingDto dto) {
@@ -443,33 +457,42 @@ public class ViewController {
     @Operation(summary = "查询项目列表", description = "查询项目列表")
     public PageInfo<ProjectVo> findProjectPage(@Valid ProjectViewingDto dto) {
         var projects = this.projectApplication.findPageByGroupId(dto.getPageNum(), dto.getPageSize(), dto.getProjectGroupId(), dto.getName(), dto.getSortTypeName());
-        var projectVos = projects.getList().stream().map(project -> {
-            var projectVo = ProjectVoMapper.INSTANCE.toProjectVo(project);
-            projectVo.setNextTime(this.triggerApplication.getNextFireTime(project.getId()));
-            if (project.getStatus() == null) {
-                return projectVo;
-            }
-            if (project.getStatus().equals(ProcessStatus.TERMINATED.name())) {
-                projectVo.setStatus("FAILED");
-            }
-            if (project.getStatus().equals(ProcessStatus.FINISHED.name())) {
-                projectVo.setStatus("SUCCEEDED");
-            }
-            if (project.getStatus().equals(ProcessStatus.SUSPENDED.name())) {
-                projectVo.setSuspendedTime(project.getSuspendedTime());
-                projectVo.setStatus("SUSPENDED");
-            }
-            if (project.getStatus().equals(ProcessStatus.RUNNING.name())) {
-                projectVo.setStartTime(project.getStartTime());
-                projectVo.setStatus("RUNNING");
-            }
-            return projectVo;
-        }).collect(Collectors.toList());
+        var nextFireTimes = this.triggerApplication.calculateNextFireTimes(projects.getList().stream()
+                .map(dev.jianmu.project.query.ProjectVo::getSchedule)
+                .collect(Collectors.toList()));
+        var projectVos = projects.getList().stream()
+                .map(project -> this.toProjectVo(project, nextFireTimes))
+                .collect(Collectors.toList());
         PageInfo<ProjectVo> pageInfo = PageUtils.pageInfo2PageInfoVo(projects);
         pageInfo.setList(projectVos);
         return pageInfo;
     }
 
+    private ProjectVo toProjectVo(dev.jianmu.project.query.ProjectVo project, Map<String, LocalDateTime> nextFireTimes) {
+        var projectVo = ProjectVoMapper.INSTANCE.toProjectVo(project);
+        if (project.getSchedule() != null) {
+            projectVo.setNextTime(nextFireTimes.get(project.getSchedule()));
+        }
+        if (project.getStatus() == null) {
+            return projectVo;
+        }
+        if (project.getStatus().equals(ProcessStatus.TERMINATED.name())) {
+            projectVo.setStatus("FAILED");
+        }
+        if (project.getStatus().equals(ProcessStatus.FINISHED.name())) {
+            projectVo.setStatus("SUCCEEDED");
+        }
+        if (project.getStatus().equals(ProcessStatus.SUSPENDED.name())) {
+            projectVo.setSuspendedTime(project.getSuspendedTime());
+            projectVo.setStatus("SUSPENDED");
+        }
+        if (project.getStatus().equals(ProcessStatus.RUNNING.name())) {
+            projectVo.setStartTime(project.getStartTime());
+            projectVo.setStatus("RUNNING");
+        }
+        return projectVo;
+    }
+
     @GetMapping("/projects/groups")
     @Operation(summary = "查询项目组列表", description = "查询项目组列表")
     public List<ProjectGroupVo> findProjectGroupPage() {
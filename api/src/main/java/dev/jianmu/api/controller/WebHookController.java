@@ -1,15 +1,17 @@
 package dev.jianmu.api.controller;
 
 import dev.jianmu.api.vo.WebhookResult;
-import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.application.service.internal.WebhookInboxService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
@@ -26,16 +28,17 @@ import java.nio.charset.StandardCharsets;
 @RequestMapping("webhook")
 @Tag(name = "WebHook API", description = "WebHook API")
 public class WebHookController {
-    private final TriggerApplication triggerApplication;
+    private final WebhookInboxService webhookInboxService;
 
-    public WebHookController(TriggerApplication triggerApplication) {
-        this.triggerApplication = triggerApplication;
+    public WebHookController(WebhookInboxService webhookInboxService) {
+        this.webhookInboxService = webhookInboxService;
     }
 
 
     @RequestMapping(value = "/**", method = RequestMethod.POST, consumes = {"application/json", "application/x-www-form-urlencoded", "text/plain"})
     @ResponseBody
-    @Operation(summary = "触发项目", description = "触发项目启动")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "触发项目", description = "接收Webhook请求后异步触发项目启动，处理结果可通过WebRequest ID查询")
     public WebhookResult receivePostJsonEvent(
             HttpServletRequest request,
             @RequestHeader("Content-Type") String contentType
@@ -45,10 +48,9 @@ public class WebHookController {
         var apm = new AntPathMatcher();
         var projectName = apm.extractPathWithinPattern(bestMatchPattern, path);
         var decodeProjectName = URLDecoder.decode(projectName, StandardCharsets.UTF_8);
-        var triggerEvent = this.triggerApplication.receiveHttpEvent(decodeProjectName, request, contentType);
+        var webRequestId = this.webhookInboxService.accept(decodeProjectName, request, contentType);
         return WebhookResult.builder()
-                .projectId(triggerEvent.getProjectId())
-                .triggerId(triggerEvent.getId())
+                .webRequestId(webRequestId)
                 .build();
     }
 }
@@ -4,13 +4,12 @@ import dev.jianmu.api.dto.*;
 import dev.jianmu.api.vo.Auth;
 import dev.jianmu.api.vo.VolumeVo;
 import dev.jianmu.api.vo.WorkerTaskVo;
-import dev.jianmu.application.query.NodeDefApi;
 import dev.jianmu.application.service.TaskInstanceApplication;
 import dev.jianmu.application.service.internal.WorkerInternalApplication;
 import dev.jianmu.infrastructure.GlobalProperties;
-import dev.jianmu.infrastructure.storage.StorageService;
 import dev.jianmu.infrastructure.worker.DeferredResultService;
 import dev.jianmu.infrastructure.worker.unit.Unit;
+import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.worker.aggregate.Worker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,22 +38,16 @@ import java.io.IOException;
 public class WorkerController {
     private final WorkerInternalApplication workerApplication;
     private final DeferredResultService deferredResultService;
-    private final NodeDefApi nodeDefApi;
-    private final StorageService storageService;
     private final TaskInstanceApplication taskInstanceApplication;
     private final GlobalProperties globalProperties;
 
     public WorkerController(WorkerInternalApplication workerApplication,
                             DeferredResultService deferredResultService,
-                            NodeDefApi nodeDefApi,
-                            StorageService storageService,
                             TaskInstanceApplication taskInstanceApplication,
                             GlobalProperties globalProperties
     ) {
         this.workerApplication = workerApplication;
         this.deferredResultService = deferredResultService;
-        this.nodeDefApi = nodeDefApi;
-        this.storageService = storageService;
         this.taskInstanceApplication = taskInstanceApplication;
         this.globalProperties = globalProperties;
     }
@@ -71,7 +64,7 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public void join(@PathVariable("workerId") String workerId, @RequestBody @Valid WorkerJoiningDto dto) {
-        this.workerApplication.join(workerId, dto.getType(), dto.getName(), dto.getTag());
+        this.workerApplication.join(workerId, dto.getType(), dto.getName(), dto.getTag(), dto.getCapacity());
     }
 
     @GetMapping("{workerId}/ping")
@@ -80,6 +73,7 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public void ping(@PathVariable("workerId") String workerId) {
+        this.workerApplication.ping(workerId);
     }
 
     @GetMapping("kubernetes/{workerId}/tasks")
@@ -88,12 +82,9 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public DeferredResult<ResponseEntity<?>> pullKubeTasks(@PathVariable String workerId, TaskPullingDto taskPullingDto) {
-        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId);
-        this.workerApplication.pullKubeTasks(workerId, taskPullingDto.getTriggerId()).ifPresent(taskInstance -> {
-            var unit = this.workerApplication.findUnit(taskInstance);
-            deferredResult.setResult(ResponseEntity.status(HttpStatus.OK).body(unit));
-        });
-        return deferredResult;
+        this.workerApplication.ping(workerId);
+        return this.deferredResultService.newPullDeferredResult(workerId, taskPullingDto.getTriggerId(),
+                taskInstance -> ResponseEntity.status(HttpStatus.OK).body(this.workerApplication.findUnit(taskInstance)));
     }
 
     @GetMapping("{workerId}/tasks")
@@ -102,38 +93,9 @@ public class WorkerController {
             @Parameter(name = "X-Jianmu-Token", in = ParameterIn.HEADER, description = "认证token")
     })
     public DeferredResult<ResponseEntity<?>> pullTasks(@PathVariable String workerId) {
-        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId);
-        this.workerApplication.pullTasks(workerId).ifPresent(taskInstance -> {
-            if (taskInstance.isVolume()) {
-                deferredResult.setResult(ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(WorkerTaskVo.builder()
-                                .type(WorkerTaskVo.Type.VOLUME)
-                                .taskInstanceId(taskInstance.getBusinessId())
-                                .volume(VolumeVo.builder()
-                                        .name(taskInstance.getTriggerId())
-                                        .type(taskInstance.isCreationVolume() ? VolumeVo.Type.CREATION : VolumeVo.Type.DELETION)
-                                        .build())
-                                .auth(this.getTaskAuth())
-                                .version(taskInstance.getVersion())
-                                .build()
-                        ));
-            } else {
-                deferredResult.setResult(ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(WorkerTaskVo.builder()
-                                .type(WorkerTaskVo.Type.TASK)
-                                .taskInstanceId(taskInstance.getBusinessId())
-                                .pullStrategy(null)
-                                .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                                .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
-                                .auth(this.getTaskAuth())
-                                .version(taskInstance.getVersion())
-                                .build()
-                        ));
-            }
-        });
-        return deferredResult;
+        this.workerApplication.ping(workerId);
+        return this.deferredResultService.newPullDeferredResult(workerId, null,
+                taskInstance -> ResponseEntity.status(HttpStatus.OK).body(this.createWorkerTaskVo(taskInstance)));
     }
 
     @GetMapping("{workerId}/tasks/{businessId}")
@@ -144,6 +106,10 @@ public class WorkerController {
     public WorkerTaskVo findTaskById(@PathVariable String workerId, @PathVariable("businessId") String businessId) {
         var taskInstance = this.taskInstanceApplication.findByBusinessIdAndMaxSerialNo(businessId)
                 .orElseThrow(() -> new RuntimeException("未找到任务:" + businessId));
+        return this.createWorkerTaskVo(taskInstance);
+    }
+
+    private WorkerTaskVo createWorkerTaskVo(TaskInstance taskInstance) {
         if (taskInstance.isVolume()) {
             return WorkerTaskVo.builder()
                     .type(WorkerTaskVo.Type.VOLUME)
@@ -156,12 +122,13 @@ public class WorkerController {
                     .version(taskInstance.getVersion())
                     .build();
         } else {
+            var taskSpec = this.workerApplication.getTaskSpec(taskInstance);
             return WorkerTaskVo.builder()
                     .type(WorkerTaskVo.Type.TASK)
                     .taskInstanceId(taskInstance.getBusinessId())
                     .pullStrategy(null)
-                    .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                    .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
+                    .containerSpec(taskSpec.getContainerSpec())
+                    .resultFile(taskSpec.getResultFile())
                     .auth(this.getTaskAuth())
                     .version(taskInstance.getVersion())
                     .build();
@@ -211,12 +178,13 @@ public class WorkerController {
                     .version(taskInstance.getVersion() + 1)
                     .build();
         } else {
+            var taskSpec = this.workerApplication.getTaskSpec(taskInstance);
             return WorkerTaskVo.builder()
                     .type(WorkerTaskVo.Type.TASK)
                     .taskInstanceId(taskInstance.getBusinessId())
                     .pullStrategy(null)
-                    .containerSpec(this.workerApplication.getContainerSpec(taskInstance))
-                    .resultFile(this.nodeDefApi.findByType(taskInstance.getDefKey()).getResultFile())
+                    .containerSpec(taskSpec.getContainerSpec())
+                    .resultFile(taskSpec.getResultFile())
                     .auth(this.getTaskAuth())
                     .version(taskInstance.getVersion() + 1)
                     .build();
@@ -240,14 +208,15 @@ public class WorkerController {
     public void writeTaskLog(HttpServletRequest request, @PathVariable("workerId") String workerId, @PathVariable("businessId") String businessId) {
         var taskInstance = this.taskInstanceApplication.findByBusinessIdAndMaxSerialNo(businessId)
                 .orElseThrow(() -> new RuntimeException("未找到任务实例, businessId：" + businessId));
-        try (var writer = this.storageService.writeLog(taskInstance.getId(), false)) {
+        this.workerApplication.truncateTaskLog(taskInstance.getId());
+        try {
             var reader = request.getReader();
             String line;
             while ((line = reader.readLine()) != null) {
                 var list = TaskInstanceWritingLogDto.parseString(line);
                 list.stream()
                         .filter(dto -> dto.getContent() != null)
-                        .forEach(dto -> this.workerApplication.writeTaskLog(writer, workerId, taskInstance.getId(), dto.getContent(), dto.getNumber(), dto.getTimestamp()));
+                        .forEach(dto -> this.workerApplication.writeTaskLog(workerId, taskInstance.getId(), dto.getContent(), dto.getNumber(), dto.getTimestamp()));
             }
         } catch (IOException e) {
             throw new RuntimeException("任务日志写入失败： " + e);
@@ -262,7 +231,7 @@ public class WorkerController {
     public void batchWriteTaskLog(HttpServletRequest request, @PathVariable("workerId") String workerId, @PathVariable("businessId") String businessId) {
         var taskInstance = this.taskInstanceApplication.findByBusinessIdAndMaxSerialNo(businessId)
                 .orElseThrow(() -> new RuntimeException("未找到任务实例, businessId：" + businessId));
-        try (var writer = this.storageService.writeLog(taskInstance.getId(), true)) {
+        try {
             var reader = request.getReader();
             String line;
             while ((line = reader.readLine()) != null) {
@@ -272,7 +241,7 @@ public class WorkerController {
                 var list = TaskInstanceWritingLogDto.parseString(line);
                 list.stream()
                         .filter(dto -> dto.getContent() != null)
-                        .forEach(dto -> this.workerApplication.writeTaskLog(writer, workerId, taskInstance.getId(), dto.getContent(), dto.getNumber(), dto.getTimestamp()));
+                        .forEach(dto -> this.workerApplication.writeTaskLog(workerId, taskInstance.getId(), dto.getContent(), dto.getNumber(), dto.getTimestamp()));
             }
         } catch (IOException e) {
             throw new RuntimeException("任务日志写入失败： " + e);
@@ -25,4 +25,6 @@ public class WorkerJoiningDto {
     private String name;
     @Schema(required = true, description = "tag")
     private String tag;
+    @Schema(description = "可同时执行的任务数，用于加权分发")
+    private Integer capacity;
 }
@@ -6,13 +6,14 @@ import dev.jianmu.application.service.internal.TaskInstanceInternalApplication;
 import dev.jianmu.application.service.internal.WorkerApplication;
 import dev.jianmu.application.service.internal.WorkflowInstanceInternalApplication;
 import dev.jianmu.application.service.internal.WorkflowInternalApplication;
+import dev.jianmu.infrastructure.event.EventLanes;
+import dev.jianmu.infrastructure.event.EventMailbox;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.event.process.*;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -31,19 +32,22 @@ public class AsyncTaskInstanceEventHandler {
     private final TaskInstanceInternalApplication taskInstanceInternalApplication;
     private final WorkerApplication workerApplication;
     private final ApplicationEventPublisher publisher;
+    private final EventMailbox eventMailbox;
 
     public AsyncTaskInstanceEventHandler(
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
             WorkflowInternalApplication workflowInternalApplication,
             TaskInstanceInternalApplication taskInstanceInternalApplication,
             WorkerApplication workerApplication,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            EventMailbox eventMailbox
     ) {
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.workflowInternalApplication = workflowInternalApplication;
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.workerApplication = workerApplication;
         this.publisher = publisher;
+        this.eventMailbox = eventMailbox;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -57,51 +61,54 @@ public class AsyncTaskInstanceEventHandler {
         log.info("-----------------------------------------------------");
     }
 
-    @Async
     @EventListener
     public void handleTaskActivatingEvent(TaskActivatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskActivatingEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = TaskActivatingCmd.builder()
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .workflowInstanceId(event.getWorkflowInstanceId())
-                .triggerId(event.getTriggerId())
-                .nodeRef(event.getNodeRef())
-                .nodeType(event.getNodeType())
-                .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
-                .build();
-        this.taskInstanceInternalApplication.create(cmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.ACTIVATION, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskActivatingEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = TaskActivatingCmd.builder()
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .workflowInstanceId(event.getWorkflowInstanceId())
+                    .triggerId(event.getTriggerId())
+                    .nodeRef(event.getNodeRef())
+                    .nodeType(event.getNodeType())
+                    .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
+                    .build();
+            this.taskInstanceInternalApplication.create(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskRetryEvent(TaskRetryEvent event) {
-        log.info("Get TaskRetryEvent here -------------------------");
-        var cmd = TaskActivatingCmd.builder()
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .workflowInstanceId(event.getWorkflowInstanceId())
-                .triggerId(event.getTriggerId())
-                .nodeRef(event.getNodeRef())
-                .nodeType(event.getNodeType())
-                .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
-                .build();
-        log.info(event.toString());
-        this.taskInstanceInternalApplication.create(cmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.ACTIVATION, event.getTriggerId(), () -> {
+            log.info("Get TaskRetryEvent here -------------------------");
+            var cmd = TaskActivatingCmd.builder()
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .workflowInstanceId(event.getWorkflowInstanceId())
+                    .triggerId(event.getTriggerId())
+                    .nodeRef(event.getNodeRef())
+                    .nodeType(event.getNodeType())
+                    .asyncTaskInstanceId(event.getAsyncTaskInstanceId())
+                    .build();
+            log.info(event.toString());
+            this.taskInstanceInternalApplication.create(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskTerminatingEvent(TaskTerminatingEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskTerminatingEvent here -------------------------");
-        log.info(event.toString());
-        this.taskInstanceInternalApplication.terminate(event.getAsyncTaskInstanceId());
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.PROGRESS, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskTerminatingEvent here -------------------------");
+            log.info(event.toString());
+            this.taskInstanceInternalApplication.terminate(event.getAsyncTaskInstanceId());
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
@@ -113,36 +120,38 @@ public class AsyncTaskInstanceEventHandler {
         log.info("-----------------------------------------------------");
     }
 
-    @Async
     @EventListener
     public void handleTaskSucceededEvent(TaskSucceededEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskSucceededEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = NextNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .build();
-        this.workflowInternalApplication.next(cmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.PROGRESS, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskSucceededEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = NextNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .build();
+            this.workflowInternalApplication.next(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleTaskIgnoredEvent(TaskIgnoredEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get TaskIgnoredEvent here -------------------------");
-        log.info(event.toString());
-        var cmd = NextNodeCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .nodeRef(event.getNodeRef())
-                .build();
-        this.workflowInternalApplication.next(cmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.PROGRESS, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get TaskIgnoredEvent here -------------------------");
+            log.info(event.toString());
+            var cmd = NextNodeCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .nodeRef(event.getNodeRef())
+                    .build();
+            this.workflowInternalApplication.next(cmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
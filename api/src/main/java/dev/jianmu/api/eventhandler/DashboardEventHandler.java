@@ -0,0 +1,153 @@
+package dev.jianmu.api.eventhandler;
+
+import dev.jianmu.application.service.ProjectApplication;
+import dev.jianmu.application.service.ProjectGroupApplication;
+import dev.jianmu.infrastructure.dashboard.DashboardDelta;
+import dev.jianmu.infrastructure.dashboard.DashboardHub;
+import dev.jianmu.project.aggregate.ProjectLinkGroup;
+import dev.jianmu.task.event.BaseEvent;
+import dev.jianmu.workflow.event.process.AsyncTaskInstanceEvent;
+import dev.jianmu.workflow.event.process.ProcessEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * @author agent
+ * @class DashboardEventHandler
+ * @description 将流程实例、异步任务实例与任务实例的事件转换为看板推送，
+ * 触发器频道推送全部变化，项目组频道只推送流程实例的变化。
+ * 事件在事务提交后推送，项目组频道所需的查询在单独的线程中按顺序执行，不占用发布事件的线程
+ * @create 2026-10-18 00:40
+ */
+@Slf4j
+@Component
+public class DashboardEventHandler {
+    public static final String TRIGGER_CHANNEL = "trigger:";
+    public static final String PROJECT_GROUP_CHANNEL = "project_group:";
+    private static final int projectGroupQueueCapacity = 1000;
+    private static final int projectGroupCacheSize = 1024;
+    private static final long projectGroupCacheTtl = 10000L;
+
+    private final DashboardHub dashboardHub;
+    private final ProjectApplication projectApplication;
+    private final ProjectGroupApplication projectGroupApplication;
+    // 单线程保证同一实例的变化按顺序推送到项目组频道
+    private final ThreadPoolTaskExecutor projectGroupExecutor;
+    // 流程Ref所属项目组，项目可能被移动到其他项目组，短时间后重新查询
+    private final Map<String, CachedProjectGroup> projectGroups = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedProjectGroup> eldest) {
+                    return this.size() > projectGroupCacheSize;
+                }
+            }
+    );
+
+    private static class CachedProjectGroup {
+        private final String projectGroupId;
+        private final long expireAt;
+
+        private CachedProjectGroup(String projectGroupId, long expireAt) {
+            this.projectGroupId = projectGroupId;
+            this.expireAt = expireAt;
+        }
+    }
+
+    public DashboardEventHandler(
+            DashboardHub dashboardHub,
+            ProjectApplication projectApplication,
+            ProjectGroupApplication projectGroupApplication
+    ) {
+        this.dashboardHub = dashboardHub;
+        this.projectApplication = projectApplication;
+        this.projectGroupApplication = projectGroupApplication;
+        this.projectGroupExecutor = new ThreadPoolTaskExecutor();
+        this.projectGroupExecutor.setCorePoolSize(1);
+        this.projectGroupExecutor.setMaxPoolSize(1);
+        this.projectGroupExecutor.setQueueCapacity(projectGroupQueueCapacity);
+        this.projectGroupExecutor.setThreadNamePrefix("dashboard-");
+        this.projectGroupExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.projectGroupExecutor.shutdown();
+    }
+
+    // 流程实例事件在事务中发布，提交后再推送
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleProcessEvent(ProcessEvent event) {
+        var delta = DashboardDelta.builder()
+                .kind(DashboardDelta.Kind.WORKFLOW_INSTANCE)
+                .id(event.getWorkflowInstanceId())
+                .triggerId(event.getTriggerId())
+                .workflowRef(event.getWorkflowRef())
+                .event(event.getName())
+                .occurredTime(event.getOccurredTime())
+                .build();
+        this.dashboardHub.publish(TRIGGER_CHANNEL + event.getTriggerId(), delta);
+        if (!this.dashboardHub.hasSubscribersWithPrefix(PROJECT_GROUP_CHANNEL)) {
+            return;
+        }
+        try {
+            this.projectGroupExecutor.execute(() -> this.findProjectGroupId(event.getWorkflowRef())
+                    .ifPresent(projectGroupId -> this.dashboardHub.publish(PROJECT_GROUP_CHANNEL + projectGroupId, delta)));
+        } catch (TaskRejectedException e) {
+            // 看板推送尽力而为，积压时丢弃项目组频道的变化
+            log.debug("dashboard project group queue is full, drop event: {}", event.getName());
+        }
+    }
+
+    // 异步任务实例事件在事务中发布，提交后再推送
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAsyncTaskInstanceEvent(AsyncTaskInstanceEvent event) {
+        this.dashboardHub.publish(TRIGGER_CHANNEL + event.getTriggerId(), DashboardDelta.builder()
+                .kind(DashboardDelta.Kind.ASYNC_TASK_INSTANCE)
+                .id(event.getAsyncTaskInstanceId())
+                .triggerId(event.getTriggerId())
+                .workflowRef(event.getWorkflowRef())
+                .nodeRef(event.getNodeRef())
+                .event(event.getName())
+                .occurredTime(event.getOccurredTime())
+                .build());
+    }
+
+    // 任务实例事件在事务中发布，提交后再推送
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleTaskInstanceEvent(BaseEvent event) {
+        this.dashboardHub.publish(TRIGGER_CHANNEL + event.getTriggerId(), DashboardDelta.builder()
+                .kind(DashboardDelta.Kind.TASK_INSTANCE)
+                .id(event.getTaskInstanceId())
+                .triggerId(event.getTriggerId())
+                .nodeRef(event.getAsyncTaskRef())
+                .businessId(event.getBusinessId())
+                .event(event.getName())
+                .occurredTime(event.getOccurredTime())
+                .build());
+    }
+
+    /**
+     * 查询流程所属项目组，只在有项目组订阅者时执行，结果缓存一段时间
+     */
+    private Optional<String> findProjectGroupId(String workflowRef) {
+        var cached = this.projectGroups.get(workflowRef);
+        if (cached != null && cached.expireAt > System.currentTimeMillis()) {
+            return Optional.ofNullable(cached.projectGroupId);
+        }
+        var projectGroupId = this.projectApplication.findByWorkflowRef(workflowRef)
+                .flatMap(project -> this.projectGroupApplication.findLinkByProjectId(project.getId()))
+                .map(ProjectLinkGroup::getProjectGroupId);
+        this.projectGroups.put(workflowRef, new CachedProjectGroup(projectGroupId.orElse(null), System.currentTimeMillis() + projectGroupCacheTtl));
+        return projectGroupId;
+    }
+}
@@ -11,15 +11,9 @@ import dev.jianmu.project.event.MovedEvent;
 import dev.jianmu.project.event.TriggerEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
 /**
  * @author Ethan Liu
  * @class DslEventHandler
@@ -29,7 +23,6 @@ import java.util.concurrent.locks.ReentrantLock;
 @Component
 @Slf4j
 public class ProjectEventHandler {
-    private static final Map<String, Lock> PROJECT_LOCK_MAP = new ConcurrentHashMap<>();
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
     private final ProjectApplication projectApplication;
     private final TriggerApplication triggerApplication;
@@ -56,15 +49,7 @@ public class ProjectEventHandler {
                 .workflowRef(triggerEvent.getWorkflowRef())
                 .workflowVersion(triggerEvent.getWorkflowVersion())
                 .build();
-        // TODO 集群环境需优化成分布式锁
-        PROJECT_LOCK_MAP.putIfAbsent(triggerEvent.getProjectId(), new ReentrantLock());
-        Lock lock = PROJECT_LOCK_MAP.get(triggerEvent.getProjectId());
-        lock.lock();
-        try {
-            this.workflowInstanceInternalApplication.create(cmd, triggerEvent.getProjectId());
-        } finally {
-            lock.unlock();
-        }
+        this.workflowInstanceInternalApplication.create(cmd, triggerEvent.getProjectId());
     }
 
     @EventListener
@@ -5,8 +5,10 @@ import dev.jianmu.application.service.internal.*;
 import dev.jianmu.infrastructure.worker.event.TaskFailedEvent;
 import dev.jianmu.infrastructure.worker.event.TaskFinishedEvent;
 import dev.jianmu.infrastructure.worker.event.TaskRunningEvent;
+import dev.jianmu.infrastructure.worker.event.WorkerEvictedEvent;
 import dev.jianmu.task.event.*;
 import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import dev.jianmu.infrastructure.storage.TaskLogAppender;
 import dev.jianmu.task.event.TaskInstanceCreatedEvent;
 import dev.jianmu.task.event.TaskInstanceFailedEvent;
 import dev.jianmu.task.event.TaskInstanceRunningEvent;
@@ -33,18 +35,24 @@ public class TaskInstanceEventHandler {
     private final WorkerInternalApplication workerInternalApplication;
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
     private final MonitoringFileService monitoringFileService;
+    private final TaskLogAppender taskLogAppender;
+    private final ContainerSpecService containerSpecService;
 
     public TaskInstanceEventHandler(
             TaskInstanceInternalApplication taskInstanceInternalApplication,
             AsyncTaskInstanceInternalApplication asyncTaskInstanceInternalApplication,
             WorkerInternalApplication workerInternalApplication,
             WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
-            MonitoringFileService monitoringFileService) {
+            MonitoringFileService monitoringFileService,
+            TaskLogAppender taskLogAppender,
+            ContainerSpecService containerSpecService) {
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.asyncTaskInstanceInternalApplication = asyncTaskInstanceInternalApplication;
         this.workerInternalApplication = workerInternalApplication;
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
         this.monitoringFileService = monitoringFileService;
+        this.taskLogAppender = taskLogAppender;
+        this.containerSpecService = containerSpecService;
     }
 
     @EventListener
@@ -60,6 +68,8 @@ public class TaskInstanceEventHandler {
         } else {
             this.taskInstanceInternalApplication.executeFailed(taskResultDto.getTaskInstanceId());
         }
+        this.taskLogAppender.close(taskFinishedEvent.getTaskId());
+        this.containerSpecService.evict(taskFinishedEvent.getTaskId());
         this.monitoringFileService.clearCallbackByLogId(taskFinishedEvent.getTaskId());
     }
 
@@ -77,9 +87,18 @@ public class TaskInstanceEventHandler {
         MDC.put("triggerId", taskFailedEvent.getTriggerId());
         logger.info("task {} is failed, due to: {}", taskFailedEvent.getTaskId(), taskFailedEvent.getErrorMsg());
         this.taskInstanceInternalApplication.executeFailed(taskFailedEvent.getTaskId());
+        this.taskLogAppender.close(taskFailedEvent.getTaskId());
+        this.containerSpecService.evict(taskFailedEvent.getTaskId());
         this.monitoringFileService.clearCallbackByLogId(taskFailedEvent.getTaskId());
     }
 
+    @EventListener
+    public void handleWorkerEvictedEvent(WorkerEvictedEvent event) {
+        // Worker已移除，重新分发其未接收的任务
+        this.workerInternalApplication.releaseTasks(event.getWorkerId())
+                .forEach(this.workerInternalApplication::dispatchTask);
+    }
+
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleTaskInstanceEvent(TaskInstanceCreatedEvent event) {
         // 任务上下文抛出事件通知Worker
@@ -98,6 +117,7 @@ public class TaskInstanceEventHandler {
     public void handleTaskInstanceSucceedEvent(TaskInstanceSucceedEvent event) {
         // 任务上下文抛出事件通知流程上下文
         logger.info("get TaskInstanceSucceedEvent: {}", event);
+        this.workerInternalApplication.releaseTask(event.getTriggerId(), event.getTaskInstanceId(), event.getDefKey());
         this.asyncTaskInstanceInternalApplication.succeed(event.getBusinessId());
     }
 
@@ -105,6 +125,7 @@ public class TaskInstanceEventHandler {
     public void handleTaskInstanceFailedEvent(TaskInstanceFailedEvent event) {
         // 任务上下文抛出事件通知流程上下文
         logger.info("get TaskInstanceFailedEvent: {}", event);
+        this.workerInternalApplication.releaseTask(event.getTriggerId(), event.getTaskInstanceId(), event.getDefKey());
         this.asyncTaskInstanceInternalApplication.stop(event.getTriggerId(), event.getBusinessId());
     }
 
@@ -112,6 +133,7 @@ public class TaskInstanceEventHandler {
     public void handleTaskInstanceDispatchFailedEvent(TaskInstanceDispatchFailedEvent event) {
         // 任务上下文抛出事件通知流程上下文
         logger.info("get TaskInstanceDispatchFailedEvent: {}", event);
+        this.workerInternalApplication.releaseTask(event.getTriggerId(), event.getTaskInstanceId(), event.getDefKey());
         this.workflowInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
     }
 }
@@ -5,12 +5,13 @@ import dev.jianmu.application.event.ManualEvent;
 import dev.jianmu.application.event.WebhookEvent;
 import dev.jianmu.application.service.ProjectApplication;
 import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.infrastructure.event.EventLanes;
+import dev.jianmu.infrastructure.event.EventMailbox;
 import dev.jianmu.infrastructure.quartz.CronTriggerEvent;
 import dev.jianmu.trigger.event.TriggerEvent;
 import dev.jianmu.trigger.event.TriggerFailedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionalEventListener;
 
@@ -27,10 +28,12 @@ import java.time.LocalDateTime;
 public class TriggerEventHandler {
     private final ProjectApplication projectApplication;
     private final TriggerApplication triggerApplication;
+    private final EventMailbox eventMailbox;
 
-    public TriggerEventHandler(ProjectApplication projectApplication, TriggerApplication triggerApplication) {
+    public TriggerEventHandler(ProjectApplication projectApplication, TriggerApplication triggerApplication, EventMailbox eventMailbox) {
         this.projectApplication = projectApplication;
         this.triggerApplication = triggerApplication;
+        this.eventMailbox = eventMailbox;
     }
 
     @EventListener
@@ -40,12 +43,13 @@ public class TriggerEventHandler {
         this.triggerApplication.trigger(cronTriggerEvent.getTriggerId());
     }
 
-    @Async
     @EventListener
     public void handleTriggerEvent(TriggerEvent triggerEvent) {
-        // 触发项目模块
-        log.info("Got TriggerEvent: {} at: {}", triggerEvent, triggerEvent.getOccurredTime());
-        this.projectApplication.trigger(triggerEvent.getProjectId(), triggerEvent.getId(), triggerEvent.getTriggerType());
+        this.eventMailbox.dispatch(EventLanes.TRIGGER, triggerEvent.getId(), () -> {
+            // 触发项目模块
+            log.info("Got TriggerEvent: {} at: {}", triggerEvent, triggerEvent.getOccurredTime());
+            this.projectApplication.trigger(triggerEvent.getProjectId(), triggerEvent.getId(), triggerEvent.getTriggerType());
+        });
     }
 
     @TransactionalEventListener
@@ -66,10 +70,11 @@ public class TriggerEventHandler {
         this.triggerApplication.deleteByProjectId(manualEvent.getProjectId());
     }
 
-    @Async
     @EventListener
     public void handleTriggerFailedEvent(TriggerFailedEvent triggerFailedEvent) {
-        // 修改Webhook状态
-        this.triggerApplication.updateTriggerStatus(triggerFailedEvent.getTriggerId(), triggerFailedEvent.getTriggerType());
+        this.eventMailbox.dispatch(EventLanes.TRIGGER, triggerFailedEvent.getTriggerId(), () -> {
+            // 修改Webhook状态
+            this.triggerApplication.updateTriggerStatus(triggerFailedEvent.getTriggerId(), triggerFailedEvent.getTriggerType());
+        });
     }
  }
@@ -2,13 +2,14 @@ package dev.jianmu.api.eventhandler;
 
 import dev.jianmu.application.command.WorkflowStartCmd;
 import dev.jianmu.application.service.internal.*;
+import dev.jianmu.infrastructure.event.EventLanes;
+import dev.jianmu.infrastructure.event.EventMailbox;
 import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
 import dev.jianmu.workflow.event.process.*;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -28,6 +29,8 @@ public class WorkflowInstanceEventHandler {
     private final WorkerInternalApplication workerInternalApplication;
     private final TaskInstanceInternalApplication taskInstanceInternalApplication;
     private final WorkflowInstanceInternalApplication workflowInstanceInternalApplication;
+    private final EvaluationContextService evaluationContextService;
+    private final EventMailbox eventMailbox;
 
     public WorkflowInstanceEventHandler(
             WorkflowInternalApplication workflowInternalApplication,
@@ -35,13 +38,18 @@ public class WorkflowInstanceEventHandler {
             ApplicationEventPublisher publisher,
             WorkerInternalApplication workerInternalApplication,
             TaskInstanceInternalApplication taskInstanceInternalApplication,
-            WorkflowInstanceInternalApplication workflowInstanceInternalApplication) {
+            WorkflowInstanceInternalApplication workflowInstanceInternalApplication,
+            EvaluationContextService evaluationContextService,
+            EventMailbox eventMailbox
+    ) {
         this.workflowInternalApplication = workflowInternalApplication;
         this.asyncTaskInstanceInternalApplication = asyncTaskInstanceInternalApplication;
         this.publisher = publisher;
         this.workerInternalApplication = workerInternalApplication;
         this.taskInstanceInternalApplication = taskInstanceInternalApplication;
         this.workflowInstanceInternalApplication = workflowInstanceInternalApplication;
+        this.evaluationContextService = evaluationContextService;
+        this.eventMailbox = eventMailbox;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
@@ -55,74 +63,81 @@ public class WorkflowInstanceEventHandler {
         log.info("-----------------------------------------------------");
     }
 
-    @Async
     @EventListener
     public void handleProcessInitializedEvent(ProcessInitializedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessInitializedEvent here -------------------------");
-        log.info(event.toString());
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.TRIGGER, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessInitializedEvent here -------------------------");
+            log.info(event.toString());
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessVolumeCreatedEvent(ProcessVolumeCreatedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessVolumeCreatedEvent here -------------------------");
-        log.info(event.toString());
-        // 创建Workspace
-        this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "start");
-        // 初始化流程实例
-        var workflowStartCmd = WorkflowStartCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .build();
-        this.workflowInternalApplication.init(workflowStartCmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.ACTIVATION, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessVolumeCreatedEvent here -------------------------");
+            log.info(event.toString());
+            // 创建Workspace
+            this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "start");
+            // 初始化流程实例
+            var workflowStartCmd = WorkflowStartCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .build();
+            this.workflowInternalApplication.init(workflowStartCmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessStartedEvent(ProcessStartedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessStartedEvent here -------------------------");
-        log.info(event.toString());
-        // 触发流程启动
-        var workflowStartCmd = WorkflowStartCmd.builder()
-                .triggerId(event.getTriggerId())
-                .workflowRef(event.getWorkflowRef())
-                .workflowVersion(event.getWorkflowVersion())
-                .build();
-        this.workflowInternalApplication.start(workflowStartCmd);
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.ACTIVATION, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessStartedEvent here -------------------------");
+            log.info(event.toString());
+            // 触发流程启动
+            var workflowStartCmd = WorkflowStartCmd.builder()
+                    .triggerId(event.getTriggerId())
+                    .workflowRef(event.getWorkflowRef())
+                    .workflowVersion(event.getWorkflowVersion())
+                    .build();
+            this.workflowInternalApplication.start(workflowStartCmd);
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessTerminatedEvent(ProcessTerminatedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessTerminatedEvent here -------------------------");
-        log.info(event.toString());
-        this.asyncTaskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
-        this.taskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.PROGRESS, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessTerminatedEvent here -------------------------");
+            log.info(event.toString());
+            this.evaluationContextService.evict(event.getTriggerId());
+            this.asyncTaskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
+            this.taskInstanceInternalApplication.terminateByTriggerId(event.getTriggerId());
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
-    @Async
     @EventListener
     public void handleProcessEndedEvent(ProcessEndedEvent event) {
-        MDC.put("triggerId", event.getTriggerId());
-        log.info("Get ProcessEndedEvent here -------------------------");
-        log.info(event.toString());
-        this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
-        // 执行流程实例
-        this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
-        log.info("-----------------------------------------------------");
+        this.eventMailbox.dispatch(EventLanes.PROGRESS, event.getTriggerId(), () -> {
+            MDC.put("triggerId", event.getTriggerId());
+            log.info("Get ProcessEndedEvent here -------------------------");
+            log.info(event.toString());
+            this.evaluationContextService.evict(event.getTriggerId());
+            this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
+            // 执行流程实例
+            this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
+            log.info("-----------------------------------------------------");
+        });
     }
 
     @EventListener
@@ -130,6 +145,7 @@ public class WorkflowInstanceEventHandler {
         MDC.put("triggerId", event.getTriggerId());
         log.info("Get ProcessNotRunningEvent here -------------------------");
         log.info(event.toString());
+        this.evaluationContextService.evict(event.getTriggerId());
         this.workerInternalApplication.createVolumeTask(event.getTriggerId(), "end");
         // 执行流程实例
         this.workflowInstanceInternalApplication.start(event.getWorkflowRef());
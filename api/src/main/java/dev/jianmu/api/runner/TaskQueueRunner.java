@@ -0,0 +1,28 @@
+package dev.jianmu.api.runner;
+
+import dev.jianmu.application.service.internal.WorkerInternalApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * @class TaskQueueRunner
+ * @description 启动时从数据库恢复Worker待拉取任务队列
+ * @author agent
+ * @create 2026-10-17 23:15
+*/
+@Component
+@Slf4j
+public class TaskQueueRunner implements ApplicationRunner {
+    private final WorkerInternalApplication workerInternalApplication;
+
+    public TaskQueueRunner(WorkerInternalApplication workerInternalApplication) {
+        this.workerInternalApplication = workerInternalApplication;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        this.workerInternalApplication.recoverTasks();
+    }
+}
@@ -18,4 +18,5 @@ import lombok.NoArgsConstructor;
 public class WebhookResult {
     private String projectId;
     private String triggerId;
+    private String webRequestId;
 }
@@ -0,0 +1,21 @@
+CREATE TABLE `jianmu_webhook_inbox`
+(
+    `id`            varchar(45) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'WebRequest ID',
+    `project_name`  varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '项目名称',
+    `user_agent`    text COLLATE utf8mb4_unicode_ci COMMENT 'UserAgent',
+    `payload`       longtext COLLATE utf8mb4_unicode_ci COMMENT '请求载荷，处理完成后清空',
+    `status_code`   varchar(45) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '接收时的请求状态',
+    `error_msg`     text COLLATE utf8mb4_unicode_ci COMMENT '接收时的错误信息',
+    `dedupe_key`    varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '投递去重Key',
+    `status`        varchar(16) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '处理状态',
+    `claim_id`      varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '领取批次ID',
+    `claimed_time`  datetime                               DEFAULT NULL COMMENT '领取时间',
+    `received_time` datetime                               NOT NULL COMMENT '接收时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `jianmu_webhook_inbox_dedupe_key` (`dedupe_key`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='Webhook收件箱';
+
+CREATE INDEX jianmu_webhook_inbox_status ON `jianmu_webhook_inbox` (`status`, `received_time`);
+CREATE INDEX jianmu_webhook_inbox_claim_id ON `jianmu_webhook_inbox` (`claim_id`);
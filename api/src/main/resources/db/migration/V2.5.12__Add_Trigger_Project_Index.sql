@@ -0,0 +1 @@
+CREATE INDEX jianmu_trigger_project_id ON `jianmu_trigger` (`project_id`);
@@ -0,0 +1,4 @@
+ALTER TABLE `jianmu_webhook_inbox`
+    add `attempts`      int          NOT NULL DEFAULT 0 COMMENT '领取次数' AFTER `claimed_time`;
+ALTER TABLE `jianmu_webhook_inbox`
+    add `failure`       text         COLLATE utf8mb4_unicode_ci COMMENT '最后一次处理失败的原因' AFTER `attempts`;
@@ -0,0 +1,8 @@
+CREATE TABLE `jianmu_worker_heartbeat`
+(
+    `worker_id`      varchar(128) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'Worker ID',
+    `last_seen_time` datetime                                NOT NULL COMMENT '最后一次收到ping的时间',
+    PRIMARY KEY (`worker_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='Worker存活时间表';
@@ -0,0 +1,4 @@
+ALTER TABLE `jianmu_worker_signal`
+    add `claimed_by`   varchar(128) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '领取节点' AFTER `business_id`;
+ALTER TABLE `jianmu_worker_signal`
+    add `claimed_time` datetime                                DEFAULT NULL COMMENT '领取时间' AFTER `claimed_by`;
@@ -0,0 +1,13 @@
+CREATE INDEX task_instance_business_id ON `task_instance` (`business_id`, `serial_no`);
+CREATE INDEX task_instance_trigger_id ON `task_instance` (`trigger_id`, `status`);
+CREATE INDEX task_instance_worker_status ON `task_instance` (`status`, `_version`, `worker_id`);
+CREATE INDEX task_instance_workflow_ref ON `task_instance` (`workflow_ref`);
+
+CREATE INDEX task_instance_parameter_instance_id ON `task_instance_parameter` (`instance_id`, `type`);
+CREATE INDEX task_instance_parameter_trigger_id ON `task_instance_parameter` (`trigger_id`, `type`, `async_task_ref`, `ref`, `serial_no`);
+
+CREATE INDEX workflow_instance_ref_status ON `workflow_instance` (`workflow_ref`, `status`, `serial_no`);
+CREATE INDEX workflow_instance_ref_serial_no ON `workflow_instance` (`workflow_ref`, `serial_no`);
+
+CREATE INDEX async_task_instance_instance_id ON `async_task_instance` (`workflow_instance_id`);
+CREATE INDEX async_task_instance_workflow_ref ON `async_task_instance` (`workflow_ref`);
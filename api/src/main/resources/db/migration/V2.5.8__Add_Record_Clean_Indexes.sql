@@ -0,0 +1,6 @@
+CREATE INDEX task_instance_parameter_parameter_id ON `task_instance_parameter` (`parameter_id`);
+
+CREATE INDEX jianmu_trigger_event_parameter_event_id ON `jianmu_trigger_event_parameter` (`trigger_event_id`);
+CREATE INDEX jianmu_trigger_event_parameter_parameter_id ON `jianmu_trigger_event_parameter` (`parameter_id`);
+
+CREATE INDEX jianmu_web_request_project_id ON `jianmu_web_request` (`project_id`, `request_time`);
@@ -0,0 +1,25 @@
+CREATE TABLE `jianmu_cluster_lease`
+(
+    `name`        varchar(255) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '锁或租约名称',
+    `owner`       varchar(128) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '租约持有节点',
+    `expire_time` datetime                                DEFAULT NULL COMMENT '租约过期时间',
+    PRIMARY KEY (`name`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='集群锁与租约表';
+
+CREATE TABLE `jianmu_worker_signal`
+(
+    `id`           varchar(64) COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT 'ID',
+    `type`         varchar(16) COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '信号类型',
+    `worker_id`    varchar(128) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'Worker ID',
+    `business_id`  varchar(64) COLLATE utf8mb4_unicode_ci  NOT NULL COMMENT '任务业务ID',
+    `created_time` datetime                                NOT NULL COMMENT '创建时间',
+    PRIMARY KEY (`id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='跨节点Worker信号表';
+
+CREATE INDEX jianmu_worker_signal_worker_id ON `jianmu_worker_signal` (`worker_id`);
+CREATE INDEX jianmu_worker_signal_business_id ON `jianmu_worker_signal` (`business_id`);
+CREATE INDEX jianmu_worker_signal_created_time ON `jianmu_worker_signal` (`type`, `created_time`);
@@ -0,0 +1,121 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.credential.CachingCredentialManager;
+import dev.jianmu.infrastructure.credential.CredentialProperties;
+import dev.jianmu.secret.aggregate.CredentialManager;
+import dev.jianmu.secret.aggregate.KVPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ * @class CachingCredentialManagerTest
+ * @description 凭证缓存的有效期、清除、加载期间清除与预取失败时回退的测试
+ * @create 2026-10-18 01:23
+ */
+public class CachingCredentialManagerTest {
+    private static final String namespace = "namespace";
+
+    private CredentialManager delegate;
+
+    @BeforeEach
+    public void setUp() {
+        this.delegate = mock(CredentialManager.class);
+        when(this.delegate.findAllKVByNamespaceName(namespace)).thenReturn(List.of(
+                this.kvPair("a", "1"),
+                this.kvPair("b", "2")
+        ));
+    }
+
+    private KVPair kvPair(String key, String value) {
+        return KVPair.Builder.aKVPair()
+                .namespaceName(namespace)
+                .key(key)
+                .value(value)
+                .build();
+    }
+
+    private CachingCredentialManager cachingCredentialManager(long ttl) {
+        var cacheProperties = new CredentialProperties.CacheProperties();
+        cacheProperties.setTtl(ttl);
+        return new CachingCredentialManager(this.delegate, cacheProperties);
+    }
+
+    private String value(Optional<KVPair> kvPair) {
+        return kvPair.map(KVPair::getValue).orElse(null);
+    }
+
+    @Test
+    public void namespaceIsLoadedOnce() {
+        var credentialManager = this.cachingCredentialManager(60);
+
+        assertEquals("1", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "a")));
+        assertEquals("2", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "b")));
+        assertTrue(credentialManager.findByNamespaceNameAndKey(namespace, "c").isEmpty());
+        var kvPairs = credentialManager.findAllKVByNamespaceName(namespace);
+
+        assertEquals(List.of("a", "b"), kvPairs.stream().map(KVPair::getKey).collect(Collectors.toList()));
+        assertEquals("2", kvPairs.get(1).getValue());
+        verify(this.delegate, times(1)).findAllKVByNamespaceName(namespace);
+        verify(this.delegate, never()).findByNamespaceNameAndKey(any(), any());
+        assertEquals(3, credentialManager.getHitCount());
+    }
+
+    @Test
+    public void expiredNamespaceIsReloaded() {
+        var credentialManager = this.cachingCredentialManager(0);
+
+        credentialManager.findByNamespaceNameAndKey(namespace, "a");
+        credentialManager.findAllKVByNamespaceName(namespace);
+
+        verify(this.delegate, times(2)).findAllKVByNamespaceName(namespace);
+        assertEquals(0, credentialManager.getHitCount());
+    }
+
+    @Test
+    public void modificationEvictsNamespace() {
+        var credentialManager = this.cachingCredentialManager(60);
+        credentialManager.findByNamespaceNameAndKey(namespace, "a");
+
+        credentialManager.createKVPair(this.kvPair("a", "3"));
+        when(this.delegate.findAllKVByNamespaceName(namespace)).thenReturn(List.of(this.kvPair("a", "3")));
+
+        assertEquals("3", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "a")));
+        verify(this.delegate, times(2)).findAllKVByNamespaceName(namespace);
+    }
+
+    @Test
+    public void loadRacingWithEvictIsNotCached() {
+        var credentialManager = this.cachingCredentialManager(60);
+        // 加载返回旧值期间密钥被修改并清除缓存
+        when(this.delegate.findAllKVByNamespaceName(namespace)).thenAnswer(invocation -> {
+            credentialManager.evict(namespace);
+            return List.of(this.kvPair("a", "1"));
+        });
+
+        assertEquals("1", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "a")));
+        assertEquals(0, credentialManager.getSize());
+
+        when(this.delegate.findAllKVByNamespaceName(namespace)).thenReturn(List.of(this.kvPair("a", "3")));
+        assertEquals("3", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "a")));
+        assertEquals(1, credentialManager.getSize());
+    }
+
+    @Test
+    public void failedPrefetchFallsBackToSingleKey() {
+        var credentialManager = this.cachingCredentialManager(60);
+        when(this.delegate.findAllKVByNamespaceName(namespace)).thenThrow(new IllegalStateException("不支持列出密钥"));
+        when(this.delegate.findByNamespaceNameAndKey(namespace, "a")).thenReturn(Optional.of(this.kvPair("a", "1")));
+
+        assertEquals("1", this.value(credentialManager.findByNamespaceNameAndKey(namespace, "a")));
+        assertEquals(0, credentialManager.getSize());
+        assertThrows(IllegalStateException.class, () -> credentialManager.findAllKVByNamespaceName(namespace));
+    }
+}
@@ -0,0 +1,165 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.DbClusterCoordinator;
+import dev.jianmu.infrastructure.cluster.WorkerSignal;
+import dev.jianmu.infrastructure.mapper.cluster.ClusterLeaseMapper;
+import dev.jianmu.infrastructure.mapper.cluster.WorkerSignalMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @class DbClusterCoordinatorTest
+ * @description 两个节点共用同一数据库时的租约、集群锁与Worker信号领取测试
+ * @create 2026-10-18 01:04
+ */
+public class DbClusterCoordinatorTest {
+    private DataSourceTransactionManager transactionManager;
+    private DbClusterCoordinator node1;
+    private DbClusterCoordinator node2;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (var connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("testdb/migration/schema.sql"));
+        }
+        var configuration = new org.apache.ibatis.session.Configuration();
+        configuration.addMapper(ClusterLeaseMapper.class);
+        configuration.addMapper(WorkerSignalMapper.class);
+        var factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(configuration);
+        var sqlSessionTemplate = new SqlSessionTemplate(factoryBean.getObject());
+        this.transactionManager = new DataSourceTransactionManager(dataSource);
+        this.node1 = this.newNode(sqlSessionTemplate, "node1");
+        this.node2 = this.newNode(sqlSessionTemplate, "node2");
+    }
+
+    private DbClusterCoordinator newNode(SqlSessionTemplate sqlSessionTemplate, String nodeId) {
+        var globalProperties = new GlobalProperties();
+        globalProperties.getCluster().setNodeId(nodeId);
+        return new DbClusterCoordinator(
+                sqlSessionTemplate.getMapper(ClusterLeaseMapper.class),
+                sqlSessionTemplate.getMapper(WorkerSignalMapper.class),
+                globalProperties,
+                this.transactionManager
+        );
+    }
+
+    private WorkerSignal dispatchSignal(String id) {
+        return WorkerSignal.builder()
+                .id(id)
+                .type(WorkerSignal.Type.DISPATCH)
+                .workerId("worker")
+                .businessId("business-" + id)
+                .createdTime(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    public void leaseIsHeldByOneNode() {
+        assertTrue(this.node1.tryAcquireLease("lease", Duration.ofMinutes(1)));
+        assertFalse(this.node2.tryAcquireLease("lease", Duration.ofMinutes(1)));
+        // 持有节点可以续期
+        assertTrue(this.node1.tryAcquireLease("lease", Duration.ofMinutes(1)));
+        assertFalse(this.node2.tryAcquireLease("lease", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void expiredLeaseIsTakenOver() {
+        assertTrue(this.node1.tryAcquireLease("lease", Duration.ofSeconds(-1)));
+        assertTrue(this.node2.tryAcquireLease("lease", Duration.ofMinutes(1)));
+        assertFalse(this.node1.tryAcquireLease("lease", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void signalIsClaimedOnce() {
+        this.node1.publish(this.dispatchSignal("1"));
+        assertEquals(1, this.node2.findSignals(List.of("worker")).size());
+
+        assertTrue(this.node2.claim("1"));
+        assertFalse(this.node1.claim("1"));
+        assertFalse(this.node2.claim("1"));
+        // 已领取的信号不再返回给其他节点
+        assertTrue(this.node1.findSignals(List.of("worker")).isEmpty());
+    }
+
+    @Test
+    public void republishedSignalCanBeClaimedAgain() {
+        this.node1.publish(this.dispatchSignal("2"));
+        assertTrue(this.node1.claim("2"));
+
+        // 任务重新入队
+        this.node1.publish(this.dispatchSignal("2"));
+        assertEquals(1, this.node2.findSignals(List.of("worker")).size());
+        assertTrue(this.node2.claim("2"));
+        assertFalse(this.node1.claim("2"));
+    }
+
+    @Test
+    public void removedSignalCannotBeClaimed() {
+        this.node1.publish(this.dispatchSignal("3"));
+        this.node1.removeSignals("business-3");
+
+        assertTrue(this.node2.findSignals(List.of("worker")).isEmpty());
+        assertFalse(this.node2.claim("3"));
+    }
+
+    @Test
+    public void lockRequiresTransaction() {
+        assertThrows(IllegalStateException.class, () -> this.node1.lock("key"));
+    }
+
+    @Test
+    public void lockBlocksOtherNodeUntilCommit() throws Exception {
+        var transactionTemplate = new TransactionTemplate(this.transactionManager);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var holder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            this.node1.lock("key");
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        var acquired = new AtomicBoolean();
+        var waiter = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            this.node2.lock("key");
+            acquired.set(true);
+        }));
+        waiter.start();
+        Thread.sleep(200);
+        assertFalse(acquired.get());
+
+        release.countDown();
+        holder.join(5000);
+        waiter.join(5000);
+        assertTrue(acquired.get());
+    }
+}
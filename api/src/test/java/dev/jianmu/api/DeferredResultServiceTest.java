@@ -0,0 +1,159 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.cluster.LocalClusterCoordinator;
+import dev.jianmu.infrastructure.worker.DeferredResultService;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.task.repository.TaskInstanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ * @class DeferredResultServiceTest
+ * @description Worker待拉取队列与挂起拉取请求的测试，包括事务提交后分发与响应创建失败次数限制
+ * @create 2026-10-18 01:10
+ */
+public class DeferredResultServiceTest {
+    private static final String workerId = "worker";
+    private static final Function<TaskInstance, ResponseEntity<?>> responder = taskInstance -> ResponseEntity.ok(taskInstance.getBusinessId());
+
+    private TaskInstanceRepository taskInstanceRepository;
+    private DeferredResultService deferredResultService;
+
+    @BeforeEach
+    public void setUp() {
+        this.taskInstanceRepository = mock(TaskInstanceRepository.class);
+        var transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        this.deferredResultService = new DeferredResultService(
+                new LocalClusterCoordinator(),
+                this.taskInstanceRepository,
+                transactionManager
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private TaskInstance taskInstance(String businessId, String triggerId) {
+        return TaskInstance.Builder.anInstance()
+                .serialNo(1)
+                .defKey("node")
+                .asyncTaskRef("node")
+                .workflowRef("workflow")
+                .workflowVersion("1")
+                .businessId(businessId)
+                .triggerId(triggerId)
+                .build();
+    }
+
+    private Object body(DeferredResult<ResponseEntity<?>> deferredResult) {
+        assertTrue(deferredResult.hasResult());
+        return ((ResponseEntity<?>) deferredResult.getResult()).getBody();
+    }
+
+    @Test
+    public void pullReturnsQueuedTask() {
+        this.deferredResultService.dispatch(workerId, this.taskInstance("1", "trigger"));
+
+        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, null, responder);
+
+        assertEquals("1", this.body(deferredResult));
+    }
+
+    @Test
+    public void waitingPullReceivesDispatchedTask() {
+        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, null, responder);
+        assertFalse(deferredResult.hasResult());
+
+        this.deferredResultService.dispatch(workerId, this.taskInstance("2", "trigger"));
+
+        assertEquals("2", this.body(deferredResult));
+    }
+
+    @Test
+    public void pullOnlyMatchesItsTrigger() {
+        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, "trigger-a", responder);
+
+        this.deferredResultService.dispatch(workerId, this.taskInstance("3", "trigger-b"));
+        assertFalse(deferredResult.hasResult());
+
+        this.deferredResultService.dispatch(workerId, this.taskInstance("4", "trigger-a"));
+        assertEquals("4", this.body(deferredResult));
+        // 其他触发器的任务仍在队列中
+        assertEquals("3", this.body(this.deferredResultService.newPullDeferredResult(workerId, null, responder)));
+    }
+
+    @Test
+    public void removedTaskIsNotPulled() {
+        this.deferredResultService.dispatch(workerId, this.taskInstance("5", "trigger"));
+        this.deferredResultService.removeTask(workerId, "5");
+
+        assertFalse(this.deferredResultService.newPullDeferredResult(workerId, null, responder).hasResult());
+    }
+
+    @Test
+    public void dispatchWaitsForCommit() {
+        var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, null, responder);
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.deferredResultService.dispatch(workerId, this.taskInstance("6", "trigger"));
+        assertFalse(deferredResult.hasResult());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals("6", this.body(deferredResult));
+    }
+
+    @Test
+    public void rolledBackDispatchIsDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        this.deferredResultService.dispatch(workerId, this.taskInstance("7", "trigger"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(this.deferredResultService.newPullDeferredResult(workerId, null, responder).hasResult());
+    }
+
+    @Test
+    public void failingResponderRequeuesThenFailsDispatch() {
+        var taskInstance = this.taskInstance("8", "trigger");
+        when(this.taskInstanceRepository.findById(taskInstance.getId())).thenReturn(Optional.of(taskInstance));
+        Function<TaskInstance, ResponseEntity<?>> failing = t -> {
+            throw new IllegalStateException("无法创建响应");
+        };
+        this.deferredResultService.dispatch(workerId, taskInstance);
+
+        for (int i = 0; i < 2; i++) {
+            var deferredResult = this.deferredResultService.newPullDeferredResult(workerId, null, failing);
+            assertEquals(HttpStatus.NO_CONTENT, ((ResponseEntity<?>) deferredResult.getResult()).getStatusCode());
+            verify(this.taskInstanceRepository, never()).updateStatus(any());
+        }
+        this.deferredResultService.newPullDeferredResult(workerId, null, failing);
+
+        assertEquals(InstanceStatus.DISPATCH_FAILED, taskInstance.getStatus());
+        verify(this.taskInstanceRepository).updateStatus(taskInstance);
+        // 不再重新入队
+        assertFalse(this.deferredResultService.newPullDeferredResult(workerId, null, responder).hasResult());
+    }
+}
@@ -0,0 +1,182 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.event.EventLaneExecutor;
+import dev.jianmu.infrastructure.event.EventMailbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @class EventMailboxTest
+ * @description 同一Key事件的执行顺序、通道已满时的同步执行、溢出与拒绝测试
+ * @create 2026-10-18 01:15
+ */
+public class EventMailboxTest {
+    private static final String lane = "lane";
+
+    private final List<EventLaneExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        this.executors.forEach(EventLaneExecutor::shutdown);
+    }
+
+    private EventMailbox mailbox(int poolSize, int queueCapacity, int spillCapacity) {
+        var executor = new EventLaneExecutor(lane, poolSize, poolSize, queueCapacity, spillCapacity);
+        executor.initialize();
+        this.executors.add(executor);
+        return new EventMailbox(Map.of(lane, executor));
+    }
+
+    private void awaitEmpty(EventMailbox eventMailbox) throws InterruptedException {
+        var deadline = System.currentTimeMillis() + 5000;
+        while (eventMailbox.getSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, eventMailbox.getSize());
+    }
+
+    @Test
+    public void sameKeyRunsInOrder() throws InterruptedException {
+        var eventMailbox = this.mailbox(8, 10000, 100);
+        var results = new ConcurrentHashMap<String, List<Integer>>();
+        var running = new ConcurrentHashMap<String, AtomicInteger>();
+        var overlaps = new AtomicInteger();
+        for (int i = 0; i < 2000; i++) {
+            var key = "trigger-" + (i % 10);
+            var seq = i / 10;
+            eventMailbox.dispatch(lane, key, () -> {
+                if (running.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                results.computeIfAbsent(key, k -> new ArrayList<>()).add(seq);
+                running.get(key).decrementAndGet();
+            });
+        }
+        this.awaitEmpty(eventMailbox);
+
+        assertEquals(0, overlaps.get());
+        assertEquals(10, results.size());
+        results.values().forEach(seqs -> {
+            assertEquals(200, seqs.size());
+            for (int i = 0; i < seqs.size(); i++) {
+                assertEquals(i, seqs.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void inlineExecutionDoesNotRecurse() throws InterruptedException {
+        // 单线程、队列容量1，通道线程提交时队列已满，任务在通道线程中同步执行
+        var eventMailbox = this.mailbox(1, 1, 0);
+        var count = 20000;
+        var executed = new ArrayList<Integer>();
+        var failure = new AtomicReference<Throwable>();
+        var done = new CountDownLatch(1);
+        var chain = new HashMap<Integer, Runnable>();
+        for (int i = 0; i < count; i++) {
+            var seq = i;
+            chain.put(seq, () -> {
+                executed.add(seq);
+                if (seq + 1 < count) {
+                    eventMailbox.dispatch(lane, "chain", chain.get(seq + 1));
+                } else {
+                    done.countDown();
+                }
+            });
+        }
+        eventMailbox.dispatch(lane, "starter", () -> {
+            try {
+                // 占满队列
+                eventMailbox.dispatch(lane, "filler", () -> {
+                });
+                eventMailbox.dispatch(lane, "chain", chain.get(0));
+            } catch (Throwable e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        assertEquals(count, executed.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, executed.get(i));
+        }
+        this.awaitEmpty(eventMailbox);
+    }
+
+    @Test
+    public void rejectedTaskIsThrownToCaller() throws InterruptedException {
+        var eventMailbox = this.mailbox(1, 1, 0);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        eventMailbox.dispatch(lane, "blocker", () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        eventMailbox.dispatch(lane, "queued", () -> {
+        });
+
+        var executed = new AtomicInteger();
+        assertThrows(RejectedExecutionException.class, () -> eventMailbox.dispatch(lane, "rejected", executed::incrementAndGet));
+
+        release.countDown();
+        this.awaitEmpty(eventMailbox);
+        // 被拒绝的任务不会执行，之后同一Key的任务正常执行
+        eventMailbox.dispatch(lane, "rejected", executed::incrementAndGet);
+        this.awaitEmpty(eventMailbox);
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    public void spillIsBoundedAndDoesNotBlockCaller() throws InterruptedException {
+        var eventMailbox = this.mailbox(1, 1, 1);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        eventMailbox.dispatch(lane, "blocker", () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        eventMailbox.dispatch(lane, "queued", () -> {
+        });
+
+        // 外部线程提交时队列已满，放入溢出队列后立即返回，不在提交线程中执行
+        var caller = Thread.currentThread();
+        var executedBy = new AtomicReference<Thread>();
+        eventMailbox.dispatch(lane, "spilled", () -> executedBy.set(Thread.currentThread()));
+        assertNull(executedBy.get());
+        // 溢出队列已满时拒绝并计入拒绝统计
+        assertThrows(RejectedExecutionException.class, () -> eventMailbox.dispatch(lane, "overflow", () -> {
+        }));
+        assertEquals(1, this.executors.get(0).getRejectedCount());
+
+        release.countDown();
+        this.awaitEmpty(eventMailbox);
+        assertNotNull(executedBy.get());
+        assertNotSame(caller, executedBy.get());
+    }
+}
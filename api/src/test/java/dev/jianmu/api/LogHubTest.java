@@ -0,0 +1,93 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.SseSender;
+import dev.jianmu.infrastructure.storage.LogFileReader;
+import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @class LogHubTest
+ * @description 同一日志多个订阅者时每个订阅者收到的推送内容测试
+ * @create 2026-10-18 01:41
+ */
+public class LogHubTest {
+    private static final String logId = "task";
+
+    @TempDir
+    Path directory;
+
+    private SseSender sseSender;
+    private MonitoringFileService monitoringFileService;
+    private Path path;
+
+    /**
+     * 记录每次发送的完整SSE文本
+     */
+    private static class RecordingSseEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            var sb = new StringBuilder();
+            builder.build().forEach(data -> sb.append(data.getData()));
+            this.frames.add(sb.toString());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.path = this.directory.resolve(logId + ".log");
+        Files.writeString(this.path, "");
+        this.sseSender = new SseSender();
+        this.monitoringFileService = new MonitoringFileService(new LogFileReader(), this.sseSender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.sseSender.shutdown();
+    }
+
+    private void awaitFrames(RecordingSseEmitter sseEmitter, int count) throws InterruptedException {
+        var deadline = System.currentTimeMillis() + 5000;
+        while (sseEmitter.frames.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void subscribersReceiveSameFrames() throws Exception {
+        var first = new RecordingSseEmitter();
+        var second = new RecordingSseEmitter();
+        this.monitoringFileService.subscribe(logId + ".log", this.path, first, 100);
+        this.monitoringFileService.subscribe(logId + ".log", this.path, second, 100);
+
+        Files.writeString(this.path, "line1\nline2\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        this.monitoringFileService.sendLog(logId);
+        Files.writeString(this.path, "line3\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        this.monitoringFileService.sendLog(logId);
+
+        var expected = List.of(
+                "id:1\ndata:line1\n\n",
+                "id:2\ndata:line2\n\n",
+                "id:3\ndata:line3\n\n"
+        );
+        this.awaitFrames(first, expected.size());
+        this.awaitFrames(second, expected.size());
+        assertEquals(expected, first.frames);
+        assertEquals(expected, second.frames);
+    }
+}
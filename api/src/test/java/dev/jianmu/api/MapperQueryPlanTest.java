@@ -0,0 +1,170 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
+import dev.jianmu.infrastructure.mapper.task.InstanceParameterMapper;
+import dev.jianmu.infrastructure.mapper.task.TaskInstanceMapper;
+import dev.jianmu.infrastructure.mapper.trigger.TriggerEventMapper;
+import dev.jianmu.infrastructure.mapper.trigger.TriggerEventParameterMapper;
+import dev.jianmu.infrastructure.mapper.trigger.WebRequestMapper;
+import dev.jianmu.infrastructure.mapper.webhook.WebhookInboxMapper;
+import dev.jianmu.infrastructure.mapper.workflow.AsyncTaskInstanceMapper;
+import dev.jianmu.infrastructure.mapper.workflow.WorkflowInstanceMapper;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ * @class MapperQueryPlanTest
+ * @description 对热点Mapper的查询语句执行EXPLAIN，出现全表扫描时失败
+ * @create 2026-10-17 23:54
+ */
+public class MapperQueryPlanTest {
+    private static final List<Class<?>> mappers = List.of(
+            TaskInstanceMapper.class,
+            InstanceParameterMapper.class,
+            WorkflowInstanceMapper.class,
+            AsyncTaskInstanceMapper.class,
+            ParameterMapper.class,
+            TriggerEventMapper.class,
+            TriggerEventParameterMapper.class,
+            WebRequestMapper.class,
+            WebhookInboxMapper.class
+    );
+    // 本身需要读取全表的语句
+    private static final Set<String> fullScans = Set.of(
+            "TaskInstanceMapper.findAll",
+            "WorkflowInstanceMapper.findAll",
+            "WorkflowInstanceMapper.findAllPage"
+    );
+
+    /**
+     * 任意参数名都返回示例值，集合参数返回单元素列表
+     */
+    private static final Pattern unsupported = Pattern.compile(
+            "(?i)(\\bCOLLATE\\s*=?\\s*\\w+|\\bENGINE\\s*=\\s*\\w+|\\bDEFAULT\\s+CHARSET\\s*=\\s*\\w+|\\bCHARACTER\\s+SET\\s+\\w+)");
+    // 存储过程只用于迁移历史数据，与表结构无关
+    private static final Pattern procedure = Pattern.compile(
+            "(?is)DELIMITER //.*?DELIMITER ;|^\\s*(CALL|DROP PROCEDURE)\\b[^;]*;", Pattern.MULTILINE);
+
+    private static class SampleParameters extends HashMap<String, Object> {
+        @Override
+        public boolean containsKey(Object key) {
+            return true;
+        }
+
+        @Override
+        public Object get(Object key) {
+            var name = key.toString();
+            if (name.endsWith("ids") || name.endsWith("Ids") || name.endsWith("statuses")) {
+                return List.of("1");
+            }
+            if (name.endsWith("Time")) {
+                return LocalDateTime.now();
+            }
+            return "1";
+        }
+    }
+
+    @Test
+    void noFullScan() throws IOException, SQLException {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        try (var connection = dataSource.getConnection()) {
+            this.migrate(connection);
+        }
+        var configuration = new Configuration();
+        mappers.forEach(configuration::addMapper);
+
+        var statements = new ArrayList<MappedStatement>();
+        configuration.getMappedStatementNames().stream()
+                .filter(name -> mappers.stream().anyMatch(mapper -> name.startsWith(mapper.getName() + ".")))
+                .distinct()
+                .sorted()
+                .forEach(name -> statements.add(configuration.getMappedStatement(name)));
+        assertTrue(statements.size() > 0);
+
+        var failures = new ArrayList<String>();
+        try (var connection = dataSource.getConnection()) {
+            for (var statement : statements) {
+                var id = statement.getId().substring(statement.getId().lastIndexOf('.', statement.getId().lastIndexOf('.') - 1) + 1);
+                // 更新语句均按主键执行
+                if (statement.getSqlCommandType() == SqlCommandType.INSERT
+                        || statement.getSqlCommandType() == SqlCommandType.UPDATE
+                        || fullScans.contains(id)) {
+                    continue;
+                }
+                var plan = this.explain(connection, statement);
+                if (plan.contains("tableScan")) {
+                    failures.add(id + ": " + plan);
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), "全表扫描:\n" + String.join("\n", failures));
+    }
+
+    /**
+     * 按版本顺序执行生产环境的迁移脚本，去掉H2不支持的MySQL表选项
+     */
+    private void migrate(Connection connection) throws IOException, SQLException {
+        var resources = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+        Arrays.sort(resources, Comparator.comparing(resource -> new MigrationVersion(resource.getFilename())));
+        for (var resource : resources) {
+            var script = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            script = procedure.matcher(script).replaceAll("");
+            script = unsupported.matcher(script).replaceAll("");
+            try (var statement = connection.createStatement()) {
+                for (var sql : script.split(";\\s*(\\n|$)")) {
+                    if (!sql.isBlank()) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class MigrationVersion implements Comparable<MigrationVersion> {
+        private final int[] parts;
+
+        private MigrationVersion(String filename) {
+            this.parts = Arrays.stream(filename.substring(1, filename.indexOf("__")).split("\\."))
+                    .mapToInt(Integer::parseInt)
+                    .toArray();
+        }
+
+        @Override
+        public int compareTo(MigrationVersion other) {
+            return Arrays.compare(this.parts, other.parts);
+        }
+    }
+
+    private String explain(Connection connection, MappedStatement statement) throws SQLException {
+        var parameters = new SampleParameters();
+        var boundSql = statement.getBoundSql(parameters);
+        try (var preparedStatement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameters, boundSql).setParameters(preparedStatement);
+            try (var resultSet = preparedStatement.executeQuery()) {
+                var plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+                return plan.toString();
+            }
+        }
+    }
+}
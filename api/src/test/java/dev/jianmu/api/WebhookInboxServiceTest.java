@@ -0,0 +1,150 @@
+package dev.jianmu.api;
+
+import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.application.service.internal.WebhookInboxService;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.mapper.webhook.WebhookInboxMapper;
+import dev.jianmu.infrastructure.webhook.WebhookInbox;
+import dev.jianmu.trigger.aggregate.WebRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ * @class WebhookInboxServiceTest
+ * @description Webhook收件箱处理失败时的回滚、放回与重试次数测试
+ * @create 2026-10-18 00:51
+ */
+public class WebhookInboxServiceTest {
+    private static final String claimId = "claim";
+
+    private WebhookInboxMapper webhookInboxMapper;
+    private TriggerApplication triggerApplication;
+    private PlatformTransactionManager transactionManager;
+    private WebhookInboxService webhookInboxService;
+
+    @BeforeEach
+    public void setUp() {
+        this.webhookInboxMapper = mock(WebhookInboxMapper.class);
+        this.triggerApplication = mock(TriggerApplication.class);
+        this.transactionManager = mock(PlatformTransactionManager.class);
+        when(this.transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(this.webhookInboxMapper.claim(anyString(), any(), any(), anyInt())).thenReturn(1);
+        when(this.webhookInboxMapper.finish(anyString(), anyString())).thenReturn(1);
+        this.webhookInboxService = new WebhookInboxService(
+                this.webhookInboxMapper,
+                this.triggerApplication,
+                mock(ClusterCoordinator.class),
+                new GlobalProperties(),
+                this.transactionManager
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.webhookInboxService.shutdown();
+    }
+
+    private WebhookInbox claimed(String id, int attempts) {
+        var inbox = WebhookInbox.builder()
+                .id(id)
+                .projectName("project")
+                .payload("{}")
+                .statusCode(WebRequest.StatusCode.OK.name())
+                .status(WebhookInbox.Status.PROCESSING)
+                .claimId(claimId)
+                .attempts(attempts)
+                .receivedTime(LocalDateTime.now())
+                .build();
+        when(this.webhookInboxMapper.findByClaimId(anyString())).thenReturn(List.of(inbox));
+        return inbox;
+    }
+
+    @Test
+    public void releaseWhenTriggerLaneRejects() {
+        this.claimed("1", 1);
+        when(this.triggerApplication.receiveHttpEvent(anyString(), any()))
+                .thenThrow(new TaskRejectedException("事件通道繁忙"));
+
+        this.webhookInboxService.poll();
+
+        verify(this.webhookInboxMapper, timeout(2000)).release("1", claimId);
+        verify(this.transactionManager).rollback(any());
+        verify(this.webhookInboxMapper, never()).fail(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void retryWhenDataAccessFails() {
+        this.claimed("2", 1);
+        when(this.triggerApplication.receiveHttpEvent(anyString(), any()))
+                .thenThrow(new DuplicateKeyException("duplicate"));
+
+        this.webhookInboxService.poll();
+
+        verify(this.webhookInboxMapper, timeout(2000)).retry("2", claimId, "duplicate");
+        verify(this.transactionManager).rollback(any());
+    }
+
+    @Test
+    public void failWhenMaxAttemptsReached() {
+        var maxAttempts = new GlobalProperties().getWebhook().getMaxAttempts();
+        this.claimed("3", maxAttempts);
+        when(this.triggerApplication.receiveHttpEvent(anyString(), any()))
+                .thenThrow(new DuplicateKeyException("duplicate"));
+
+        this.webhookInboxService.poll();
+
+        verify(this.webhookInboxMapper, timeout(2000)).fail("3", claimId, "duplicate");
+        verify(this.webhookInboxMapper, never()).retry(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void failWithoutProcessingWhenClaimedTooManyTimes() {
+        var maxAttempts = new GlobalProperties().getWebhook().getMaxAttempts();
+        this.claimed("4", maxAttempts + 1);
+
+        this.webhookInboxService.poll();
+
+        verify(this.webhookInboxMapper, timeout(2000)).fail(eq("4"), eq(claimId), anyString());
+        verify(this.triggerApplication, never()).receiveHttpEvent(anyString(), any());
+    }
+
+    @Test
+    public void finishWhenRequestIsNotAccepted() {
+        this.claimed("5", 1);
+        when(this.triggerApplication.receiveHttpEvent(anyString(), any()))
+                .thenThrow(new IllegalArgumentException("未找到触发器参数"));
+
+        this.webhookInboxService.poll();
+
+        verify(this.transactionManager, timeout(2000)).commit(any());
+        verify(this.webhookInboxMapper).finish("5", claimId);
+        verify(this.webhookInboxMapper, never()).retry(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void rollbackWithoutTriggeringWhenClaimIsLost() {
+        this.claimed("6", 1);
+        when(this.webhookInboxMapper.finish("6", claimId)).thenReturn(0);
+
+        this.webhookInboxService.poll();
+
+        verify(this.transactionManager, timeout(2000)).rollback(any());
+        verify(this.triggerApplication, never()).receiveHttpEvent(anyString(), any());
+        verify(this.webhookInboxMapper, never()).retry(anyString(), anyString(), any());
+        verify(this.webhookInboxMapper, never()).fail(anyString(), anyString(), any());
+        verify(this.webhookInboxMapper, never()).release(anyString(), anyString());
+    }
+}
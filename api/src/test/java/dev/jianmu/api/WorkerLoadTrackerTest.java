@@ -0,0 +1,73 @@
+package dev.jianmu.api;
+
+import dev.jianmu.infrastructure.worker.WorkerLoadTracker;
+import dev.jianmu.worker.aggregate.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author agent
+ * @class WorkerLoadTrackerTest
+ * @description 事务中分配Worker负载时提交与回滚的测试
+ * @create 2026-10-18 01:47
+ */
+public class WorkerLoadTrackerTest {
+    private final Worker worker = Worker.Builder.aWorker().id("worker").build();
+
+    private WorkerLoadTracker workerLoadTracker;
+
+    @BeforeEach
+    public void setUp() {
+        this.workerLoadTracker = new WorkerLoadTracker();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @Test
+    public void committedAcquireIsKept() {
+        this.workerLoadTracker.acquireInTransaction("worker", "trigger", "task");
+        this.complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, this.workerLoadTracker.getLoad(this.worker));
+        assertEquals("worker", this.workerLoadTracker.findWorkerIdByTriggerId("trigger").orElse(null));
+    }
+
+    @Test
+    public void rolledBackAcquireIsReleased() {
+        this.workerLoadTracker.acquireInTransaction("worker", "trigger", "task");
+        assertEquals(1, this.workerLoadTracker.getLoad(this.worker));
+
+        this.complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, this.workerLoadTracker.getLoad(this.worker));
+        assertTrue(this.workerLoadTracker.findWorkerIdByTriggerId("trigger").isEmpty());
+    }
+
+    @Test
+    public void rollbackKeepsEarlierTasksOfTrigger() {
+        this.workerLoadTracker.acquire("worker", "trigger", "task-1");
+        this.workerLoadTracker.acquireInTransaction("worker", "trigger", "task-2");
+
+        this.complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(1, this.workerLoadTracker.getLoad(this.worker));
+        assertEquals("worker", this.workerLoadTracker.findWorkerIdByTriggerId("trigger").orElse(null));
+    }
+}
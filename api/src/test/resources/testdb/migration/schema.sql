@@ -68,6 +68,25 @@ CREATE TABLE `jianmu_web_request`
     PRIMARY KEY (`id`)
 );
 
+CREATE TABLE `jianmu_webhook_inbox`
+(
+    `id`            varchar(45)  NOT NULL COMMENT 'WebRequest ID',
+    `project_name`  varchar(255) NOT NULL COMMENT '项目名称',
+    `user_agent`    text COMMENT 'UserAgent',
+    `payload`       longtext COMMENT '请求载荷，处理完成后清空',
+    `status_code`   varchar(45)  NOT NULL COMMENT '接收时的请求状态',
+    `error_msg`     text COMMENT '接收时的错误信息',
+    `dedupe_key`    varchar(64)  DEFAULT NULL COMMENT '投递去重Key',
+    `status`        varchar(16)  NOT NULL COMMENT '处理状态',
+    `claim_id`      varchar(64)  DEFAULT NULL COMMENT '领取批次ID',
+    `claimed_time`  datetime     DEFAULT NULL COMMENT '领取时间',
+    `attempts`      int          NOT NULL DEFAULT 0 COMMENT '领取次数',
+    `failure`       text COMMENT '最后一次处理失败的原因',
+    `received_time` datetime     NOT NULL COMMENT '接收时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `jianmu_webhook_inbox_dedupe_key` (`dedupe_key`)
+);
+
 CREATE TABLE `jianmu_trigger_event`
 (
     `id`             varchar(45) NOT NULL COMMENT '事件ID',
@@ -174,6 +193,8 @@ CREATE TABLE `task_instance`
     `start_time`       datetime    DEFAULT NULL COMMENT '开始时间',
     `end_time`         datetime    DEFAULT NULL COMMENT '结束时间',
     `status`           varchar(45)  NOT NULL COMMENT '任务运行状态',
+    `worker_id`        varchar(45) DEFAULT NULL COMMENT 'Worker ID',
+    `_version`         int          NOT NULL COMMENT '乐观锁版本字段',
     PRIMARY KEY (`id`)
 );
 
@@ -208,6 +229,33 @@ CREATE TABLE `worker`
     PRIMARY KEY (`id`)
 );
 
+CREATE TABLE `jianmu_worker_heartbeat`
+(
+    `worker_id`      varchar(128) NOT NULL COMMENT 'Worker ID',
+    `last_seen_time` datetime     NOT NULL COMMENT '最后一次收到ping的时间',
+    PRIMARY KEY (`worker_id`)
+);
+
+CREATE TABLE `jianmu_cluster_lease`
+(
+    `name`        varchar(255) NOT NULL COMMENT '锁或租约名称',
+    `owner`       varchar(128) DEFAULT NULL COMMENT '租约持有节点',
+    `expire_time` datetime     DEFAULT NULL COMMENT '租约过期时间',
+    PRIMARY KEY (`name`)
+);
+
+CREATE TABLE `jianmu_worker_signal`
+(
+    `id`           varchar(64)  NOT NULL COMMENT 'ID',
+    `type`         varchar(16)  NOT NULL COMMENT '信号类型',
+    `worker_id`    varchar(128) NOT NULL COMMENT 'Worker ID',
+    `business_id`  varchar(64)  NOT NULL COMMENT '任务业务ID',
+    `claimed_by`   varchar(128) DEFAULT NULL COMMENT '领取节点',
+    `claimed_time` datetime     DEFAULT NULL COMMENT '领取时间',
+    `created_time` datetime     NOT NULL COMMENT '创建时间',
+    PRIMARY KEY (`id`)
+);
+
 CREATE TABLE `secret_namespace`
 (
     `name`               varchar(100) NOT NULL COMMENT '名称',
@@ -4,6 +4,7 @@ import com.github.pagehelper.PageInfo;
 import dev.jianmu.application.dsl.NodeDsl;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDef;
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.client.RegistryClient;
 import dev.jianmu.infrastructure.mybatis.node.NodeDefinitionRepositoryImpl;
 import dev.jianmu.node.definition.aggregate.NodeDefinition;
@@ -20,11 +21,14 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -35,12 +39,58 @@ import java.util.stream.Collectors;
 */
 @Service
 public class HubApplication {
+    private static final int maxNodeDefs = 2048;
+    private static final long notFoundTtl = 60 * 1000L;
+
     private final NodeDefinitionRepositoryImpl nodeDefinitionRepository;
     private final NodeDefinitionVersionRepository nodeDefinitionVersionRepository;
     private final ShellNodeRepository shellNodeRepository;
     private final ParameterRepository parameterRepository;
     private final RegistryClient registryClient;
     private final ApplicationEventPublisher publisher;
+    // 集群部署时其他节点的更新不会清除本节点缓存，按有效时间过期
+    private final Long nodeDefTtl;
+
+    // 节点定义版本不可变，按owner/ref:version缓存，ref被更新或删除时清除
+    private final Map<String, CachedNodeDef> nodeDefs = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedNodeDef> eldest) {
+            return this.size() > maxNodeDefs;
+        }
+    });
+    private final Map<String, CompletableFuture<NodeDef>> loading = new ConcurrentHashMap<>();
+
+    private static class CachedNodeDef {
+        private final NodeDef nodeDef;
+        // 节点定义不存在时的错误信息
+        private final String notFound;
+        private final long expireAt;
+
+        private CachedNodeDef(NodeDef nodeDef, String notFound, long expireAt) {
+            this.nodeDef = nodeDef;
+            this.notFound = notFound;
+            this.expireAt = expireAt;
+        }
+
+        private static CachedNodeDef of(NodeDef nodeDef, Long ttl) {
+            return new CachedNodeDef(nodeDef, null, ttl == null ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+        }
+
+        private static CachedNodeDef notFound(String message) {
+            return new CachedNodeDef(null, message, System.currentTimeMillis() + notFoundTtl);
+        }
+
+        private boolean isValid() {
+            return this.expireAt > System.currentTimeMillis();
+        }
+
+        private NodeDef get() {
+            if (this.nodeDef == null) {
+                throw new DataNotFoundException(this.notFound);
+            }
+            return this.nodeDef;
+        }
+    }
 
     public HubApplication(
             NodeDefinitionRepositoryImpl nodeDefinitionRepository,
@@ -48,7 +98,8 @@ public class HubApplication {
             ShellNodeRepository shellNodeRepository,
             ParameterRepository parameterRepository,
             RegistryClient registryClient,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            GlobalProperties globalProperties
     ) {
         this.nodeDefinitionRepository = nodeDefinitionRepository;
         this.nodeDefinitionVersionRepository = nodeDefinitionVersionRepository;
@@ -56,6 +107,8 @@ public class HubApplication {
         this.parameterRepository = parameterRepository;
         this.registryClient = registryClient;
         this.publisher = publisher;
+        var cluster = globalProperties.getCluster();
+        this.nodeDefTtl = "db".equals(cluster.getCoordinator()) ? cluster.getLocalCacheTtl() : null;
     }
 
     @Transactional
@@ -126,6 +179,7 @@ public class HubApplication {
                 .build();
         this.nodeDefinitionRepository.saveOrUpdate(def);
         this.nodeDefinitionVersionRepository.saveOrUpdate(version);
+        this.evictAfterCommit("local", nodeDsl.getRef());
     }
 
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -137,6 +191,7 @@ public class HubApplication {
             this.nodeDefinitionVersionRepository.saveOrUpdate(version);
         });
         this.nodeDefinitionRepository.saveOrUpdate(node);
+        this.evictAfterCommit(ownerRef, ref);
         var events = versions.stream()
                 .map(nodeDefinitionVersion -> NodeUpdatedEvent.Builder.aNodeUpdatedEvent()
                         .ref(nodeDefinitionVersion.getRef())
@@ -154,6 +209,7 @@ public class HubApplication {
         var versions = this.nodeDefinitionVersionRepository.findByOwnerRefAndRef(ownerRef, ref);
         this.nodeDefinitionRepository.deleteById(ownerRef + "/" + ref);
         this.nodeDefinitionVersionRepository.deleteByOwnerRefAndRef(ownerRef, ref);
+        this.evictAfterCommit(ownerRef, ref);
         var events = versions.stream()
                 .map(nodeDefinitionVersion -> NodeDeletedEvent.Builder.aNodeDeletedEvent()
                         .ref(nodeDefinitionVersion.getRef())
@@ -293,47 +349,83 @@ public class HubApplication {
                 .build();
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public NodeDef getByType(String type) {
-        if (type.startsWith("shell:")) {
-            return this.findShellNodeDef(type);
+        var cached = this.nodeDefs.get(this.cacheKey(type));
+        if (cached != null && cached.isValid()) {
+            return cached.get();
         }
-        var node = this.nodeDefinitionRepository.findById(getOwnerRef(type) + "/" + getRef(type))
-                .orElseGet(() -> this.downloadNodeDef(type));
-        var version =
-                this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type))
-                        .orElseGet(() -> this.downloadNodeDefVersion(getOwnerRef(type), getRef(type), getVersion(type)));
-
-        var nodeDef = NodeDef.builder()
-                .name(node.getName())
-                .description(node.getDescription())
-                .icon(node.getIcon())
-                .ownerName(node.getOwnerName())
-                .ownerType(node.getOwnerType())
-                .ownerRef(node.getOwnerRef())
-                .creatorName(node.getCreatorName())
-                .creatorRef(node.getCreatorRef())
-                .sourceLink(node.getSourceLink())
-                .documentLink(node.getDocumentLink())
-                .type(type)
-                .workerType(node.getType().name())
-                .resultFile(version.getResultFile())
-                .inputParameters(version.getInputParameters())
-                .outputParameters(version.getOutputParameters())
-                .spec(version.getSpec())
-                .build();
-
-        this.nodeDefinitionRepository.saveOrUpdate(node);
-        this.nodeDefinitionVersionRepository.saveOrUpdate(version);
-        return nodeDef;
+        return this.singleFlight("get:" + this.cacheKey(type), () -> this.fetchNodeDef(type));
     }
 
+    @Transactional
     public List<NodeDef> getByTypes(Set<String> types) {
-        return types.stream().map(this::getByType)
+        var loaded = this.findCachedOrStored(types);
+        return types.stream()
+                .map(type -> loaded.containsKey(type) ? loaded.get(type) : this.getByType(type))
                 .collect(Collectors.toList());
     }
 
     public NodeDef findByType(String type) {
+        var cached = this.nodeDefs.get(this.cacheKey(type));
+        if (cached != null && cached.isValid()) {
+            return cached.get();
+        }
+        return this.singleFlight("find:" + this.cacheKey(type), () -> {
+            var nodeDef = this.loadNodeDef(type);
+            this.putAfterCommit(type, nodeDef);
+            return nodeDef;
+        });
+    }
+
+    public List<NodeDef> findByTypes(Set<String> types) {
+        var loaded = this.findCachedOrStored(types);
+        return types.stream()
+                .map(type -> loaded.containsKey(type) ? loaded.get(type) : this.findByType(type))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 先查缓存，未命中的节点定义与版本各一次批量查询
+     *
+     * @param types
+     * @return 已找到的节点定义，key为type
+     */
+    private Map<String, NodeDef> findCachedOrStored(Set<String> types) {
+        var loaded = new HashMap<String, NodeDef>();
+        var missing = new ArrayList<String>();
+        types.forEach(type -> {
+            var cached = this.nodeDefs.get(this.cacheKey(type));
+            if (cached != null && cached.isValid()) {
+                loaded.put(type, cached.get());
+            } else if (!type.startsWith("shell:")) {
+                missing.add(type);
+            }
+        });
+        if (missing.isEmpty()) {
+            return loaded;
+        }
+        var nodes = this.nodeDefinitionRepository.findByIds(missing.stream()
+                        .map(type -> getOwnerRef(type) + "/" + getRef(type))
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(NodeDefinition::getId, node -> node));
+        var versions = this.nodeDefinitionVersionRepository.findByIds(missing.stream()
+                        .map(this::cacheKey)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(NodeDefinitionVersion::getId, version -> version));
+        missing.forEach(type -> {
+            var node = nodes.get(getOwnerRef(type) + "/" + getRef(type));
+            var version = versions.get(this.cacheKey(type));
+            if (node != null && version != null) {
+                var nodeDef = this.toNodeDef(type, node, version);
+                this.putAfterCommit(type, nodeDef);
+                loaded.put(type, nodeDef);
+            }
+        });
+        return loaded;
+    }
+
+    private NodeDef loadNodeDef(String type) {
         if (type.startsWith("shell:")) {
             return this.findShellNodeDef(type);
         }
@@ -342,7 +434,46 @@ public class HubApplication {
         var version =
                 this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type))
                         .orElseThrow(() -> new DataNotFoundException("未找到节点定义版本: " + type));
+        return this.toNodeDef(type, node, version);
+    }
 
+    /**
+     * 本地不存在时从Registry下载，只在下载后写入
+     *
+     * @param type
+     * @return
+     */
+    private NodeDef fetchNodeDef(String type) {
+        if (type.startsWith("shell:")) {
+            var nodeDef = this.findShellNodeDef(type);
+            this.putAfterCommit(type, nodeDef);
+            return nodeDef;
+        }
+        var storedNode = this.nodeDefinitionRepository.findById(getOwnerRef(type) + "/" + getRef(type));
+        var storedVersion =
+                this.nodeDefinitionVersionRepository.findByOwnerRefAndRefAndVersion(getOwnerRef(type), getRef(type), getVersion(type));
+        NodeDefinition node;
+        NodeDefinitionVersion version;
+        try {
+            node = storedNode.orElseGet(() -> this.downloadNodeDef(type));
+            version = storedVersion.orElseGet(() -> this.downloadNodeDefVersion(getOwnerRef(type), getRef(type), getVersion(type)));
+        } catch (DataNotFoundException e) {
+            // Registry中也不存在，短时间内不再重复下载
+            this.nodeDefs.put(this.cacheKey(type), CachedNodeDef.notFound(e.getMessage()));
+            throw e;
+        }
+        var nodeDef = this.toNodeDef(type, node, version);
+        if (storedNode.isEmpty()) {
+            this.nodeDefinitionRepository.saveOrUpdate(node);
+        }
+        if (storedVersion.isEmpty()) {
+            this.nodeDefinitionVersionRepository.saveOrUpdate(version);
+        }
+        this.putAfterCommit(type, nodeDef);
+        return nodeDef;
+    }
+
+    private NodeDef toNodeDef(String type, NodeDefinition node, NodeDefinitionVersion version) {
         return NodeDef.builder()
                 .name(node.getName())
                 .description(node.getDescription())
@@ -363,9 +494,62 @@ public class HubApplication {
                 .build();
     }
 
-    public List<NodeDef> findByTypes(Set<String> types) {
-        return types.stream().map(this::findByType)
-                .collect(Collectors.toList());
+    private NodeDef singleFlight(String key, Supplier<NodeDef> loader) {
+        var future = new CompletableFuture<NodeDef>();
+        var existing = this.loading.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            var nodeDef = loader.get();
+            future.complete(nodeDef);
+            return nodeDef;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, future);
+        }
+    }
+
+    private void putAfterCommit(String type, NodeDef nodeDef) {
+        this.afterCommit(() -> this.nodeDefs.put(this.cacheKey(type), CachedNodeDef.of(nodeDef, this.nodeDefTtl)));
+    }
+
+    private void evictAfterCommit(String ownerRef, String ref) {
+        var prefix = ownerRef + "/" + ref + ":";
+        this.afterCommit(() -> {
+            synchronized (this.nodeDefs) {
+                this.nodeDefs.keySet().removeIf(key -> key.startsWith(prefix));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+    private String cacheKey(String type) {
+        if (type.startsWith("shell:")) {
+            return type;
+        }
+        return getOwnerRef(type) + "/" + getRef(type) + ":" + getVersion(type);
     }
 
     public Optional<NodeDefinitionVersion> findByOwnerRefAndRefAndVersion(String ownerRef, String ref, String version) {
@@ -8,7 +8,6 @@ import dev.jianmu.application.event.WebhookEvent;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDefApi;
 import dev.jianmu.application.util.DslUtil;
-import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.jgit.JgitService;
 import dev.jianmu.infrastructure.mybatis.project.ProjectRepositoryImpl;
 import dev.jianmu.project.aggregate.*;
@@ -65,7 +64,6 @@ public class ProjectApplication {
     private final JgitService jgitService;
     private final ProjectLinkGroupRepository projectLinkGroupRepository;
     private final ProjectGroupRepository projectGroupRepository;
-    private final GlobalProperties globalProperties;
     private final TriggerEventRepository triggerEventRepository;
     private final ProjectLastExecutionRepository projectLastExecutionRepository;
 
@@ -81,7 +79,6 @@ public class ProjectApplication {
             JgitService jgitService,
             ProjectLinkGroupRepository projectLinkGroupRepository,
             ProjectGroupRepository projectGroupRepository,
-            GlobalProperties globalProperties,
             TriggerEventRepository triggerEventRepository,
             ProjectLastExecutionRepository projectLastExecutionRepository
     ) {
@@ -96,7 +93,6 @@ public class ProjectApplication {
         this.jgitService = jgitService;
         this.projectLinkGroupRepository = projectLinkGroupRepository;
         this.projectGroupRepository = projectGroupRepository;
-        this.globalProperties = globalProperties;
         this.triggerEventRepository = triggerEventRepository;
         this.projectLastExecutionRepository = projectLastExecutionRepository;
     }
@@ -406,26 +402,6 @@ public class ProjectApplication {
         this.publisher.publishEvent(new DeletedEvent(project.getId()));
     }
 
-    @Transactional
-    public void autoClean() {
-        // 是否需要自动清理
-        if (!this.globalProperties.getGlobal().getRecord().getAutoClean()) {
-            return;
-        }
-        logger.info("执行记录自动清理已开启，将自动删除最新{}条之前的记录", this.globalProperties.getGlobal().getRecord().getMax());
-        this.projectRepository.findAll().forEach(project -> {
-            this.workflowInstanceRepository.findByRefOffset(project.getWorkflowRef(), this.globalProperties.getGlobal().getRecord().getMax())
-                    .stream()
-                    .filter(workflowInstance -> workflowInstance.getStatus() == ProcessStatus.FINISHED || workflowInstance.getStatus() == ProcessStatus.TERMINATED)
-                    .forEach(workflowInstance -> {
-                this.workflowInstanceRepository.deleteById(workflowInstance.getId());
-                this.asyncTaskInstanceRepository.deleteByWorkflowInstanceId(workflowInstance.getId());
-                this.taskInstanceRepository.deleteByTriggerId(workflowInstance.getTriggerId());
-            });
-        });
-
-    }
-
     private void pubTriggerEvent(DslParser parser, Project project) {
         // 创建Cron触发器
         if (project.getTriggerType() == Project.TriggerType.CRON) {
@@ -464,6 +440,14 @@ public class ProjectApplication {
         return this.projectRepository.findAll();
     }
 
+    public Optional<Project> findByWorkflowRef(String workflowRef) {
+        return this.projectRepository.findByWorkflowRef(workflowRef);
+    }
+
+    public List<ProjectVo> findAllWithLastExecution() {
+        return this.projectRepository.findAllWithLastExecution();
+    }
+
     public Optional<Project> findById(String dslId) {
         return this.projectRepository.findById(dslId);
     }
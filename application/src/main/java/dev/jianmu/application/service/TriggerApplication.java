@@ -2,13 +2,11 @@ package dev.jianmu.application.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pagehelper.PageInfo;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.PathNotFoundException;
 import dev.jianmu.application.dsl.webhook.WebhookDslParser;
 import dev.jianmu.application.exception.DataNotFoundException;
+import dev.jianmu.application.service.internal.WebhookParameterExtractor;
 import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
 import dev.jianmu.infrastructure.mybatis.trigger.WebRequestRepositoryImpl;
 import dev.jianmu.infrastructure.quartz.PublishJob;
 import dev.jianmu.infrastructure.storage.StorageService;
@@ -30,6 +28,7 @@ import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -43,6 +42,7 @@ import java.io.IOException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -63,6 +63,8 @@ import static java.util.stream.Collectors.*;
 @Service
 @Slf4j
 public class TriggerApplication {
+    private static final Pattern secretPattern = Pattern.compile("^\\(\\(([a-zA-Z0-9_-]+\\.+[a-zA-Z0-9_-]+)\\)\\)$");
+
     private final TriggerRepository triggerRepository;
     private final TriggerEventRepository triggerEventRepository;
     private final ParameterRepository parameterRepository;
@@ -76,6 +78,8 @@ public class TriggerApplication {
     // 表达式计算服务
     private final ExpressionLanguage expressionLanguage;
     private final StorageService storageService;
+    private final GlobalProperties globalProperties;
+    private final WebhookParameterExtractor webhookParameterExtractor;
 
     public TriggerApplication(
             TriggerRepository triggerRepository,
@@ -89,7 +93,9 @@ public class TriggerApplication {
             ApplicationEventPublisher publisher,
             ObjectMapper objectMapper,
             ExpressionLanguage expressionLanguage,
-            StorageService storageService) {
+            StorageService storageService,
+            GlobalProperties globalProperties,
+            WebhookParameterExtractor webhookParameterExtractor) {
         this.triggerRepository = triggerRepository;
         this.triggerEventRepository = triggerEventRepository;
         this.parameterRepository = parameterRepository;
@@ -102,6 +108,8 @@ public class TriggerApplication {
         this.objectMapper = objectMapper;
         this.expressionLanguage = expressionLanguage;
         this.storageService = storageService;
+        this.globalProperties = globalProperties;
+        this.webhookParameterExtractor = webhookParameterExtractor;
     }
 
     private static String decode(final String encoded) {
@@ -158,8 +166,12 @@ public class TriggerApplication {
 
     @Transactional
     public void saveOrUpdate(String projectId, Webhook webhook) {
+        this.webhookParameterExtractor.compile(webhook);
         this.triggerRepository.findByProjectId(projectId)
                 .ifPresentOrElse(trigger -> {
+                    if (trigger.getType() == Trigger.Type.CRON) {
+                        this.unschedule(trigger.getId());
+                    }
                     trigger.setType(Trigger.Type.WEBHOOK);
                     trigger.setWebhook(webhook);
                     this.triggerRepository.updateById(trigger);
@@ -177,23 +189,11 @@ public class TriggerApplication {
     public void saveOrUpdate(String projectId, String schedule) {
         this.triggerRepository.findByProjectId(projectId)
                 .ifPresentOrElse(trigger -> {
-                    try {
-                        // 更新schedule
-                        trigger.setSchedule(schedule);
-                        trigger.setType(Trigger.Type.CRON);
-                        // 停止触发器
-                        this.quartzScheduler.pauseTrigger(TriggerKey.triggerKey(trigger.getId()));
-                        // 卸载任务
-                        this.quartzScheduler.unscheduleJob(TriggerKey.triggerKey(trigger.getId()));
-                        // 删除任务
-                        this.quartzScheduler.deleteJob(JobKey.jobKey(trigger.getId()));
-                        var jobDetail = this.createJobDetail(trigger);
-                        var cronTrigger = this.createCronTrigger(trigger);
-                        this.quartzScheduler.scheduleJob(jobDetail, cronTrigger);
-                    } catch (SchedulerException e) {
-                        log.error("触发器更新失败: {}", e.getMessage());
-                        throw new RuntimeException("触发器更新失败");
-                    }
+                    // 更新schedule
+                    trigger.setSchedule(schedule);
+                    trigger.setType(Trigger.Type.CRON);
+                    // 替换已存在的任务与触发器
+                    this.schedule(trigger);
                     this.triggerRepository.updateById(trigger);
                 }, () -> {
                     var trigger = Trigger.Builder.aTrigger()
@@ -201,14 +201,7 @@ public class TriggerApplication {
                             .type(Trigger.Type.CRON)
                             .schedule(schedule)
                             .build();
-                    try {
-                        var jobDetail = this.createJobDetail(trigger);
-                        var cronTrigger = this.createCronTrigger(trigger);
-                        quartzScheduler.scheduleJob(jobDetail, cronTrigger);
-                    } catch (SchedulerException e) {
-                        log.error("触发器加载失败: {}", e.getMessage());
-                        throw new RuntimeException("触发器加载失败");
-                    }
+                    this.schedule(trigger);
                     this.triggerRepository.add(trigger);
                 });
     }
@@ -219,17 +212,7 @@ public class TriggerApplication {
         this.triggerRepository.findByProjectId(projectId)
                 .ifPresent(trigger -> {
                     if (trigger.getType() == Trigger.Type.CRON) {
-                        try {
-                            // 停止触发器
-                            quartzScheduler.pauseTrigger(TriggerKey.triggerKey(trigger.getId()));
-                            // 卸载任务
-                            quartzScheduler.unscheduleJob(TriggerKey.triggerKey(trigger.getId()));
-                            // 删除任务
-                            quartzScheduler.deleteJob(JobKey.jobKey(trigger.getId()));
-                        } catch (SchedulerException e) {
-                            log.error("触发器删除失败: {}", e.getMessage());
-                            throw new RuntimeException("触发器删除失败");
-                        }
+                        this.unschedule(trigger.getId());
                     }
                     this.triggerRepository.deleteById(trigger.getId());
                 });
@@ -258,18 +241,58 @@ public class TriggerApplication {
         }
     }
 
+    /**
+     * 按Cron表达式在内存中计算下次触发时间，不查询JobStore，用于列表批量展示，相同表达式只计算一次
+     */
+    public Map<String, LocalDateTime> calculateNextFireTimes(Collection<String> schedules) {
+        var now = new Date();
+        var nextFireTimes = new HashMap<String, LocalDateTime>();
+        schedules.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(schedule -> {
+                    try {
+                        var next = new CronExpression(schedule).getNextValidTimeAfter(now);
+                        if (next != null) {
+                            nextFireTimes.put(schedule, LocalDateTime.ofInstant(next.toInstant(), ZoneId.systemDefault()));
+                        }
+                    } catch (ParseException e) {
+                        log.warn("Cron表达式错误: {}", schedule);
+                    }
+                });
+        return nextFireTimes;
+    }
+
+    /**
+     * 触发器持久化在JobStore中，启动时只更新表达式或misfire策略发生变化的触发器，并删除已不存在的触发器
+     */
     public void startTriggers() {
         var triggers = this.triggerRepository.findCronTriggerAll();
-        triggers.forEach(trigger -> {
-            var cronTrigger = this.createCronTrigger(trigger);
-            var jobDetail = this.createJobDetail(trigger);
-            try {
-                quartzScheduler.scheduleJob(jobDetail, cronTrigger);
-            } catch (SchedulerException e) {
-                log.error("触发器加载失败: {}", e.getMessage());
-                throw new RuntimeException("触发器加载失败");
+        try {
+            var jobs = new HashMap<JobDetail, Set<? extends org.quartz.Trigger>>();
+            var jobKeys = new HashSet<JobKey>();
+            for (var trigger : triggers) {
+                var cronTrigger = this.createCronTrigger(trigger);
+                jobKeys.add(JobKey.jobKey(trigger.getId()));
+                // 未变化的触发器保留已持久化的下次触发时间
+                if (!this.isScheduled(cronTrigger)) {
+                    jobs.put(this.createJobDetail(trigger), Set.of(cronTrigger));
+                }
             }
-        });
+            if (!jobs.isEmpty()) {
+                this.quartzScheduler.scheduleJobs(jobs, true);
+            }
+            var removed = this.quartzScheduler.getJobKeys(GroupMatcher.jobGroupEquals(JobKey.DEFAULT_GROUP)).stream()
+                    .filter(jobKey -> !jobKeys.contains(jobKey))
+                    .collect(toList());
+            if (!removed.isEmpty()) {
+                this.quartzScheduler.deleteJobs(removed);
+            }
+            log.info("加载Cron触发器{}个，更新{}个，删除{}个", triggers.size(), jobs.size(), removed.size());
+        } catch (SchedulerException e) {
+            log.error("触发器加载失败: {}", e.getMessage());
+            throw new RuntimeException("触发器加载失败");
+        }
         try {
             quartzScheduler.start();
         } catch (SchedulerException e) {
@@ -278,8 +301,34 @@ public class TriggerApplication {
         }
     }
 
+    private boolean isScheduled(CronTrigger cronTrigger) throws SchedulerException {
+        var scheduled = this.quartzScheduler.getTrigger(cronTrigger.getKey());
+        return scheduled instanceof CronTrigger
+                && ((CronTrigger) scheduled).getCronExpression().equals(cronTrigger.getCronExpression())
+                && scheduled.getMisfireInstruction() == cronTrigger.getMisfireInstruction();
+    }
+
+    private void schedule(Trigger trigger) {
+        try {
+            this.quartzScheduler.scheduleJob(this.createJobDetail(trigger), Set.of(this.createCronTrigger(trigger)), true);
+        } catch (SchedulerException e) {
+            log.error("触发器加载失败: {}", e.getMessage());
+            throw new RuntimeException("触发器加载失败");
+        }
+    }
+
+    private void unschedule(String triggerId) {
+        try {
+            // 删除任务时同时删除其触发器
+            this.quartzScheduler.deleteJob(JobKey.jobKey(triggerId));
+        } catch (SchedulerException e) {
+            log.error("触发器删除失败: {}", e.getMessage());
+            throw new RuntimeException("触发器删除失败");
+        }
+    }
+
     private CronTrigger createCronTrigger(Trigger trigger) {
-        var builder = CronScheduleBuilder.cronSchedule(trigger.getSchedule());
+        var builder = this.withMisfirePolicy(CronScheduleBuilder.cronSchedule(trigger.getSchedule()));
         return TriggerBuilder.newTrigger()
                 .withIdentity(TriggerKey.triggerKey(trigger.getId()))
                 .usingJobData("triggerId", trigger.getId())
@@ -287,6 +336,20 @@ public class TriggerApplication {
                 .build();
     }
 
+    private CronScheduleBuilder withMisfirePolicy(CronScheduleBuilder builder) {
+        var policy = this.globalProperties.getSchedule().getMisfirePolicy();
+        switch (policy) {
+            case "fire-once":
+                return builder.withMisfireHandlingInstructionFireAndProceed();
+            case "fire-all":
+                return builder.withMisfireHandlingInstructionIgnoreMisfires();
+            case "skip":
+                return builder.withMisfireHandlingInstructionDoNothing();
+            default:
+                throw new IllegalArgumentException("不支持的misfire策略: " + policy);
+        }
+    }
+
     private JobDetail createJobDetail(Trigger trigger) {
         return JobBuilder.newJob()
                 .withIdentity(JobKey.jobKey(trigger.getId()))
@@ -356,8 +419,10 @@ public class TriggerApplication {
         List<TriggerEventParameter> eventParameters = new ArrayList<>();
         List<Parameter> parameters = new ArrayList<>();
         if (webhook.getParam() != null) {
+            // 请求体只解析一次
+            var document = this.webhookParameterExtractor.parse(newWebRequest.getPayload());
             webhook.getParam().forEach(webhookParameter -> {
-                var value = this.extractParameter(newWebRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
+                var value = this.webhookParameterExtractor.read(document, webhookParameter.getExp(), webhookParameter.getType());
                 if (value == null && webhookParameter.isRequired()) {
                     newWebRequest.setStatusCode(WebRequest.StatusCode.PARAMETER_WAS_NULL);
                     newWebRequest.setErrorMsg("触发器参数" + webhookParameter.getName() + "的值为null");
@@ -413,8 +478,10 @@ public class TriggerApplication {
         this.trigger(eventParameters, parameters, newWebRequest);
     }
 
-    public TriggerEvent receiveHttpEvent(String projectName, HttpServletRequest request, String contentType) {
-        var webRequest = this.createWebRequest(request, contentType);
+    /**
+     * 处理收件箱中的Webhook请求，请求在接收时已返回，处理结果记录在WebRequest中
+     */
+    public TriggerEvent receiveHttpEvent(String projectName, WebRequest webRequest) {
         this.writeWebhook(webRequest.getId(), webRequest.getPayload());
         var project = this.projectRepository.findByName(projectName)
                 .orElseThrow(() -> {
@@ -424,6 +491,12 @@ public class TriggerApplication {
                     return new DataNotFoundException("未找到项目: " + projectName);
                 });
         if (!project.isEnabled()) {
+            webRequest.setProjectId(project.getId());
+            webRequest.setWorkflowRef(project.getWorkflowRef());
+            webRequest.setWorkflowVersion(project.getWorkflowVersion());
+            webRequest.setStatusCode(WebRequest.StatusCode.NOT_ACCEPTABLE);
+            webRequest.setErrorMsg("当前项目不可触发，请先修改状态");
+            this.webRequestRepositoryImpl.add(webRequest);
             throw new RuntimeException("当前项目不可触发，请先修改状态");
         }
         webRequest.setProjectId(project.getId());
@@ -450,8 +523,10 @@ public class TriggerApplication {
         List<TriggerEventParameter> eventParameters = new ArrayList<>();
         List<Parameter> parameters = new ArrayList<>();
         if (webhook.getParam() != null) {
+            // 请求体只解析一次
+            var document = this.webhookParameterExtractor.parse(webRequest.getPayload());
             webhook.getParam().forEach(webhookParameter -> {
-                var value = this.extractParameter(webRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
+                var value = this.webhookParameterExtractor.read(document, webhookParameter.getExp(), webhookParameter.getType());
                 if (value == null && webhookParameter.isRequired()) {
                     webRequest.setStatusCode(WebRequest.StatusCode.PARAMETER_WAS_NULL);
                     webRequest.setErrorMsg("未找到触发器参数：" + webhookParameter.getName());
@@ -529,8 +604,7 @@ public class TriggerApplication {
     }
 
     private String isSecret(String paramValue) {
-        Pattern pattern = Pattern.compile("^\\(\\(([a-zA-Z0-9_-]+\\.+[a-zA-Z0-9_-]+)\\)\\)$");
-        Matcher matcher = pattern.matcher(paramValue);
+        Matcher matcher = secretPattern.matcher(paramValue);
         if (matcher.find()) {
             return matcher.group(1);
         }
@@ -561,35 +635,10 @@ public class TriggerApplication {
     }
 
     private boolean isEl(String paramValue) {
-        Pattern pattern = Pattern.compile("^\\(");
-        Matcher matcher = pattern.matcher(paramValue);
-        return matcher.lookingAt();
-    }
-
-    private Object extractParameter(String payload, String exp, String webhookType) {
-        if (exp.startsWith("$.header.")) {
-            exp = exp.toLowerCase(Locale.ROOT);
-        }
-        Object document = Configuration.defaultConfiguration()
-                .jsonProvider().parse(payload);
-        try {
-            var conf = Configuration.defaultConfiguration()
-                    .addOptions(Option.ALWAYS_RETURN_LIST, Option.DEFAULT_PATH_LEAF_TO_NULL);
-            List<?> vars = JsonPath.using(conf).parse(document).read(exp);
-            if (vars.isEmpty()) {
-                return null;
-            }
-            var type = Parameter.Type.getTypeByName(webhookType);
-            if (type == Parameter.Type.SECRET || type == Parameter.Type.STRING) {
-                return vars.get(0) == null ? null : vars.get(0).toString().trim();
-            }
-            return vars.get(0);
-        } catch (PathNotFoundException e) {
-            return null;
-        }
+        return paramValue.startsWith("(");
     }
 
-    private WebRequest createWebRequest(HttpServletRequest request, String contentType) {
+    public WebRequest createWebRequest(HttpServletRequest request, String contentType) {
         try {
             // Get body
             var body = request.getReader()
@@ -683,8 +732,9 @@ public class TriggerApplication {
         if (ObjectUtils.isEmpty(webRequest.getPayload())) {
             webRequest.setPayload(this.storageService.readWebhook(webRequest.getId()));
         }
+        var document = this.webhookParameterExtractor.parse(webRequest.getPayload());
         trigger.getParam().forEach(webhookParameter -> {
-            var value = this.extractParameter(webRequest.getPayload(), webhookParameter.getExp(), webhookParameter.getType());
+            var value = this.webhookParameterExtractor.read(document, webhookParameter.getExp(), webhookParameter.getType());
             var defaultParameter = Parameter.Type.getTypeByName(webhookParameter.getType()).newParameter(webhookParameter.getDefaultValue());
             webhookParameter.setDefaultValue(defaultParameter.getValue());
             webhookParameter.setValue(defaultParameter.getValue());
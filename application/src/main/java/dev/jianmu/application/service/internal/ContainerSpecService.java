@@ -0,0 +1,366 @@
+package dev.jianmu.application.service.internal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jianmu.application.exception.DataNotFoundException;
+import dev.jianmu.application.query.NodeDefApi;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.worker.ContainerSpec;
+import dev.jianmu.infrastructure.worker.VolumeMount;
+import dev.jianmu.infrastructure.worker.WorkerSecret;
+import dev.jianmu.secret.aggregate.CredentialManager;
+import dev.jianmu.secret.aggregate.KVPair;
+import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.task.repository.InstanceParameterRepository;
+import dev.jianmu.trigger.repository.TriggerEventRepository;
+import dev.jianmu.worker.aggregate.Worker;
+import dev.jianmu.worker.repository.WorkerRepository;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.aggregate.parameter.SecretParameter;
+import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent
+ * @class ContainerSpecService
+ * @description 组装Worker任务的容器规格，参数与密钥批量查询。
+ * 不含密钥的规格按任务实例ID与版本缓存，密钥每次拉取时从凭证缓存中读取，不保存明文
+ * @create 2026-10-17 23:46
+ */
+@Slf4j
+@Service
+public class ContainerSpecService {
+    private static final int maxSpecs = 512;
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final String optionScript = "set -e";
+    private final String traceScript = "\necho + %s\n%s";
+    private final String noTraceScript = "\n%s";
+
+    private final NodeDefApi nodeDefApi;
+    private final WorkerRepository workerRepository;
+    private final InstanceParameterRepository instanceParameterRepository;
+    private final ParameterRepository parameterRepository;
+    private final CredentialManager credentialManager;
+    private final TriggerEventRepository triggerEventRepository;
+    private final WorkflowInstanceRepository workflowInstanceRepository;
+    private final ObjectMapper objectMapper;
+    private final GlobalProperties globalProperties;
+
+    private final Map<String, CachedSpec> specs = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSpec> eldest) {
+            return this.size() > maxSpecs;
+        }
+    });
+
+    public ContainerSpecService(
+            NodeDefApi nodeDefApi,
+            WorkerRepository workerRepository,
+            InstanceParameterRepository instanceParameterRepository,
+            ParameterRepository parameterRepository,
+            CredentialManager credentialManager,
+            TriggerEventRepository triggerEventRepository,
+            WorkflowInstanceRepository workflowInstanceRepository,
+            ObjectMapper objectMapper,
+            GlobalProperties globalProperties
+    ) {
+        this.nodeDefApi = nodeDefApi;
+        this.workerRepository = workerRepository;
+        this.instanceParameterRepository = instanceParameterRepository;
+        this.parameterRepository = parameterRepository;
+        this.credentialManager = credentialManager;
+        this.triggerEventRepository = triggerEventRepository;
+        this.workflowInstanceRepository = workflowInstanceRepository;
+        this.objectMapper = objectMapper;
+        this.globalProperties = globalProperties;
+    }
+
+    public static class TaskSpec {
+        private final ContainerSpec containerSpec;
+        private final String resultFile;
+
+        private TaskSpec(ContainerSpec containerSpec, String resultFile) {
+            this.containerSpec = containerSpec;
+            this.resultFile = resultFile;
+        }
+
+        public ContainerSpec getContainerSpec() {
+            return containerSpec;
+        }
+
+        public String getResultFile() {
+            return resultFile;
+        }
+    }
+
+    /**
+     * 缓存的容器规格，密钥参数只保存引用
+     */
+    private static class CachedSpec {
+        private final ContainerSpec containerSpec;
+        private final String resultFile;
+        private final boolean isShellNode;
+        // key为参数ref，value为密钥引用(命名空间.键)
+        private final Map<String, String> secretRefs;
+
+        private CachedSpec(ContainerSpec containerSpec, String resultFile, boolean isShellNode, Map<String, String> secretRefs) {
+            this.containerSpec = containerSpec;
+            this.resultFile = resultFile;
+            this.isShellNode = isShellNode;
+            this.secretRefs = secretRefs;
+        }
+    }
+
+    /**
+     * 获取任务的容器规格与结果文件路径
+     *
+     * @param taskInstance
+     * @return
+     */
+    public TaskSpec find(TaskInstance taskInstance) {
+        var key = taskInstance.getId() + ":" + taskInstance.getVersion();
+        var cachedSpec = this.specs.get(key);
+        if (cachedSpec == null) {
+            cachedSpec = this.create(taskInstance);
+            this.specs.put(key, cachedSpec);
+        }
+        var containerSpec = cachedSpec.containerSpec.toBuilder()
+                .secrets(this.getSecretParameterSet(cachedSpec.isShellNode, cachedSpec.secretRefs))
+                .build();
+        return new TaskSpec(containerSpec, cachedSpec.resultFile);
+    }
+
+    /**
+     * 任务结束后清除缓存
+     *
+     * @param taskInstanceId
+     */
+    public void evict(String taskInstanceId) {
+        var prefix = taskInstanceId + ":";
+        synchronized (this.specs) {
+            this.specs.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private CachedSpec create(TaskInstance taskInstance) {
+        // 查找节点定义
+        var nodeDef = this.nodeDefApi.findByType(taskInstance.getDefKey());
+        if (!nodeDef.getWorkerType().equals("DOCKER")) {
+            throw new RuntimeException("无法执行此类节点任务: " + nodeDef.getType());
+        }
+        var isShellNode = nodeDef.getImage() != null;
+        var worker = this.workerRepository.findById(taskInstance.getWorkerId())
+                .orElseThrow(() -> new RuntimeException("未找到worker：" + taskInstance.getWorkerId()));
+        var instanceParameters = this.instanceParameterRepository
+                .findByInstanceIdAndType(taskInstance.getId(), InstanceParameter.Type.INPUT);
+        // 查询参数值
+        var ids = instanceParameters.stream()
+                .map(InstanceParameter::getParameterId)
+                .collect(Collectors.toSet());
+        var parameters = ids.isEmpty() ? List.<Parameter>of() : this.parameterRepository.findByIds(ids);
+        var parameterIndex = new HashMap<String, Parameter>();
+        parameters.forEach(parameter -> parameterIndex.putIfAbsent(parameter.getId(), parameter));
+
+        var parameterMap = new HashMap<String, String>();
+        var secretRefs = new HashMap<String, String>();
+        instanceParameters.forEach(instanceParameter -> {
+            var parameter = parameterIndex.get(instanceParameter.getParameterId());
+            if (parameter == null || instanceParameter.getRef() == null) {
+                return;
+            }
+            if (parameter instanceof SecretParameter) {
+                secretRefs.put(instanceParameter.getRef(), parameter.getStringValue());
+            } else {
+                parameterMap.put(isShellNode ? instanceParameter.getRef() : "JIANMU_" + instanceParameter.getRef(), parameter.getStringValue());
+            }
+        });
+        parameterMap.putAll(this.getEnvVariable(worker, taskInstance.getTriggerId(), taskInstance.getBusinessId(), taskInstance.getDefKey()));
+        var environment = this.addFeatureParam(parameterMap);
+
+        // 创建ContainerSpec
+        ContainerSpec newSpec;
+        if (isShellNode) {
+            environment.put("JIANMU_SCRIPT", this.createScript(nodeDef.getScript()));
+            String[] entrypoint = {"/bin/sh", "-c"};
+            String[] args = {"echo \"$JIANMU_SCRIPT\" | /bin/sh"};
+            newSpec = ContainerSpec.builder()
+                    .image(nodeDef.getImage())
+                    .working_dir("")
+                    .environment(environment)
+                    .entrypoint(entrypoint)
+                    .args(args)
+                    .volume_mounts(this.volumeMounts(taskInstance))
+                    .build();
+        } else {
+            dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec spec;
+            try {
+                spec = objectMapper.readValue(nodeDef.getSpec(), dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec.class);
+            } catch (JsonProcessingException e) {
+                log.error("拉取任务失败：", e);
+                throw new RuntimeException("拉取任务失败");
+            }
+            newSpec = ContainerSpec.builder()
+                    .image(spec.getImage())
+                    .working_dir("")
+                    .user(spec.getUser())
+                    .host(spec.getHostName())
+                    .environment(environment)
+                    .entrypoint(spec.getEntrypoint())
+                    .args(spec.getCmd())
+                    .volume_mounts(this.volumeMounts(taskInstance))
+                    .build();
+        }
+        // 添加RegistryAddress
+        newSpec.setRegistryAddress(globalProperties.getWorker().getRegistry().getAddress());
+        return new CachedSpec(newSpec, nodeDef.getResultFile(), isShellNode, secretRefs);
+    }
+
+    private List<VolumeMount> volumeMounts(TaskInstance taskInstance) {
+        return List.of(
+                VolumeMount.builder()
+                        .source(taskInstance.getTriggerId())
+                        .target("/" + taskInstance.getTriggerId())
+                        .build()
+        );
+    }
+
+    private String createScript(List<String> commands) {
+        var sb = new StringBuilder();
+        sb.append(optionScript);
+        try (var formatter = new Formatter(sb, Locale.ROOT)) {
+            commands.forEach(cmd -> {
+                var escaped = String.format("%s", cmd);
+                escaped = escaped.replace("$", "\\$");
+                if (globalProperties.getTrace()) {
+                    formatter.format(traceScript, escaped, cmd);
+                } else {
+                    formatter.format(noTraceScript, cmd);
+                }
+            });
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 密钥参数按命名空间分组，每个命名空间只查询一次
+     *
+     * @param isShellNode
+     * @param secretRefs key为参数ref，value为密钥引用
+     * @return
+     */
+    private HashSet<WorkerSecret> getSecretParameterSet(boolean isShellNode, Map<String, String> secretRefs) {
+        var secretSet = new HashSet<WorkerSecret>();
+        var namespaces = new HashMap<String, Map<String, String>>();
+        secretRefs.forEach((ref, secretRef) -> {
+            var strings = secretRef.split("\\.");
+            // 过滤非正常语法
+            if (strings.length != 2) {
+                return;
+            }
+            var values = namespaces.computeIfAbsent(strings[0], this::findSecrets);
+            var value = values.get(strings[1]);
+            if (value == null) {
+                return;
+            }
+            secretSet.add(WorkerSecret.builder()
+                    .env(isShellNode ? ref.toUpperCase() : "JIANMU_" + ref.toUpperCase())
+                    .data(Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)))
+                    .mask(true)
+                    .build());
+        });
+        return secretSet;
+    }
+
+    /**
+     * 凭证管理器按命名空间缓存密钥，缓存中的值加密保存
+     */
+    private Map<String, String> findSecrets(String namespaceName) {
+        try {
+            return this.credentialManager.findAllKVByNamespaceName(namespaceName).stream()
+                    .collect(Collectors.toMap(KVPair::getKey, KVPair::getValue, (a, b) -> a));
+        } catch (RuntimeException e) {
+            log.warn("获取命名空间{}密钥失败: {}", namespaceName, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * 设置一些通用参数到环境变量,方便在DSL中使用
+     *
+     * @param worker
+     * @return
+     */
+    public HashMap<String, String> getEnvVariable(Worker worker, String triggerId, String businessId, String defKey) {
+
+        HashMap<String, String> env = new HashMap<>();
+        env.put("JM_RESULT_FILE", "/" + triggerId + "/" + businessId);
+        env.put("JIANMU_SHARE_DIR", "/" + triggerId);
+        env.put("JM_SHARE_DIR", "/" + triggerId);
+
+        env.put("JM_WORKER_ID", worker.getId());
+        env.put("JM_WORKER_TYPE", worker.getType().name());
+        env.put("JM_BUSINESS_ID", businessId);
+        env.put("JM_TRIGGER_ID", triggerId);
+        env.put("JM_DEF_KEY", defKey);
+
+        var triggerEvent = this.triggerEventRepository.findById(triggerId)
+                .orElseThrow(() -> new DataNotFoundException("未找到该触发事件"));
+        env.put("JM_PROJECT_ID", triggerEvent.getProjectId());
+        env.put("JM_WEB_REQUEST_ID", triggerEvent.getWebRequestId());
+        env.put("JM_TRIGGER_TIME", formatTime(triggerEvent.getOccurredTime()));
+        env.put("JM_TRIGGER_TYPE", triggerEvent.getTriggerType());
+
+        // workflow instance 相关参数
+        WorkflowInstance workflowInstance = workflowInstanceRepository
+                .findByTriggerId(triggerId)
+                .orElseThrow(() -> new DataNotFoundException("未找到该workflow instance"));
+
+        env.put("JM_INSTANCE_ID", workflowInstance.getId());
+        env.put("JM_INSTANCE_TRIGGER_TYPE", workflowInstance.getTriggerType());
+        env.put("JM_INSTANCE_WORKFLOW_REF", workflowInstance.getWorkflowRef());
+        env.put("JM_INSTANCE_WORKFLOW_VERSION", workflowInstance.getWorkflowVersion());
+        env.put("JM_INSTANCE_CREATE_TIME", formatTime(workflowInstance.getCreateTime()));
+        env.put("JM_INSTANCE_START_TIME", formatTime(workflowInstance.getStartTime()));
+        env.put("JM_INSTANCE_SUSPENDED_TIME", formatTime(workflowInstance.getSuspendedTime()));
+        env.put("JM_INSTANCE_SERIAL_NO", workflowInstance.getSerialNo() + "");
+        env.put("JM_INSTANCE_RUN_MODE", workflowInstance.getRunMode().name());
+        env.put("JM_INSTANCE_STATUS", workflowInstance.getStatus().name());
+
+        return env;
+    }
+
+    private String formatTime(LocalDateTime time) {
+        return time == null ? "" : time.format(formatter);
+    }
+
+    /**
+     * 变量名转为大写，以JIANMU_开头的变量都复制一份以JM_开头的变量
+     *
+     * @param parameterMap
+     * @return
+     */
+    private Map<String, String> addFeatureParam(Map<String, String> parameterMap) {
+        var environment = new HashMap<String, String>();
+        parameterMap.forEach((key, value) -> {
+            if (key == null) {
+                return;
+            }
+            var val = value == null ? "" : value;
+            if (key.startsWith("JIANMU_")) {
+                environment.put(key.replaceFirst("JIANMU_", "JM_").toUpperCase(), val);
+            }
+            environment.put(key.toUpperCase(), val);
+        });
+        return environment;
+    }
+}
@@ -0,0 +1,218 @@
+package dev.jianmu.application.service.internal;
+
+import dev.jianmu.el.ElContext;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.task.aggregate.InstanceParameter;
+import dev.jianmu.task.repository.InstanceParameterRepository;
+import dev.jianmu.trigger.event.TriggerEvent;
+import dev.jianmu.trigger.event.TriggerEventParameter;
+import dev.jianmu.trigger.repository.TriggerEventRepository;
+import dev.jianmu.workflow.aggregate.definition.Workflow;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.el.EvaluationContext;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import dev.jianmu.workflow.service.ParameterDomainService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent
+ * @class EvaluationContextService
+ * @description 流程实例表达式上下文快照，按triggerId缓存事件参数与任务输出参数，
+ * 任务完成时增量更新，流程结束时清除。
+ * 集群部署时任务输出可能在其他节点写入，不保留快照，每次从数据库加载
+ * @create 2026-10-17 23:39
+ */
+@Service
+@Slf4j
+public class EvaluationContextService {
+    private static final int maxSnapshots = 1024;
+
+    private final TriggerEventRepository triggerEventRepository;
+    private final InstanceParameterRepository instanceParameterRepository;
+    private final ParameterRepository parameterRepository;
+    private final ParameterDomainService parameterDomainService;
+    private final boolean retainSnapshots;
+
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return this.size() > maxSnapshots;
+        }
+    };
+
+    public EvaluationContextService(
+            TriggerEventRepository triggerEventRepository,
+            InstanceParameterRepository instanceParameterRepository,
+            ParameterRepository parameterRepository,
+            ParameterDomainService parameterDomainService,
+            GlobalProperties globalProperties
+    ) {
+        this.triggerEventRepository = triggerEventRepository;
+        this.instanceParameterRepository = instanceParameterRepository;
+        this.parameterRepository = parameterRepository;
+        this.parameterDomainService = parameterDomainService;
+        this.retainSnapshots = !"db".equals(globalProperties.getCluster().getCoordinator());
+    }
+
+    private static class Output {
+        private final int serialNo;
+        private final String workflowType;
+        private final String asyncTaskRef;
+        private final String ref;
+        private final Parameter parameter;
+
+        private Output(InstanceParameter instanceParameter, Parameter parameter) {
+            this.serialNo = instanceParameter.getSerialNo();
+            this.workflowType = instanceParameter.getWorkflowType();
+            this.asyncTaskRef = instanceParameter.getAsyncTaskRef();
+            this.ref = instanceParameter.getRef();
+            this.parameter = parameter;
+        }
+    }
+
+    private static class Snapshot {
+        private Map<String, Parameter> eventParameters;
+        // 任务输出参数，key为asyncTaskRef.ref，只保留最大执行次数的值
+        private final Map<String, Output> outputs = new HashMap<>();
+
+        private void merge(Output output) {
+            var key = output.asyncTaskRef + "." + output.ref;
+            var current = this.outputs.get(key);
+            if (current == null || current.serialNo <= output.serialNo) {
+                this.outputs.put(key, output);
+            }
+        }
+    }
+
+    /**
+     * 获取包含全局参数、事件参数与任务输出参数的上下文
+     */
+    public EvaluationContext findContext(Workflow workflow, String triggerId) {
+        var snapshot = this.getSnapshot(triggerId);
+        var context = this.triggerContext(workflow, snapshot);
+        synchronized (snapshot) {
+            // 任务输出参数加入上下文
+            snapshot.outputs.values().forEach(output -> {
+                // 输出参数scope为workflowType.asyncTaskRef
+                context.add(output.workflowType + "." + output.asyncTaskRef + "." + output.ref, output.parameter);
+                // 输出参数scope为asyncTaskRef
+                context.add(output.asyncTaskRef + "." + output.ref, output.parameter);
+            });
+        }
+        return context;
+    }
+
+    /**
+     * 获取只包含全局参数与事件参数的上下文
+     */
+    public ElContext findTriggerContext(Workflow workflow, String triggerId) {
+        return this.triggerContext(workflow, this.getSnapshot(triggerId));
+    }
+
+    private ElContext triggerContext(Workflow workflow, Snapshot snapshot) {
+        var context = new ElContext();
+        // 全局参数加入上下文
+        workflow.getGlobalParameters()
+                .forEach(globalParameter -> context.add(
+                        "global",
+                        globalParameter.getName(),
+                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
+                );
+        synchronized (snapshot) {
+            // 事件参数scope为event
+            snapshot.eventParameters.forEach((key, val) -> context.add("trigger", key, val));
+        }
+        return context;
+    }
+
+    /**
+     * 任务输出参数写入后，在事务提交时更新快照
+     */
+    public void addOutputParameters(String triggerId, Map<InstanceParameter, ? extends Parameter> outputParameters) {
+        var outputs = outputParameters.entrySet().stream()
+                .filter(entry -> entry.getKey().getType() == InstanceParameter.Type.OUTPUT)
+                .map(entry -> new Output(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        Runnable merge = () -> {
+            Snapshot snapshot;
+            synchronized (this.snapshots) {
+                snapshot = this.snapshots.get(triggerId);
+            }
+            if (snapshot == null) {
+                return;
+            }
+            synchronized (snapshot) {
+                outputs.forEach(snapshot::merge);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    merge.run();
+                }
+            });
+        } else {
+            merge.run();
+        }
+    }
+
+    public void evict(String triggerId) {
+        synchronized (this.snapshots) {
+            this.snapshots.remove(triggerId);
+        }
+    }
+
+    private Snapshot getSnapshot(String triggerId) {
+        if (!this.retainSnapshots) {
+            var snapshot = new Snapshot();
+            this.load(triggerId, snapshot);
+            return snapshot;
+        }
+        Snapshot snapshot;
+        synchronized (this.snapshots) {
+            snapshot = this.snapshots.computeIfAbsent(triggerId, k -> new Snapshot());
+        }
+        synchronized (snapshot) {
+            if (snapshot.eventParameters == null) {
+                this.load(triggerId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    private void load(String triggerId, Snapshot snapshot) {
+        // 查询参数源
+        var eventParameters = this.triggerEventRepository.findById(triggerId)
+                .map(TriggerEvent::getParameters)
+                .orElseGet(List::of);
+        var instanceParameters = this.instanceParameterRepository
+                .findLastOutputParamByTriggerId(triggerId);
+        // 事件参数与输出参数一次查询
+        var ids = new HashSet<String>();
+        eventParameters.forEach(eventParameter -> ids.add(eventParameter.getParameterId()));
+        instanceParameters.forEach(instanceParameter -> ids.add(instanceParameter.getParameterId()));
+        var values = ids.isEmpty() ? List.<Parameter>of() : this.parameterRepository.findByIds(ids);
+        var eventParams = eventParameters.stream()
+                .collect(Collectors.toMap(TriggerEventParameter::getName, TriggerEventParameter::getParameterId));
+        var eventMap = this.parameterDomainService.matchParameters(eventParams, values);
+        var valueMap = values.stream()
+                .collect(Collectors.toMap(Parameter::getId, parameter -> parameter, (a, b) -> a));
+        var outputs = new ArrayList<Output>();
+        instanceParameters.forEach(instanceParameter -> {
+            var parameter = valueMap.get(instanceParameter.getParameterId());
+            if (parameter == null) {
+                throw new RuntimeException("未找到对应的参数");
+            }
+            outputs.add(new Output(instanceParameter, parameter));
+        });
+        snapshot.eventParameters = eventMap;
+        outputs.forEach(snapshot::merge);
+    }
+}
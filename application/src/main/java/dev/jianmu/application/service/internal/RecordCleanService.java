@@ -0,0 +1,214 @@
+package dev.jianmu.application.service.internal;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.mybatis.project.ProjectRepositoryImpl;
+import dev.jianmu.infrastructure.storage.StorageService;
+import dev.jianmu.node.definition.repository.NodeDefinitionVersionRepository;
+import dev.jianmu.task.repository.InstanceParameterRepository;
+import dev.jianmu.task.repository.TaskInstanceRepository;
+import dev.jianmu.trigger.event.TriggerEvent;
+import dev.jianmu.trigger.repository.TriggerEventRepository;
+import dev.jianmu.trigger.repository.WebRequestRepository;
+import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
+import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent
+ * @class RecordCleanService
+ * @description 执行记录清理，按项目分批删除超出保留数量的流程实例及其关联数据与文件，
+ * 每批使用独立的短事务，批次之间暂停以降低对数据库的压力。
+ * 清理在独立线程中执行，不占用定时任务线程，集群部署时只有持有清理租约的节点执行
+ * @create 2026-10-18 00:01
+ */
+@Slf4j
+@Service
+public class RecordCleanService {
+    private static final String RECORD_CLEANER = "record-cleaner";
+    private static final Duration leaseTtl = Duration.ofMinutes(10);
+
+    private final ProjectRepositoryImpl projectRepository;
+    private final WorkflowInstanceRepository workflowInstanceRepository;
+    private final AsyncTaskInstanceRepository asyncTaskInstanceRepository;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final InstanceParameterRepository instanceParameterRepository;
+    private final TriggerEventRepository triggerEventRepository;
+    private final WebRequestRepository webRequestRepository;
+    private final ParameterRepository parameterRepository;
+    private final NodeDefinitionVersionRepository nodeDefinitionVersionRepository;
+    private final StorageService storageService;
+    private final ClusterCoordinator clusterCoordinator;
+    private final GlobalProperties globalProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+
+    public RecordCleanService(
+            ProjectRepositoryImpl projectRepository,
+            WorkflowInstanceRepository workflowInstanceRepository,
+            AsyncTaskInstanceRepository asyncTaskInstanceRepository,
+            TaskInstanceRepository taskInstanceRepository,
+            InstanceParameterRepository instanceParameterRepository,
+            TriggerEventRepository triggerEventRepository,
+            WebRequestRepository webRequestRepository,
+            ParameterRepository parameterRepository,
+            NodeDefinitionVersionRepository nodeDefinitionVersionRepository,
+            StorageService storageService,
+            ClusterCoordinator clusterCoordinator,
+            GlobalProperties globalProperties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.projectRepository = projectRepository;
+        this.workflowInstanceRepository = workflowInstanceRepository;
+        this.asyncTaskInstanceRepository = asyncTaskInstanceRepository;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.instanceParameterRepository = instanceParameterRepository;
+        this.triggerEventRepository = triggerEventRepository;
+        this.webRequestRepository = webRequestRepository;
+        this.parameterRepository = parameterRepository;
+        this.nodeDefinitionVersionRepository = nodeDefinitionVersionRepository;
+        this.storageService = storageService;
+        this.clusterCoordinator = clusterCoordinator;
+        this.globalProperties = globalProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 单线程且不排队，上一次清理未结束时跳过本次
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(1);
+        this.executor.setMaxPoolSize(1);
+        this.executor.setQueueCapacity(0);
+        this.executor.setThreadNamePrefix("record-cleaner-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 中断批次之间的暂停，进行中的批次事务回滚或提交后退出
+        this.executor.shutdown();
+    }
+
+    @Scheduled(initialDelayString = "${jianmu.global.record.clean-delay:60000}",
+            fixedDelayString = "${jianmu.global.record.clean-interval:3600000}")
+    public void clean() {
+        var record = this.globalProperties.getGlobal().getRecord();
+        // 是否需要自动清理
+        if (!record.getAutoClean()) {
+            return;
+        }
+        try {
+            this.executor.execute(() -> this.cleanAll(record));
+        } catch (TaskRejectedException e) {
+            log.info("上一次记录清理尚未结束，跳过本次清理");
+        }
+    }
+
+    private void cleanAll(GlobalProperties.Global.Record record) {
+        log.info("开始执行记录自动清理，保留最新{}条记录", record.getMax());
+        for (var project : this.projectRepository.findAll()) {
+            // 每个项目开始前续期，租约被其他节点取得时停止
+            if (!this.clusterCoordinator.tryAcquireLease(RECORD_CLEANER, leaseTtl)) {
+                log.info("其他节点正在执行记录清理");
+                return;
+            }
+            try {
+                if (!this.cleanProject(project.getWorkflowRef(), record)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.warn("项目{}记录清理失败: {}", project.getWorkflowRef(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理单个项目，线程被中断时返回false
+     */
+    private boolean cleanProject(String workflowRef, GlobalProperties.Global.Record record) {
+        var latest = this.workflowInstanceRepository.findByRefAndSerialNoMax(workflowRef);
+        if (latest.isEmpty()) {
+            return true;
+        }
+        var serialNo = latest.get().getSerialNo() - record.getMax();
+        if (serialNo <= 1) {
+            return true;
+        }
+        var total = 0;
+        // 节点定义的默认参数可能被任务输入参数引用，不能删除
+        Set<String> nodeParameterIds = null;
+        while (true) {
+            var workflowInstances = this.workflowInstanceRepository.findExpiredByRef(workflowRef, (int) serialNo, record.getBatchSize());
+            if (workflowInstances.isEmpty()) {
+                break;
+            }
+            if (nodeParameterIds == null) {
+                nodeParameterIds = this.nodeDefinitionVersionRepository.findAllParameterIds();
+            }
+            this.deleteBatch(workflowInstances, nodeParameterIds);
+            total += workflowInstances.size();
+            if (workflowInstances.size() < record.getBatchSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(record.getBatchPause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (total > 0) {
+            log.info("项目{}已清理{}条记录", workflowRef, total);
+        }
+        return true;
+    }
+
+    /**
+     * 先删除日志与Webhook文件，再在同一事务中删除数据库记录，流程实例最后删除。
+     * 中途失败时事务回滚，流程实例仍然保留，下次清理会重新处理这一批记录
+     */
+    private void deleteBatch(List<WorkflowInstance> workflowInstances, Set<String> nodeParameterIds) {
+        var instanceIds = workflowInstances.stream()
+                .map(WorkflowInstance::getId)
+                .collect(Collectors.toList());
+        var triggerIds = workflowInstances.stream()
+                .map(WorkflowInstance::getTriggerId)
+                .collect(Collectors.toList());
+        var webRequestIds = this.triggerEventRepository.findByIds(triggerIds).stream()
+                .map(TriggerEvent::getWebRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        var taskInstanceIds = this.taskInstanceRepository.findIdsByTriggerIds(triggerIds);
+        // 任务输入输出参数与触发事件参数，排除节点定义的默认参数，仍被其他记录引用的参数在删除时跳过
+        var parameterIds = new HashSet<>(this.instanceParameterRepository.findParameterIdsByTriggerIds(triggerIds));
+        parameterIds.addAll(this.triggerEventRepository.findParameterIdsByIds(triggerIds));
+        parameterIds.removeAll(nodeParameterIds);
+
+        taskInstanceIds.forEach(taskInstanceId -> this.storageService.deleteLog(taskInstanceId, true));
+        triggerIds.forEach(triggerId -> this.storageService.deleteLog(triggerId, false));
+        webRequestIds.forEach(this.storageService::deleteWebhook);
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.instanceParameterRepository.deleteByTriggerIds(triggerIds);
+            this.triggerEventRepository.deleteByIds(triggerIds);
+            this.parameterRepository.deleteUnreferencedByIds(parameterIds);
+            this.webRequestRepository.deleteByIds(webRequestIds);
+            this.taskInstanceRepository.deleteByTriggerIds(triggerIds);
+            this.asyncTaskInstanceRepository.deleteByWorkflowInstanceIds(instanceIds);
+            this.workflowInstanceRepository.deleteByIds(instanceIds);
+        });
+    }
+}
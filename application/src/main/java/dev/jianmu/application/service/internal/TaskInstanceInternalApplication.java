@@ -7,7 +7,6 @@ import dev.jianmu.application.command.TaskActivatingCmd;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDef;
 import dev.jianmu.application.query.NodeDefApi;
-import dev.jianmu.el.ElContext;
 import dev.jianmu.infrastructure.storage.MonitoringFileService;
 import dev.jianmu.infrastructure.worker.DeferredResultService;
 import dev.jianmu.node.definition.aggregate.NodeParameter;
@@ -18,14 +17,11 @@ import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.task.repository.InstanceParameterRepository;
 import dev.jianmu.task.repository.TaskInstanceRepository;
 import dev.jianmu.task.service.InstanceDomainService;
-import dev.jianmu.trigger.event.TriggerEvent;
-import dev.jianmu.trigger.repository.TriggerEventRepository;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.el.ExpressionLanguage;
 import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
-import dev.jianmu.workflow.service.ParameterDomainService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
@@ -48,8 +44,7 @@ public class TaskInstanceInternalApplication {
     private final WorkflowRepository workflowRepository;
     private final InstanceDomainService instanceDomainService;
     private final ParameterRepository parameterRepository;
-    private final ParameterDomainService parameterDomainService;
-    private final TriggerEventRepository triggerEventRepository;
+    private final EvaluationContextService evaluationContextService;
     private final InstanceParameterRepository instanceParameterRepository;
     private final NodeDefApi nodeDefApi;
     private final ExpressionLanguage expressionLanguage;
@@ -62,8 +57,7 @@ public class TaskInstanceInternalApplication {
             WorkflowRepository workflowRepository,
             InstanceDomainService instanceDomainService,
             ParameterRepository parameterRepository,
-            ParameterDomainService parameterDomainService,
-            TriggerEventRepository triggerEventRepository,
+            EvaluationContextService evaluationContextService,
             InstanceParameterRepository instanceParameterRepository,
             NodeDefApi nodeDefApi,
             ExpressionLanguage expressionLanguage,
@@ -74,8 +68,7 @@ public class TaskInstanceInternalApplication {
         this.workflowRepository = workflowRepository;
         this.instanceDomainService = instanceDomainService;
         this.parameterRepository = parameterRepository;
-        this.parameterDomainService = parameterDomainService;
-        this.triggerEventRepository = triggerEventRepository;
+        this.evaluationContextService = evaluationContextService;
         this.instanceParameterRepository = instanceParameterRepository;
         this.nodeDefApi = nodeDefApi;
         this.expressionLanguage = expressionLanguage;
@@ -122,41 +115,8 @@ public class TaskInstanceInternalApplication {
                 .businessId(cmd.getAsyncTaskInstanceId())
                 .triggerId(cmd.getTriggerId())
                 .build();
-        // 查询参数源
-        var eventParameters = this.triggerEventRepository.findById(cmd.getTriggerId())
-                .map(TriggerEvent::getParameters)
-                .orElseGet(List::of);
-        var instanceParameters = this.instanceParameterRepository
-                .findLastOutputParamByTriggerId(cmd.getTriggerId());
         // 创建表达式上下文
-        var context = new ElContext();
-        // 全局参数加入上下文
-        workflow.getGlobalParameters()
-                .forEach(globalParameter -> context.add(
-                        "global",
-                        globalParameter.getName(),
-                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
-                );
-        // 事件参数加入上下文
-        var eventParams = eventParameters.stream()
-                .map(eventParameter -> Map.entry(eventParameter.getName(), eventParameter.getParameterId()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        var eventParamValues = this.parameterRepository.findByIds(new HashSet<>(eventParams.values()));
-        var eventMap = this.parameterDomainService.matchParameters(eventParams, eventParamValues);
-        // 事件参数scope为event
-        eventMap.forEach((key, val) -> context.add("trigger", key, val));
-        // 任务输出参数加入上下文
-        Map<String, String> outParams = new HashMap<>();
-        instanceParameters.forEach(instanceParameter -> {
-            // 输出参数scope为workflowType.asyncTaskRef
-            outParams.put(instanceParameter.getWorkflowType() + "." + instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-            // 输出参数scope为asyncTaskRef
-            outParams.put(instanceParameter.getAsyncTaskRef() + "." + instanceParameter.getRef(), instanceParameter.getParameterId());
-        });
-        var outParamValues = this.parameterRepository.findByIds(new HashSet<>(outParams.values()));
-        var outMap = this.parameterDomainService.matchParameters(outParams, outParamValues);
-        outMap.forEach(context::add);
-
+        var context = this.evaluationContextService.findContext(workflow, cmd.getTriggerId());
         workflow.setExpressionLanguage(this.expressionLanguage);
         workflow.setContext(context);
         Map<String, Parameter<?>> params = Map.of();
@@ -184,6 +144,7 @@ public class TaskInstanceInternalApplication {
     public void terminate(String asyncTaskInstanceId) {
         var taskInstance = this.taskInstanceRepository.findByBusinessIdAndMaxSerialNo(asyncTaskInstanceId)
                 .orElseThrow(() -> new DataNotFoundException("未找到该任务实例"));
+        this.deferredResultService.removeTask(taskInstance.getWorkerId(), taskInstance.getBusinessId());
         this.deferredResultService.terminateDeferredResult(taskInstance.getWorkerId(), taskInstance.getBusinessId());
     }
 
@@ -229,6 +190,7 @@ public class TaskInstanceInternalApplication {
         // 保存参数
         this.parameterRepository.addAll(new ArrayList<>(outputParameters.values()));
         this.taskInstanceRepository.saveSucceeded(taskInstance);
+        this.evaluationContextService.addOutputParameters(taskInstance.getTriggerId(), outputParameters);
     }
 
     @Transactional
@@ -260,6 +222,7 @@ public class TaskInstanceInternalApplication {
         this.parameterRepository.addAll(new ArrayList<>(outputParameters.values()));
         this.instanceParameterRepository.addAll(outputParameters.keySet());
         this.taskInstanceRepository.updateStatus(taskInstance);
+        this.evaluationContextService.addOutputParameters(taskInstance.getTriggerId(), outputParameters);
     }
 
     @Transactional
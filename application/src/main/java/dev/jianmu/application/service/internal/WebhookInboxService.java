@@ -0,0 +1,228 @@
+package dev.jianmu.application.service.internal;
+
+import dev.jianmu.application.service.TriggerApplication;
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.mapper.webhook.WebhookInboxMapper;
+import dev.jianmu.infrastructure.webhook.WebhookInbox;
+import dev.jianmu.trigger.aggregate.WebRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * @author agent
+ * @class WebhookInboxService
+ * @description Webhook收件箱，接收请求时只写入收件箱即返回，由有界线程池领取后异步处理，
+ * 节点停机时已领取的请求在领取超时后由其他节点重新处理，同一来源的重复投递按投递ID去重。
+ * 每次处理在同一事务中完成，失败时全部回滚后重试，超过最大领取次数时标记为失败
+ * @create 2026-10-18 00:32
+ */
+@Slf4j
+@Service
+public class WebhookInboxService {
+    private static final String INBOX_CLEANER = "webhook-inbox-cleaner";
+
+    private final WebhookInboxMapper webhookInboxMapper;
+    private final TriggerApplication triggerApplication;
+    private final ClusterCoordinator clusterCoordinator;
+    private final GlobalProperties globalProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+
+    public WebhookInboxService(
+            WebhookInboxMapper webhookInboxMapper,
+            TriggerApplication triggerApplication,
+            ClusterCoordinator clusterCoordinator,
+            GlobalProperties globalProperties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.webhookInboxMapper = webhookInboxMapper;
+        this.triggerApplication = triggerApplication;
+        this.clusterCoordinator = clusterCoordinator;
+        this.globalProperties = globalProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        var lane = globalProperties.getWebhook().getExecutor();
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(lane.getCorePoolSize());
+        this.executor.setMaxPoolSize(lane.getMaxPoolSize());
+        this.executor.setQueueCapacity(lane.getQueueCapacity());
+        this.executor.setThreadNamePrefix("webhook-");
+        this.executor.setWaitForTasksToCompleteOnShutdown(true);
+        this.executor.setAwaitTerminationSeconds(30);
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * 写入收件箱后立即返回WebRequest ID，重复投递时返回首次投递的ID
+     */
+    public String accept(String projectName, HttpServletRequest request, String contentType) {
+        var webRequest = this.triggerApplication.createWebRequest(request, contentType);
+        var dedupeKey = this.dedupeKey(projectName, request);
+        var inbox = WebhookInbox.builder()
+                .id(webRequest.getId())
+                .projectName(projectName)
+                .userAgent(webRequest.getUserAgent())
+                .payload(webRequest.getPayload())
+                .statusCode(webRequest.getStatusCode().name())
+                .errorMsg(webRequest.getErrorMsg())
+                .dedupeKey(dedupeKey)
+                .status(WebhookInbox.Status.PENDING)
+                .receivedTime(webRequest.getRequestTime())
+                .build();
+        try {
+            this.webhookInboxMapper.add(inbox);
+        } catch (DuplicateKeyException e) {
+            log.info("项目{}收到重复投递的Webhook请求，已忽略", projectName);
+            return this.webhookInboxMapper.findIdByDedupeKey(dedupeKey)
+                    .orElse(webRequest.getId());
+        }
+        // 线程池有空闲时直接处理，无需等待下次领取
+        if (this.remainingCapacity() > 0) {
+            var claimId = UUID.randomUUID().toString().replace("-", "");
+            if (this.webhookInboxMapper.claimById(inbox.getId(), claimId, LocalDateTime.now()) > 0) {
+                inbox.setClaimId(claimId);
+                inbox.setAttempts(1);
+                this.submit(inbox);
+            }
+        }
+        return inbox.getId();
+    }
+
+    @Scheduled(initialDelayString = "${jianmu.webhook.poll-interval:1000}",
+            fixedDelayString = "${jianmu.webhook.poll-interval:1000}")
+    public void poll() {
+        var webhook = this.globalProperties.getWebhook();
+        var limit = Math.min(webhook.getBatchSize(), this.remainingCapacity());
+        if (limit <= 0) {
+            return;
+        }
+        var now = LocalDateTime.now();
+        var claimId = UUID.randomUUID().toString().replace("-", "");
+        try {
+            if (this.webhookInboxMapper.claim(claimId, now, now.minus(Duration.ofMillis(webhook.getClaimTimeout())), limit) == 0) {
+                return;
+            }
+            this.webhookInboxMapper.findByClaimId(claimId).forEach(this::submit);
+        } catch (RuntimeException e) {
+            log.warn("领取Webhook请求失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清理超过去重保留时间的已完成与失败请求
+     */
+    @Scheduled(fixedDelay = 600000L, initialDelay = 60000L)
+    public void purge() {
+        if (!this.clusterCoordinator.tryAcquireLease(INBOX_CLEANER, Duration.ofMinutes(20))) {
+            return;
+        }
+        var retention = this.globalProperties.getWebhook().getDedupeRetention();
+        this.webhookInboxMapper.deleteFinishedByReceivedTimeBefore(LocalDateTime.now().minus(Duration.ofMillis(retention)));
+    }
+
+    private void submit(WebhookInbox inbox) {
+        try {
+            this.executor.execute(() -> this.process(inbox));
+        } catch (TaskRejectedException e) {
+            // 线程池已满，放回收件箱等待下次领取
+            this.webhookInboxMapper.release(inbox.getId(), inbox.getClaimId());
+        }
+    }
+
+    private void process(WebhookInbox inbox) {
+        var maxAttempts = this.globalProperties.getWebhook().getMaxAttempts();
+        if (inbox.getAttempts() > maxAttempts) {
+            // 处理过程中节点多次停机，领取超时后不再重试
+            log.error("项目{}的Webhook请求{}超过最大领取次数，不再处理", inbox.getProjectName(), inbox.getId());
+            this.webhookInboxMapper.fail(inbox.getId(), inbox.getClaimId(), "超过最大领取次数");
+            return;
+        }
+        var webRequest = WebRequest.Builder.aWebRequest()
+                .id(inbox.getId())
+                .userAgent(inbox.getUserAgent())
+                .payload(inbox.getPayload())
+                .statusCode(WebRequest.StatusCode.valueOf(inbox.getStatusCode()))
+                .errorMsg(inbox.getErrorMsg())
+                .requestTime(inbox.getReceivedTime())
+                .build();
+        try {
+            // WebRequest、触发事件与完成状态一起提交，回滚后重新处理不会重复写入
+            // 先按领取ID标记完成并持有行锁，处理期间其他节点无法重新领取；领取已超时并被其他节点领取时整体回滚
+            this.transactionTemplate.executeWithoutResult(status -> {
+                if (this.webhookInboxMapper.finish(inbox.getId(), inbox.getClaimId()) == 0) {
+                    throw new ClaimLostException();
+                }
+                try {
+                    this.triggerApplication.receiveHttpEvent(inbox.getProjectName(), webRequest);
+                } catch (DataAccessException | TaskRejectedException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // 处理结果已记录在WebRequest中
+                    log.info("项目{}的Webhook请求{}未触发: {}", inbox.getProjectName(), inbox.getId(), e.getMessage());
+                }
+            });
+        } catch (ClaimLostException e) {
+            // 记录已由其他节点领取，由其负责处理
+            log.warn("项目{}的Webhook请求{}领取已超时并被重新领取，本次不处理", inbox.getProjectName(), inbox.getId());
+        } catch (TaskRejectedException e) {
+            // 触发通道已满，回滚后放回收件箱等待下次领取
+            log.warn("触发通道繁忙，项目{}的Webhook请求{}稍后重新处理", inbox.getProjectName(), inbox.getId());
+            this.webhookInboxMapper.release(inbox.getId(), inbox.getClaimId());
+        } catch (RuntimeException e) {
+            if (inbox.getAttempts() >= maxAttempts) {
+                log.error("项目{}的Webhook请求{}处理失败，已达到最大领取次数: {}", inbox.getProjectName(), inbox.getId(), e.getMessage());
+                this.webhookInboxMapper.fail(inbox.getId(), inbox.getClaimId(), e.getMessage());
+            } else {
+                log.warn("项目{}的Webhook请求{}处理失败，稍后重试: {}", inbox.getProjectName(), inbox.getId(), e.getMessage());
+                this.webhookInboxMapper.retry(inbox.getId(), inbox.getClaimId(), e.getMessage());
+            }
+        }
+    }
+
+    private int remainingCapacity() {
+        var threadPoolExecutor = this.executor.getThreadPoolExecutor();
+        var idle = threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount();
+        return threadPoolExecutor.getQueue().remainingCapacity() + Math.max(idle, 0);
+    }
+
+    /**
+     * 按项目与投递ID生成去重Key，请求中没有投递ID时不去重
+     */
+    private String dedupeKey(String projectName, HttpServletRequest request) {
+        for (var header : this.globalProperties.getWebhook().getDeliveryHeaders()) {
+            var delivery = request.getHeader(header);
+            if (delivery != null && !delivery.isBlank()) {
+                var key = projectName + "\n" + header.toLowerCase(Locale.ROOT) + "\n" + delivery;
+                return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return null;
+    }
+
+    private static class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("领取已失效");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.jianmu.application.service.internal;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.PathNotFoundException;
+import dev.jianmu.trigger.aggregate.Webhook;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author agent
+ * @class WebhookParameterExtractor
+ * @description Webhook参数提取，每次请求只解析一次请求体，参数表达式编译为JsonPath后按表达式文本缓存，
+ * 保存触发器时预先编译
+ * @create 2026-10-18 00:26
+ */
+@Slf4j
+@Service
+public class WebhookParameterExtractor {
+    private static final int maxCachedPaths = 2048;
+
+    private static final Configuration configuration = Configuration.defaultConfiguration()
+            .addOptions(Option.ALWAYS_RETURN_LIST, Option.DEFAULT_PATH_LEAF_TO_NULL);
+
+    // 编译后的JsonPath不可变，可在请求间共享
+    private final Map<String, JsonPath> paths = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return this.size() > maxCachedPaths;
+        }
+    });
+
+    /**
+     * 预先编译触发器的参数表达式，表达式错误时只记录日志，请求到达时再抛出异常
+     */
+    public void compile(Webhook webhook) {
+        if (webhook == null || webhook.getParam() == null) {
+            return;
+        }
+        webhook.getParam().forEach(webhookParameter -> {
+            try {
+                this.compile(webhookParameter.getExp());
+            } catch (InvalidPathException e) {
+                log.warn("Webhook参数{}表达式错误: {}", webhookParameter.getName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 解析请求体，结果在同一请求的所有参数之间复用
+     */
+    public Object parse(String payload) {
+        return configuration.jsonProvider().parse(payload);
+    }
+
+    public Object read(Object document, String exp, String webhookType) {
+        try {
+            List<?> vars = this.compile(exp).read(document, configuration);
+            if (vars.isEmpty()) {
+                return null;
+            }
+            var type = Parameter.Type.getTypeByName(webhookType);
+            if (type == Parameter.Type.SECRET || type == Parameter.Type.STRING) {
+                return vars.get(0) == null ? null : vars.get(0).toString().trim();
+            }
+            return vars.get(0);
+        } catch (PathNotFoundException e) {
+            return null;
+        }
+    }
+
+    private JsonPath compile(String exp) {
+        var path = this.paths.get(exp);
+        if (path == null) {
+            // Header名称统一为小写
+            path = JsonPath.compile(exp.startsWith("$.header.") ? exp.toLowerCase(Locale.ROOT) : exp);
+            this.paths.put(exp, path);
+        }
+        return path;
+    }
+}
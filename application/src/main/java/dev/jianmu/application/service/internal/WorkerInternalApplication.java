@@ -5,9 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.application.query.NodeDef;
 import dev.jianmu.application.query.NodeDefApi;
-import dev.jianmu.el.ElContext;
 import dev.jianmu.infrastructure.GlobalProperties;
-import dev.jianmu.infrastructure.storage.MonitoringFileService;
+import dev.jianmu.infrastructure.storage.TaskLogAppender;
 import dev.jianmu.infrastructure.worker.*;
 import dev.jianmu.infrastructure.worker.event.TaskFailedEvent;
 import dev.jianmu.infrastructure.worker.event.TaskFinishedEvent;
@@ -15,31 +14,24 @@ import dev.jianmu.infrastructure.worker.event.TaskRunningEvent;
 import dev.jianmu.infrastructure.worker.unit.*;
 import dev.jianmu.secret.aggregate.CredentialManager;
 import dev.jianmu.secret.aggregate.KVPair;
-import dev.jianmu.task.aggregate.InstanceParameter;
 import dev.jianmu.task.aggregate.InstanceStatus;
 import dev.jianmu.task.aggregate.NodeInfo;
 import dev.jianmu.task.aggregate.TaskInstance;
 import dev.jianmu.task.event.TaskInstanceCreatedEvent;
-import dev.jianmu.task.repository.InstanceParameterRepository;
 import dev.jianmu.task.repository.TaskInstanceRepository;
-import dev.jianmu.trigger.event.TriggerEvent;
-import dev.jianmu.trigger.repository.TriggerEventRepository;
 import dev.jianmu.worker.aggregate.Worker;
 import dev.jianmu.worker.repository.WorkerRepository;
 import dev.jianmu.workflow.aggregate.definition.Node;
 import dev.jianmu.workflow.aggregate.definition.TaskParameter;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
-import dev.jianmu.workflow.aggregate.parameter.SecretParameter;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
 import dev.jianmu.workflow.aggregate.process.WorkflowInstance;
 import dev.jianmu.workflow.el.EvaluationResult;
 import dev.jianmu.workflow.el.Expression;
 import dev.jianmu.workflow.el.ExpressionLanguage;
 import dev.jianmu.workflow.repository.AsyncTaskInstanceRepository;
-import dev.jianmu.workflow.repository.ParameterRepository;
 import dev.jianmu.workflow.repository.WorkflowInstanceRepository;
 import dev.jianmu.workflow.repository.WorkflowRepository;
-import dev.jianmu.workflow.service.ParameterDomainService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -50,11 +42,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedWriter;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -70,81 +58,95 @@ import java.util.stream.Collectors;
 @Service
 public class WorkerInternalApplication {
     private static final Logger logger = LoggerFactory.getLogger(WorkerInternalApplication.class);
-    private final String optionScript = "set -e";
-    private final String traceScript = "\necho + %s\n%s";
-    private final String noTraceScript = "\n%s";
 
-    private final ParameterRepository parameterRepository;
-    private final ParameterDomainService parameterDomainService;
     private final CredentialManager credentialManager;
     private final NodeDefApi nodeDefApi;
     private final WorkerRepository workerRepository;
     private final ApplicationEventPublisher publisher;
-    private final InstanceParameterRepository instanceParameterRepository;
-    private final TriggerEventRepository triggerEventRepository;
     private final WorkflowInstanceRepository workflowInstanceRepository;
     private final DeferredResultService deferredResultService;
     private final TaskInstanceRepository taskInstanceRepository;
     private final ObjectMapper objectMapper;
-    private final MonitoringFileService monitoringFileService;
+    private final TaskLogAppender taskLogAppender;
     private final GlobalProperties globalProperties;
     private final WorkflowRepository workflowRepository;
     private final AsyncTaskInstanceRepository asyncTaskInstanceRepository;
     private final ExpressionLanguage expressionLanguage;
+    private final WorkerSelectionStrategy workerSelectionStrategy;
+    private final WorkerLoadTracker workerLoadTracker;
+    private final WorkerRegistry workerRegistry;
+    private final EvaluationContextService evaluationContextService;
+    private final ContainerSpecService containerSpecService;
 
     public WorkerInternalApplication(
-            ParameterRepository parameterRepository,
-            ParameterDomainService parameterDomainService,
             CredentialManager credentialManager,
             NodeDefApi nodeDefApi,
             WorkerRepository workerRepository,
             ApplicationEventPublisher publisher,
-            InstanceParameterRepository instanceParameterRepository,
-            TriggerEventRepository triggerEventRepository,
             WorkflowInstanceRepository workflowInstanceRepository,
             DeferredResultService deferredResultService,
             TaskInstanceRepository taskInstanceRepository,
             ObjectMapper objectMapper,
-            MonitoringFileService monitoringFileService,
+            TaskLogAppender taskLogAppender,
             GlobalProperties globalProperties,
             WorkflowRepository workflowRepository,
             AsyncTaskInstanceRepository asyncTaskInstanceRepository,
-            ExpressionLanguage expressionLanguage) {
-        this.parameterRepository = parameterRepository;
-        this.parameterDomainService = parameterDomainService;
+            ExpressionLanguage expressionLanguage,
+            WorkerSelectionStrategy workerSelectionStrategy,
+            WorkerLoadTracker workerLoadTracker,
+            WorkerRegistry workerRegistry,
+            EvaluationContextService evaluationContextService,
+            ContainerSpecService containerSpecService) {
         this.credentialManager = credentialManager;
         this.nodeDefApi = nodeDefApi;
         this.workerRepository = workerRepository;
         this.publisher = publisher;
-        this.instanceParameterRepository = instanceParameterRepository;
-        this.triggerEventRepository = triggerEventRepository;
         this.workflowInstanceRepository = workflowInstanceRepository;
         this.deferredResultService = deferredResultService;
         this.taskInstanceRepository = taskInstanceRepository;
         this.objectMapper = objectMapper;
-        this.monitoringFileService = monitoringFileService;
+        this.taskLogAppender = taskLogAppender;
         this.globalProperties = globalProperties;
         this.workflowRepository = workflowRepository;
         this.asyncTaskInstanceRepository = asyncTaskInstanceRepository;
         this.expressionLanguage = expressionLanguage;
+        this.workerSelectionStrategy = workerSelectionStrategy;
+        this.workerLoadTracker = workerLoadTracker;
+        this.workerRegistry = workerRegistry;
+        this.evaluationContextService = evaluationContextService;
+        this.containerSpecService = containerSpecService;
     }
 
     @Transactional
-    public void join(String workerId, Worker.Type type, String name, String tag) {
+    public void join(String workerId, Worker.Type type, String name, String tag, Integer capacity) {
         if (this.workerRepository.findById(workerId).isPresent()) {
-            this.workerRepository.updateTag(Worker.Builder.aWorker()
+            var worker = Worker.Builder.aWorker()
                     .id(workerId)
                     .tags(tag)
-                    .build());
+                    .capacity(capacity)
+                    .build();
+            this.workerRepository.updateTag(worker);
+            // 未上报容量的Worker保留原有容量
+            if (capacity != null) {
+                this.workerRepository.updateCapacity(worker);
+            }
+            this.workerRepository.findById(workerId).ifPresent(this.workerRegistry::register);
             return;
         }
-        this.workerRepository.add(Worker.Builder.aWorker()
+        var worker = Worker.Builder.aWorker()
                 .id(workerId)
                 .name(name)
                 .type(type)
                 .tags(tag)
+                .capacity(capacity)
                 .status(Worker.Status.ONLINE)
-                .build());
+                .build();
+        this.workerRepository.add(worker);
+        this.workerRegistry.register(worker);
+    }
+
+    public void ping(String workerId) {
+        this.workerRegistry.heartbeat(workerId);
     }
 
     @Transactional
@@ -164,55 +166,67 @@ public class WorkerInternalApplication {
                         List<String> workerTags = this.getWorkerTag(workflowInstance);
                         logger.info("triggerId:{} instanceId:{} tags: {}", workflowInstance.getTriggerId(),
                                     workflowInstance.getId(), workerTags);
-                        var workers = workerTags.isEmpty() ?
-                                this.workerRepository.findByTypeInAndCreatedTimeLessThan(
-                                        List.of(Worker.Type.DOCKER, Worker.Type.KUBERNETES),
-                                        workflowInstance.getStartTime()) :
-                                this.workerRepository.findByTypeInAndTagAndCreatedTimeLessThan(
-                                List.of(Worker.Type.DOCKER, Worker.Type.KUBERNETES),
-                                workerTags, workflowInstance.getStartTime());
+                        var workers = this.workerRegistry.findOnline(
+                                List.of(Worker.Type.DOCKER, Worker.Type.KUBERNETES), workerTags);
                         if (workers.isEmpty()) {
                             throw new RuntimeException("worker数量为0，节点任务类型：" + Worker.Type.DOCKER);
                         }
-                        var worker = DispatchWorker.getWorker(taskInstance.getTriggerId(), workers);
+                        var worker = this.selectWorker(taskInstance, workers);
                         taskInstance.setWorkerId(worker.getId());
                         this.taskInstanceRepository.updateWorkerId(taskInstance);
-                        // 返回DeferredResult
-                        this.deferredResultService.clearWorker(worker.getId());
+                        // 事务回滚时释放负载
+                        this.workerLoadTracker.acquireInTransaction(worker.getId(), taskInstance.getTriggerId(), taskInstance.getId());
+                        // 事务提交后推送任务到Worker队列，Worker拉取时任务状态已可见
+                        this.deferredResultService.dispatch(worker.getId(), taskInstance);
                     });
         } catch (RuntimeException e) {
             logger.error("任务分发失败，", e);
+            this.workerLoadTracker.release(taskInstance.getId());
             taskInstance.dispatchFailed();
             this.taskInstanceRepository.updateStatus(taskInstance);
         }
     }
 
+    /**
+     * 同一流程实例的任务共享Volume，必须分发到同一Worker，只有流程实例的首个任务按选择策略分配
+     *
+     * @param taskInstance
+     * @param workers
+     * @return
+     */
+    private Worker selectWorker(TaskInstance taskInstance, List<Worker> workers) {
+        var workerId = this.workerLoadTracker.findWorkerIdByTriggerId(taskInstance.getTriggerId())
+                .or(() -> this.taskInstanceRepository.findByTriggerId(taskInstance.getTriggerId()).stream()
+                        .map(TaskInstance::getWorkerId)
+                        .filter(Objects::nonNull)
+                        .findFirst());
+        return workerId
+                .flatMap(id -> workers.stream()
+                        .filter(worker -> worker.getId().equals(id))
+                        .findFirst())
+                .orElseGet(() -> this.workerSelectionStrategy.select(taskInstance.getTriggerId(), workers));
+    }
+
+    /**
+     * 任务结束，释放Worker负载
+     *
+     * @param triggerId
+     * @param taskInstanceId
+     * @param defKey
+     */
+    public void releaseTask(String triggerId, String taskInstanceId, String defKey) {
+        this.workerLoadTracker.release(taskInstanceId);
+        if ("end".equals(defKey)) {
+            this.workerLoadTracker.releaseTrigger(triggerId);
+            this.evaluationContextService.evict(triggerId);
+        }
+    }
+
     private List<String> getWorkerTag(WorkflowInstance workflowInstance) {
         var workflow = this.workflowRepository.findByRefAndVersion(workflowInstance.getWorkflowRef(), workflowInstance.getWorkflowVersion())
                 .orElseThrow(() -> new RuntimeException(String.format("无法找到对应的流程定义: %s, %s", workflowInstance.getWorkflowRef(), workflowInstance.getWorkflowVersion())));
-
-
-        // 查询参数源
-        var eventParameters = this.triggerEventRepository.findById(workflowInstance.getTriggerId())
-                                                         .map(TriggerEvent::getParameters)
-                                                         .orElseGet(List::of);
         // 创建表达式上下文
-        var context = new ElContext();
-        // 全局参数加入上下文
-        workflow.getGlobalParameters()
-                .forEach(globalParameter -> context.add(
-                        "global",
-                        globalParameter.getName(),
-                        Parameter.Type.getTypeByName(globalParameter.getType()).newParameter(globalParameter.getValue()))
-                );
-        // 事件参数加入上下文
-        var eventParams = eventParameters.stream()
-                                         .map(eventParameter -> Map.entry(eventParameter.getName(), eventParameter.getParameterId()))
-                                         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        var eventParamValues = this.parameterRepository.findByIds(new HashSet<>(eventParams.values()));
-        var eventMap = this.parameterDomainService.matchParameters(eventParams, eventParamValues);
-        // 事件参数scope为event
-        eventMap.forEach((key, val) -> context.add("trigger", key, val));
+        var context = this.evaluationContextService.findTriggerContext(workflow, workflowInstance.getTriggerId());
 
         return workflow.getTags().stream().filter(StringUtils::hasText).map(tag -> {
             Expression el = this.expressionLanguage.parseExpression("`" + tag + "`");
@@ -241,151 +255,59 @@ public class WorkerInternalApplication {
                         .build()));
     }
 
-    public Optional<TaskInstance> pullTasks(String workerId) {
-        return this.taskInstanceRepository.findByWorkerIdAndTriggerIdLimit(workerId, null);
-    }
-
-    public Optional<TaskInstance> pullKubeTasks(String workerId, String triggerId) {
-        return this.taskInstanceRepository.findByWorkerIdAndTriggerIdLimit(workerId, triggerId);
-    }
-
-    public ContainerSpec getContainerSpec(TaskInstance taskInstance) {
-        // 查找节点定义
-        var nodeDef = this.nodeDefApi.findByType(taskInstance.getDefKey());
-        if (!nodeDef.getWorkerType().equals("DOCKER")) {
-            throw new RuntimeException("无法执行此类节点任务: " + nodeDef.getType());
-        }
-        var isShellNode = nodeDef.getImage() != null;
-        // 环境变量
-        var worker = this.workerRepository.findById(taskInstance.getWorkerId())
-                .orElseThrow(() -> new RuntimeException("未找到worker：" + taskInstance.getWorkerId()));
-        var instanceParameters = this.instanceParameterRepository
-                .findByInstanceIdAndType(taskInstance.getId(), InstanceParameter.Type.INPUT);
-        // 查询参数值
-        var parameters = this.parameterRepository.findByIds(instanceParameters.stream()
-                .map(InstanceParameter::getParameterId)
-                .collect(Collectors.toSet()));
-        var parameterMap = this.getParameterMap(instanceParameters, parameters);
-        var secretSet = this.getSecretParameterSet(isShellNode, instanceParameters, parameters);
-        if (!isShellNode) {
-            parameterMap = parameterMap.entrySet().stream()
-                    .filter(entry -> entry.getKey() != null)
-                    .map(entry -> Map.entry("JIANMU_" + entry.getKey(), entry.getValue()))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        }
-        parameterMap.putAll(this.getEnvVariable(worker, taskInstance.getTriggerId(), taskInstance.getBusinessId(), taskInstance.getDefKey()));
-        this.addFeatureParam(parameterMap);
-        parameterMap = parameterMap.entrySet().stream()
-                .filter(entry -> entry.getKey() != null)
-                .map(entry -> Map.entry(entry.getKey().toUpperCase(), entry.getValue() == null ? "" : entry.getValue()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        // 创建ContainerSpec
-        ContainerSpec newSpec;
-        if (isShellNode) {
-            var script = this.createScript(nodeDef.getScript());
-            parameterMap.put("JIANMU_SCRIPT", script);
-            String[] entrypoint = {"/bin/sh", "-c"};
-            String[] args = {"echo \"$JIANMU_SCRIPT\" | /bin/sh"};
-            newSpec = ContainerSpec.builder()
-                    .image(nodeDef.getImage())
-                    .working_dir("")
-                    .environment(parameterMap)
-                    .secrets(secretSet)
-                    .entrypoint(entrypoint)
-                    .args(args)
-                    .volume_mounts(
-                            List.of(
-                                    VolumeMount.builder()
-                                            .source(taskInstance.getTriggerId())
-                                            .target("/" + taskInstance.getTriggerId())
-                                            .build()
-                            )
-                    )
-                    .build();
-        } else {
-            dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec spec;
-            try {
-                spec = objectMapper.readValue(nodeDef.getSpec(), dev.jianmu.embedded.worker.aggregate.spec.ContainerSpec.class);
-            } catch (JsonProcessingException e) {
-                log.error("拉取任务失败：", e);
-                throw new RuntimeException("拉取任务失败");
+    /**
+     * 释放已移除Worker上未被接收的任务。
+     * 流程实例的Volume创建任务可以重新分发到其他Worker，其他任务依赖该Worker上的Volume，标记为分发失败
+     *
+     * @param workerId
+     * @return 需要重新分发的任务
+     */
+    public List<TaskInstanceCreatedEvent> releaseTasks(String workerId) {
+        var taskInstances = this.taskInstanceRepository.findDispatchedWaitingTaskByWorkerId(workerId);
+        logger.info("Worker {}已移除，待释放任务数量：{}", workerId, taskInstances.size());
+        var events = new ArrayList<TaskInstanceCreatedEvent>();
+        taskInstances.forEach(taskInstance -> {
+            this.deferredResultService.removeTask(workerId, taskInstance.getBusinessId());
+            this.workerLoadTracker.release(taskInstance.getId());
+            if (taskInstance.isCreationVolume()) {
+                this.workerLoadTracker.releaseTrigger(taskInstance.getTriggerId());
+                events.add(TaskInstanceCreatedEvent.Builder.aTaskInstanceCreatedEvent()
+                        .taskInstanceId(taskInstance.getId())
+                        .defKey(taskInstance.getDefKey())
+                        .asyncTaskRef(taskInstance.getAsyncTaskRef())
+                        .triggerId(taskInstance.getTriggerId())
+                        .businessId(taskInstance.getBusinessId())
+                        .build());
+            } else {
+                taskInstance.dispatchFailed();
+                this.taskInstanceRepository.updateStatus(taskInstance);
             }
-            newSpec = ContainerSpec.builder()
-                    .image(spec.getImage())
-                    .working_dir("")
-                    .user(spec.getUser())
-                    .host(spec.getHostName())
-                    .environment(parameterMap)
-                    .secrets(secretSet)
-                    .entrypoint(spec.getEntrypoint())
-                    .args(spec.getCmd())
-                    .volume_mounts(
-                            List.of(
-                                    VolumeMount.builder()
-                                            .source(taskInstance.getTriggerId())
-                                            .target("/" + taskInstance.getTriggerId())
-                                            .build()
-                            )
-                    )
-                    .build();
-        }
-        // 添加RegistryAddress
-        newSpec.setRegistryAddress(globalProperties.getWorker().getRegistry().getAddress());
-        return newSpec;
+        });
+        return events;
     }
 
-    private String createScript(List<String> commands) {
-        var sb = new StringBuilder();
-        sb.append(optionScript);
-        try (var formatter = new Formatter(sb, Locale.ROOT)) {
-            commands.forEach(cmd -> {
-                var escaped = String.format("%s", cmd);
-                escaped = escaped.replace("$", "\\$");
-                if (globalProperties.getTrace()) {
-                    formatter.format(traceScript, escaped, cmd);
-                } else {
-                    formatter.format(noTraceScript, cmd);
-                }
-            });
-        }
-        return sb.toString();
+    /**
+     * 恢复已分发但未被Worker接收的任务到Worker队列
+     */
+    public void recoverTasks() {
+        var taskInstances = this.taskInstanceRepository.findDispatchedWaitingTask();
+        logger.info("恢复待拉取任务数量：{}", taskInstances.size());
+        taskInstances.forEach(taskInstance -> {
+            this.workerLoadTracker.acquire(taskInstance.getWorkerId(), taskInstance.getTriggerId(), taskInstance.getId());
+            this.deferredResultService.dispatch(taskInstance.getWorkerId(), taskInstance);
+        });
+        // 恢复运行中任务的Worker负载
+        this.taskInstanceRepository.findRunningTask().stream()
+                .filter(taskInstance -> taskInstance.getWorkerId() != null)
+                .forEach(taskInstance -> this.workerLoadTracker.acquire(taskInstance.getWorkerId(), taskInstance.getTriggerId(), taskInstance.getId()));
     }
 
-    private Map<String, String> getParameterMap(List<InstanceParameter> instanceParameters, List<Parameter> parameters) {
-        var parameterMap = instanceParameters.stream()
-                .map(instanceParameter -> Map.entry(
-                                instanceParameter.getRef(),
-                                instanceParameter.getParameterId()
-                        )
-                )
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        // 替换实际参数值
-        return this.parameterDomainService.createNoSecParameterMap(parameterMap, parameters);
+    public ContainerSpec getContainerSpec(TaskInstance taskInstance) {
+        return this.containerSpecService.find(taskInstance).getContainerSpec();
     }
 
-    private HashSet<WorkerSecret> getSecretParameterSet(boolean isShellNode, List<InstanceParameter> instanceParameters, List<Parameter> parameters) {
-        var secretParameters = parameters.stream()
-                .filter(parameter -> parameter instanceof SecretParameter)
-                // 过滤非正常语法
-                .filter(parameter -> parameter.getStringValue().split("\\.").length == 2)
-                .collect(Collectors.toList());
-        var secretSet = new HashSet<WorkerSecret>();
-        instanceParameters.forEach(instanceParameter -> secretParameters.stream()
-                .filter(parameter -> parameter.getId().equals(instanceParameter.getParameterId()))
-                .findFirst()
-                .ifPresent(parameter -> {
-                    var kvPairOptional = this.findSecret(parameter);
-                    kvPairOptional.ifPresent(kv -> {
-                        var secretParameter = Parameter.Type.STRING.newParameter(kv.getValue());
-                        secretSet.add(WorkerSecret.builder()
-                                .env(isShellNode ? instanceParameter.getRef().toUpperCase() : "JIANMU_" + instanceParameter.getRef().toUpperCase())
-                                .data(Base64.getEncoder().encodeToString(secretParameter.getStringValue().getBytes(StandardCharsets.UTF_8)))
-                                .mask(true)
-                                .build());
-                    });
-                }));
-        return secretSet;
+    public ContainerSpecService.TaskSpec getTaskSpec(TaskInstance taskInstance) {
+        return this.containerSpecService.find(taskInstance);
     }
 
     private Optional<KVPair> findSecret(Parameter<?> parameter) {
@@ -394,75 +316,6 @@ public class WorkerInternalApplication {
         return this.credentialManager.findByNamespaceNameAndKey(strings[0], strings[1]);
     }
 
-    /**
-     * 设置一些通用参数到环境变量,方便在DSL中使用
-     *
-     * @param worker
-     * @return
-     */
-    private HashMap<String, String> getEnvVariable(Worker worker, String triggerId, String businessId, String defKey) {
-
-        HashMap<String, String> env = new HashMap<>();
-        env.put("JM_RESULT_FILE", "/" + triggerId + "/" + businessId);
-        env.put("JIANMU_SHARE_DIR", "/" + triggerId);
-        env.put("JM_SHARE_DIR", "/" + triggerId);
-
-        env.put("JM_WORKER_ID", worker.getId());
-        env.put("JM_WORKER_TYPE", worker.getType().name());
-        env.put("JM_BUSINESS_ID", businessId);
-        env.put("JM_TRIGGER_ID", triggerId);
-        env.put("JM_DEF_KEY", defKey);
-
-        var triggerEvent = this.triggerEventRepository.findById(triggerId)
-                .orElseThrow(() -> new DataNotFoundException("未找到该触发事件"));
-        env.put("JM_PROJECT_ID", triggerEvent.getProjectId());
-        env.put("JM_WEB_REQUEST_ID", triggerEvent.getWebRequestId());
-        env.put("JM_TRIGGER_TIME", formatTime(triggerEvent.getOccurredTime()));
-        env.put("JM_TRIGGER_TYPE", triggerEvent.getTriggerType());
-
-        // workflow instance 相关参数
-        WorkflowInstance workflowInstance = workflowInstanceRepository
-                .findByTriggerId(triggerId)
-                .orElseThrow(() -> new DataNotFoundException("未找到该workflow instance"));
-
-        env.put("JM_INSTANCE_ID", workflowInstance.getId());
-        env.put("JM_INSTANCE_TRIGGER_TYPE", workflowInstance.getTriggerType());
-        env.put("JM_INSTANCE_WORKFLOW_REF", workflowInstance.getWorkflowRef());
-        env.put("JM_INSTANCE_WORKFLOW_VERSION", workflowInstance.getWorkflowVersion());
-        env.put("JM_INSTANCE_CREATE_TIME", formatTime(workflowInstance.getCreateTime()));
-        env.put("JM_INSTANCE_START_TIME", formatTime(workflowInstance.getStartTime()));
-        env.put("JM_INSTANCE_SUSPENDED_TIME", formatTime(workflowInstance.getSuspendedTime()));
-        env.put("JM_INSTANCE_SERIAL_NO", workflowInstance.getSerialNo() + "");
-        env.put("JM_INSTANCE_RUN_MODE", workflowInstance.getRunMode().name());
-        env.put("JM_INSTANCE_STATUS", workflowInstance.getStatus().name());
-
-        return env;
-    }
-
-    private String formatTime(LocalDateTime time) {
-        return time == null ? "" : time.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-    }
-
-    /**
-     * 添加新的环境变量,以为JIANMU_开头的变量,都复制一份以为JM_开头的变量
-     *
-     * @param parameterMap
-     * @return
-     */
-    private Map<String, String> addFeatureParam(Map<String, String> parameterMap) {
-        var oldParameterMap = new HashMap<>(parameterMap);
-
-        parameterMap.clear();
-        oldParameterMap.forEach((key, value) -> {
-            if (key != null && key.startsWith("JIANMU_")) {
-                parameterMap.put(key.replaceFirst("JIANMU_", "JM_"), value);
-            }
-            parameterMap.put(key, value);
-        });
-
-        return parameterMap;
-    }
-
     @Transactional
     public TaskInstance acceptTask(HttpServletResponse response, String workerId, String businessId, int version) {
         var taskInstance = this.taskInstanceRepository.findByBusinessIdAndVersion(businessId, version)
@@ -504,17 +357,15 @@ public class WorkerInternalApplication {
         }
     }
 
-    public void writeTaskLog(BufferedWriter logWriter, String workerId, String taskInstanceId, String content, Long number, Long timestamp) {
+    public void writeTaskLog(String workerId, String taskInstanceId, String content, Long number, Long timestamp) {
         if (content == null) {
             return;
         }
-        try {
-            logWriter.write(content);
-            logWriter.flush();
-        } catch (IOException e) {
-            logger.error("任务日志写入失败：", e);
-        }
-        this.monitoringFileService.sendLog(taskInstanceId);
+        this.taskLogAppender.append(taskInstanceId, content);
+    }
+
+    public void truncateTaskLog(String taskInstanceId) {
+        this.taskLogAppender.truncate(taskInstanceId);
     }
 
     // 获取k8s Unit
@@ -675,7 +526,7 @@ public class WorkerInternalApplication {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("未找到对应的异步任务实例："));
         envs.put("JM_RESULT_FILE", "/" + asyncTaskInstance.getTriggerId() + "/" + asyncTaskInstance.getId());
-        var map = this.getEnvVariable(worker, asyncTaskInstance.getTriggerId(), asyncTaskInstance.getId(), asyncTaskInstance.getAsyncTaskType());
+        var map = this.containerSpecService.getEnvVariable(worker, asyncTaskInstance.getTriggerId(), asyncTaskInstance.getId(), asyncTaskInstance.getAsyncTaskType());
         envs.putAll(map);
         if (nodeDef.getImage() != null) {
             envs.put("JIANMU_SCRIPT", "JIANMU_SCRIPT");
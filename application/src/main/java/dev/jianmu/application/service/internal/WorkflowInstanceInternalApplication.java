@@ -3,6 +3,8 @@ package dev.jianmu.application.service.internal;
 import dev.jianmu.application.command.WorkflowStartCmd;
 import dev.jianmu.application.exception.DataNotFoundException;
 import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.event.EventLanes;
 import dev.jianmu.project.repository.ProjectLastExecutionRepository;
 import dev.jianmu.project.repository.ProjectRepository;
 import dev.jianmu.trigger.event.TriggerFailedEvent;
@@ -40,6 +42,7 @@ public class WorkflowInstanceInternalApplication {
     private final ProjectRepository projectRepository;
     private final GlobalProperties globalProperties;
     private final ProjectLastExecutionRepository projectLastExecutionRepository;
+    private final ClusterCoordinator clusterCoordinator;
 
     public WorkflowInstanceInternalApplication(
             WorkflowRepository workflowRepository,
@@ -49,7 +52,8 @@ public class WorkflowInstanceInternalApplication {
             ApplicationEventPublisher publisher,
             ProjectRepository projectRepository,
             GlobalProperties globalProperties,
-            ProjectLastExecutionRepository projectLastExecutionRepository
+            ProjectLastExecutionRepository projectLastExecutionRepository,
+            ClusterCoordinator clusterCoordinator
     ) {
         this.workflowRepository = workflowRepository;
         this.workflowInstanceRepository = workflowInstanceRepository;
@@ -59,11 +63,18 @@ public class WorkflowInstanceInternalApplication {
         this.projectRepository = projectRepository;
         this.globalProperties = globalProperties;
         this.projectLastExecutionRepository = projectLastExecutionRepository;
+        this.clusterCoordinator = clusterCoordinator;
+    }
+
+    // 同一项目的流程实例创建与启动在所有节点间互斥，保证serialNo、排队数量检查与启动顺序
+    private void lockWorkflow(String workflowRef) {
+        this.clusterCoordinator.lock("workflow:" + workflowRef);
     }
 
     // 创建流程
     @Transactional
     public void create(WorkflowStartCmd cmd, String projectId) {
+        this.lockWorkflow(cmd.getWorkflowRef());
         Workflow workflow = this.workflowRepository
                 .findByRefAndVersion(cmd.getWorkflowRef(), cmd.getWorkflowVersion())
                 .orElseThrow(() -> new DataNotFoundException("未找到流程定义"));
@@ -96,6 +107,7 @@ public class WorkflowInstanceInternalApplication {
     // 启动流程
     @Transactional
     public void start(String workflowRef) {
+        this.lockWorkflow(workflowRef);
         var project = this.projectRepository.findByWorkflowRef(workflowRef)
                 .orElseThrow(() -> new DataNotFoundException("未找到项目, ref::" + workflowRef));
         var projectLastExecution = this.projectLastExecutionRepository.findByRef(project.getWorkflowRef())
@@ -142,7 +154,7 @@ public class WorkflowInstanceInternalApplication {
     }
 
     // 停止流程
-    @Async
+    @Async(EventLanes.PROGRESS)
     @Transactional
     public void suspend(String instanceId) {
         var workflowInstance = this.workflowInstanceRepository.findById(instanceId)
@@ -171,7 +183,7 @@ public class WorkflowInstanceInternalApplication {
     }
 
     // 终止流程
-    @Async
+    @Async(EventLanes.PROGRESS)
     @Transactional
     public void terminate(String instanceId) {
         var workflowInstance = this.workflowInstanceRepository.findById(instanceId)
@@ -187,7 +199,7 @@ public class WorkflowInstanceInternalApplication {
     }
 
     // 终止流程
-    @Async
+    @Async(EventLanes.PROGRESS)
     @Transactional
     public void terminateByTriggerId(String triggerId) {
         var workflowInstance = this.workflowInstanceRepository.findByTriggerId(triggerId)
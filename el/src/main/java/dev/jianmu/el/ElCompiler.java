@@ -0,0 +1,98 @@
+package dev.jianmu.el;
+
+import dev.jianmu.el.antlr4.JianMuElBaseVisitor;
+import dev.jianmu.el.antlr4.JianMuElParser;
+
+import java.math.BigDecimal;
+
+/**
+ * @class ElCompiler
+ * @description 将语法树编译为表达式节点，字面量与变量名在编译时解析
+ * @author agent
+ * @create 2026-10-17 23:28
+*/
+class ElCompiler extends JianMuElBaseVisitor<ElNode> {
+
+    @Override
+    public ElNode visitEquation(JianMuElParser.EquationContext ctx) {
+        return visit(ctx.expression());
+    }
+
+    @Override
+    public ElNode visitLiteral(JianMuElParser.LiteralContext ctx) {
+        if (null != ctx.BOOL_LITERAL()) {
+            return constant(Boolean.valueOf(ctx.BOOL_LITERAL().getText()));
+        }
+        if (null != ctx.FLOAT_LITERAL()) {
+            return constant(new BigDecimal(ctx.FLOAT_LITERAL().getText()));
+        }
+        // 去掉首尾双引号
+        if (null != ctx.STRING_LITERAL()) {
+            String s = ctx.STRING_LITERAL().getText();
+            s = s.substring(1);
+            s = s.substring(0, s.length() - 1);
+            return constant(s);
+        }
+        if (null != ctx.INT_LITERAL()) {
+            return constant(new BigDecimal(ctx.INT_LITERAL().getText()));
+        }
+        if (null != ctx.NULL_LITERAL()) {
+            return constant(null);
+        }
+        throw new RuntimeException("字面量解析错误: " + ctx.getText());
+    }
+
+    @Override
+    public ElNode visitExpression(JianMuElParser.ExpressionContext ctx) {
+        // 最小词法单元解析
+        if (ctx.expression().size() == 0) {
+            return visit(ctx.primary());
+        }
+        if (ctx.prefix != null) {
+            ElNode value = visit(ctx.expression(0));
+            int flag = ctx.prefix.getType();
+            String op = ctx.prefix.getText();
+            return context -> ElOperator.notOperation(value.eval(context), flag, op);
+        }
+        // 表达式关系等式运算
+        ElNode left = visit(ctx.expression(0));
+        ElNode right = visit(ctx.expression(1));
+        int flag = ctx.bop.getType();
+        String op = ctx.bop.getText();
+        String exp = ctx.getText();
+        return context -> {
+            Object l = left.eval(context);
+            Object r = right.eval(context);
+            return ElOperator.binary(l, r, flag, op, exp);
+        };
+    }
+
+    @Override
+    public ElNode visitPrimary(JianMuElParser.PrimaryContext ctx) {
+        if (null != ctx.literal()) {
+            return visit(ctx.literal());
+        }
+        if (null != ctx.expression()) {
+            return visit(ctx.expression());
+        }
+        if (null != ctx.VARNAME()) {
+            // 去掉头尾的$和{}
+            var name = ctx.VARNAME().getText();
+            name = name.substring(2);
+            var variableName = name.substring(0, name.length() - 1);
+            return context -> context.getVariable(variableName);
+        }
+        if (null != ctx.TEMPLATE()) {
+            var template = ctx.TEMPLATE().getText();
+            template = template.substring(1);
+            var content = template.substring(0, template.length() - 1);
+            var resolver = PlaceholderResolver.getDefaultResolver();
+            return context -> resolver.resolveByContext(content, context);
+        }
+        throw new RuntimeException("Primary解析错误: " + ctx.getText());
+    }
+
+    private static ElNode constant(Object value) {
+        return context -> value;
+    }
+}
@@ -0,0 +1,14 @@
+package dev.jianmu.el;
+
+import dev.jianmu.workflow.el.EvaluationContext;
+
+/**
+ * @class ElNode
+ * @description 编译后的表达式节点，不可变且线程安全
+ * @author agent
+ * @create 2026-10-17 23:28
+*/
+@FunctionalInterface
+interface ElNode {
+    Object eval(EvaluationContext context);
+}
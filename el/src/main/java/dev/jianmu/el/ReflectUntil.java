@@ -1,11 +1,19 @@
 package dev.jianmu.el;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -15,6 +23,7 @@ import java.util.stream.Collectors;
  * @create 2021-02-20 22:05
 */
 public class ReflectUntil {
+    private static final Logger logger = LoggerFactory.getLogger(ReflectUntil.class);
 
     private static final List<Class<?>> convertPriority = new ArrayList<>();
     static {
@@ -62,46 +71,138 @@ public class ReflectUntil {
         }
     }
 
+    /**
+     * 方法调用点缓存，按接收者类型分别缓存，随类型一起回收，
+     * 每个类型内按(方法名，参数类型)缓存解析后的MethodHandle与参数转换，超过上限后不再缓存新的调用点
+     */
+    private static final int maxCallSitesPerClass = 256;
+    private static final ClassValue<Map<CallSiteKey, Optional<CallSite>>> callSites = new ClassValue<>() {
+        @Override
+        protected Map<CallSiteKey, Optional<CallSite>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final class CallSiteKey {
+        private final String name;
+        private final Class<?>[] argTypes;
+        private final int hash;
+
+        private CallSiteKey(String name, Class<?>[] argTypes) {
+            this.name = name;
+            this.argTypes = argTypes;
+            this.hash = 31 * name.hashCode() + Arrays.hashCode(argTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CallSiteKey)) {
+                return false;
+            }
+            var that = (CallSiteKey) o;
+            return this.name.equals(that.name) && Arrays.equals(this.argTypes, that.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class CallSite {
+        private final String name;
+        // (Object, Object[])Object
+        private final MethodHandle handle;
+        // 需要转换的参数位置，-1表示不转换
+        private final int convertIndex;
+        private final Function<BigDecimal, Object> converter;
+
+        private CallSite(Method method, int convertIndex, Function<BigDecimal, Object> converter) {
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            this.handle = toHandle(method);
+            this.convertIndex = convertIndex;
+            this.converter = converter;
+        }
+
+        private Object invoke(Object target, Object[] args) {
+            if (this.convertIndex >= 0) {
+                args[this.convertIndex] = this.converter.apply((BigDecimal) args[this.convertIndex]);
+            }
+            try {
+                return this.handle.invokeExact(target, args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                logger.warn("方法{}调用失败", this.name, e);
+                throw new RuntimeException("方法: " + this.name + " 调用失败", e);
+            }
+        }
+    }
+
+    private static final Map<Class<?>, Function<BigDecimal, Object>> converters = Map.of(
+            Integer.class, BigDecimal::intValue,
+            Long.class, BigDecimal::longValue,
+            Float.class, BigDecimal::floatValue,
+            Double.class, BigDecimal::doubleValue
+    );
+
     // TODO 当前的类型转换每次只转换一个参数类型，碰到多个参数类型需要转换的时候会有问题，后续需要反向匹配
     public static Object invokeMethod(final Object target, final String name, List<Object> args) {
         Class<?> clazz = target.getClass();
+        Object[] argArray = args.toArray();
+        Class<?>[] argTypes = ReflectUntil.getArgsType(argArray);
+        var classCallSites = callSites.get(clazz);
+        var key = new CallSiteKey(name, argTypes);
+        var callSite = classCallSites.get(key);
+        if (callSite == null) {
+            callSite = resolveCallSite(clazz, name, argArray, argTypes);
+            if (classCallSites.size() < maxCallSitesPerClass) {
+                classCallSites.putIfAbsent(key, callSite);
+            }
+        }
+        return callSite
+                .orElseThrow(() -> new RuntimeException("对象: " + target + " 不支持方法： " + name))
+                .invoke(target, argArray);
+    }
 
+    private static Optional<CallSite> resolveCallSite(Class<?> clazz, String name, Object[] args, Class<?>[] argTypes) {
         // 参数类型匹配BigDecimal的情况
-        Class<?>[] argTypes = ReflectUntil.getArgsType(args.toArray());
         Method method = ReflectUntil.getMatchingMethod(clazz, name, argTypes);
         if (null != method) {
-            return invokeMethod(method, target, args.toArray());
+            return Optional.of(new CallSite(method, -1, null));
         }
         // 参数类型不匹配的情况，按照convertPriority里定义的顺序进行转换
         for (final Class<?> cls : convertPriority) {
-            for (int i = 0; i < args.size(); i++) {
-                Object a = args.get(i);
-                List<Object> newArgs = new ArrayList<>(args);
-                if (a instanceof BigDecimal && cls.equals(Integer.class)) {
-                    Integer newObj = ((BigDecimal) a).intValue();
-                    newArgs.set(i, newObj);
-                }
-                if (a instanceof BigDecimal && cls.equals(Long.class)) {
-                    Long newObj = ((BigDecimal) a).longValue();
-                    newArgs.set(i, newObj);
-                }
-                if (a instanceof BigDecimal && cls.equals(Float.class)) {
-                    Float newObj = ((BigDecimal) a).floatValue();
-                    newArgs.set(i, newObj);
-                }
-                if (a instanceof BigDecimal && cls.equals(Double.class)) {
-                    Double newObj = ((BigDecimal) a).doubleValue();
-                    newArgs.set(i, newObj);
+            for (int i = 0; i < args.length; i++) {
+                Class<?>[] newArgTypes = argTypes.clone();
+                if (args[i] instanceof BigDecimal) {
+                    newArgTypes[i] = cls;
                 }
                 // 尝试用转换后的类型获取method
-                argTypes = ReflectUntil.getArgsType(newArgs.toArray());
-                method = ReflectUntil.getMatchingMethod(clazz, name, argTypes);
+                method = ReflectUntil.getMatchingMethod(clazz, name, newArgTypes);
                 if (null != method) {
-                    return invokeMethod(method, target, newArgs.toArray());
+                    return Optional.of(new CallSite(method, args[i] instanceof BigDecimal ? i : -1, converters.get(cls)));
                 }
             }
         }
-        throw new RuntimeException("对象: " + target + " 不支持方法： " + name);
+        return Optional.empty();
+    }
+
+    private static MethodHandle toHandle(Method method) {
+        try {
+            method.setAccessible(true);
+            var handle = MethodHandles.lookup().unreflect(method);
+            handle = handle.asType(handle.type().generic());
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asSpreader(Object[].class, method.getParameterCount());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("方法: " + method.getName() + " 无法访问");
+        }
     }
 
     public static Object invokeMethod(Method method, Object target, Object... args) {
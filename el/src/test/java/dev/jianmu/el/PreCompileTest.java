@@ -5,6 +5,11 @@ import dev.jianmu.el.ElContext;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 /**
  * @class PreCompileTest
  * @description 表达式预编译测试
@@ -22,4 +27,15 @@ public class PreCompileTest {
         Object res = exp.eval(this.context);
         System.out.println(res);
     }
+
+    @Test
+    @DisplayName("预编译表达式多上下文复用测试")
+    void reuseTest() {
+        El exp = new El("${a} * 10 + 1");
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            var context = new ElContext();
+            context.add("a", i);
+            assertEquals(BigDecimal.valueOf(i * 10L + 1), exp.eval(context));
+        });
+    }
 }
@@ -0,0 +1,52 @@
+package dev.jianmu.el;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class ReflectUntilTest
+ * @description 方法调用测试
+ * @author agent
+ * @create 2026-10-17 23:30
+*/
+@DisplayName("方法调用测试")
+public class ReflectUntilTest {
+
+    @Test
+    @DisplayName("字符串方法调用测试")
+    public void stringTest() {
+        assertEquals(true, ReflectUntil.invokeMethod("jianmu", "startsWith", List.of("jian")));
+        assertEquals(true, ReflectUntil.invokeMethod("jianmu", "contains", List.of("mu")));
+        assertArrayEquals(new String[]{"a", "b"}, (String[]) ReflectUntil.invokeMethod("a,b", "split", List.of(",")));
+    }
+
+    @Test
+    @DisplayName("数字参数转换测试")
+    public void convertTest() {
+        // 重复调用使用缓存的调用点
+        for (int i = 0; i < 3; i++) {
+            assertEquals("nmu", ReflectUntil.invokeMethod("jianmu", "substring", List.of(new BigDecimal(3))));
+        }
+        var obj = new SampleObj("jianmu", 1);
+        assertNull(ReflectUntil.invokeMethod(obj, "setAge", List.of(new BigDecimal(18))));
+        assertEquals(18, ReflectUntil.invokeMethod(obj, "getAge", List.of()));
+    }
+
+    @Test
+    @DisplayName("不支持的方法测试")
+    public void unsupportedTest() {
+        assertThrows(RuntimeException.class, () -> ReflectUntil.invokeMethod("jianmu", "notExist", List.of()));
+        assertThrows(RuntimeException.class, () -> ReflectUntil.invokeMethod("jianmu", "notExist", List.of()));
+    }
+
+    @Test
+    @DisplayName("方法异常抛出测试")
+    public void exceptionTest() {
+        assertThrows(StringIndexOutOfBoundsException.class, () -> ReflectUntil.invokeMethod("jianmu", "substring", List.of(new BigDecimal(10))));
+    }
+}
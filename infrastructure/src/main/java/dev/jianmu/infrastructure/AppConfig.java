@@ -1,5 +1,6 @@
 package dev.jianmu.infrastructure;
 
+import dev.jianmu.infrastructure.event.EventLaneExecutor;
 import dev.jianmu.task.service.InstanceDomainService;
 import dev.jianmu.workflow.service.ParameterDomainService;
 import dev.jianmu.workflow.service.WorkflowInstanceDomainService;
@@ -17,7 +18,6 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.lang.reflect.Method;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @class AppConfig
@@ -54,21 +54,9 @@ public class AppConfig implements AsyncConfigurer, WebMvcConfigurer {
     @Bean
     @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        //核心线程数10：线程池创建时候初始化的线程数
-        executor.setCorePoolSize(10);
-        //最大线程数20：线程池最大的线程数，只有在缓冲队列满了之后才会申请超过核心线程数的线程
-        executor.setMaxPoolSize(20);
-        //缓冲队列200：用来缓冲执行任务的队列
-        executor.setQueueCapacity(200);
-        //允许线程的空闲时间60秒：当超过了核心线程出之外的线程在空闲时间到达之后会被销毁
-        executor.setKeepAliveSeconds(60);
-        //线程池对拒绝任务的处理策略：这里采用了CallerRunsPolicy策略，
-        // 当线程池没有处理能力的时候，该策略会直接在 execute 方法的调用线程中运行被拒绝的任务；
-        // 如果执行程序已关闭，则会丢弃该任务
-        executor.setThreadNamePrefix("asyncTask-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        return executor;
+        // 未指定事件通道的@Async方法使用默认执行器，流程事件见EventLanes
+        // 队列已满时放入容量2000的溢出队列，溢出队列也已满时拒绝，不阻塞提交线程
+        return new EventLaneExecutor("asyncTask", 10, 20, 200, 2000);
     }
 
     @Override
@@ -1,6 +1,8 @@
 package dev.jianmu.infrastructure;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
@@ -8,6 +10,8 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * @author Ethan Liu
@@ -25,6 +29,11 @@ public class GlobalProperties {
     private Boolean authMode = true;
     private Worker worker = new Worker();
     private TriggerQueue triggerQueue = new TriggerQueue();
+    private ParameterStore parameter = new ParameterStore();
+    private EventLanes eventLanes = new EventLanes();
+    private Cluster cluster = new Cluster();
+    private Schedule schedule = new Schedule();
+    private Webhook webhook = new Webhook();
 
     @Data
     @Component
@@ -41,6 +50,18 @@ public class GlobalProperties {
             private Long max = 9999L;
             @NotNull
             private Boolean autoClean = false;
+            // 每批清理的流程实例数量
+            @NotNull
+            private Integer batchSize = 200;
+            // 两批清理之间的暂停时间，单位毫秒
+            @NotNull
+            private Long batchPause = 500L;
+            // 启动后首次清理的延迟时间，单位毫秒
+            @NotNull
+            private Long cleanDelay = 60000L;
+            // 清理任务执行间隔，单位毫秒
+            @NotNull
+            private Long cleanInterval = 3600000L;
         }
     }
 
@@ -50,6 +71,10 @@ public class GlobalProperties {
     public static class Worker {
         @NotBlank
         private String secret;
+        // Worker ping间隔，单位毫秒
+        private Long pingInterval = 10000L;
+        // 连续未收到ping的次数超过该值时移除Worker
+        private Integer maxMissedPings = 6;
         private Registry registry = new Registry();
         private K8s k8s = new K8s();
 
@@ -84,4 +109,95 @@ public class GlobalProperties {
         @NotNull
         public Integer max = 5;
     }
+
+    @Data
+    @Component
+    @Validated
+    public static class ParameterStore {
+        // 参数存储模式：uuid、content(按类型与值去重)
+        private String store = "uuid";
+        // content模式下缓存的参数数量
+        private Integer cacheSize = 4096;
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class EventLanes {
+        // 进行中流程的推进事件：任务成功、节点成功、流程结束等
+        private Lane progress = new Lane(8, 16, 1000, 10000);
+        // 节点与任务的激活事件
+        private Lane activation = new Lane(8, 16, 1000, 10000);
+        // 新触发的流程，队列已满时直接拒绝
+        private Lane trigger = new Lane(4, 8, 200, 0);
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class Cluster {
+        // 集群协调方式：local(单节点)、db(基于数据库)。
+        // 进程内缓存不做跨节点失效：流程定义与任务容器规格按不可变版本缓存，各节点可以共用；
+        // 表达式上下文快照在db模式下不保留，每次从数据库加载；
+        // 节点定义缓存在db模式下按localCacheTtl过期，凭证缓存按credential.cache.ttl过期，其他节点的修改在过期后可见
+        private String coordinator = "local";
+        // 节点ID，默认每次启动随机生成
+        private String nodeId = UUID.randomUUID().toString().replace("-", "");
+        // 查询其他节点发布的Worker信号的间隔，单位毫秒
+        private Long signalInterval = 1000L;
+        // 未被领取的终止信号保留时间，单位毫秒
+        private Long signalRetention = 600000L;
+        // db模式下进程内节点定义缓存的有效时间，单位毫秒
+        private Long localCacheTtl = 60000L;
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class Schedule {
+        // 错过触发时间(停机或线程不足)的处理策略：fire-once(立即补触发一次)、fire-all(补触发全部错过的次数)、skip(等待下一次触发)
+        private String misfirePolicy = "fire-once";
+    }
+
+    @Data
+    @Component
+    @Validated
+    public static class Webhook {
+        // 处理线程池，队列已满时请求留在收件箱中等待下次领取
+        private Lane executor = new Lane(4, 8, 200);
+        // 领取收件箱的间隔，单位毫秒
+        private Long pollInterval = 1000L;
+        // 每次最多领取的请求数
+        private Integer batchSize = 50;
+        // 领取后超过该时间未完成(节点停机)时可被重新领取，单位毫秒
+        private Long claimTimeout = 300000L;
+        // 最大领取次数，超过后标记为失败不再重试
+        private Integer maxAttempts = 5;
+        // 已处理请求的去重保留时间，单位毫秒
+        private Long dedupeRetention = 86400000L;
+        // 用于识别重复投递的请求头，按顺序取第一个存在的值
+        private List<String> deliveryHeaders = List.of(
+                "X-GitHub-Delivery",
+                "X-Gitlab-Event-UUID",
+                "X-Gitea-Delivery",
+                "X-Gogs-Delivery",
+                "X-Request-UUID",
+                "Idempotency-Key"
+        );
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lane {
+        private Integer corePoolSize;
+        private Integer maxPoolSize;
+        private Integer queueCapacity;
+        // 事件通道队列已满时外部线程提交的任务进入溢出队列，溢出队列也已满时拒绝，为0时直接拒绝
+        private Integer spillCapacity = 0;
+
+        public Lane(Integer corePoolSize, Integer maxPoolSize, Integer queueCapacity) {
+            this(corePoolSize, maxPoolSize, queueCapacity, 0);
+        }
+    }
 }
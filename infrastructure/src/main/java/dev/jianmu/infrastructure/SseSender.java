@@ -0,0 +1,141 @@
+package dev.jianmu.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author agent
+ * @class SseSender
+ * @description SSE推送线程池，任务直接交给空闲线程不排队，线程全部占用时拒绝，
+ * 单次发送超过超时时间仍未返回的连接被断开，不再占用推送线程
+ * @create 2026-10-18 01:07
+ */
+@Slf4j
+@Component
+public class SseSender {
+    private static final int corePoolSize = 4;
+    private static final int maxPoolSize = 64;
+    private static final long sendTimeout = 10000L;
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Set<Connection> sending = ConcurrentHashMap.newKeySet();
+
+    public SseSender() {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(corePoolSize);
+        this.executor.setMaxPoolSize(maxPoolSize);
+        this.executor.setQueueCapacity(0);
+        this.executor.setThreadNamePrefix("sse-sender-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    public Connection connect(SseEmitter sseEmitter) {
+        return new Connection(sseEmitter);
+    }
+
+    /**
+     * 提交推送任务
+     *
+     * @return 推送线程全部占用时返回false
+     */
+    public boolean execute(Runnable task) {
+        try {
+            this.executor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 断开发送超时的连接，并中断阻塞在写操作上的推送线程
+     */
+    @Scheduled(fixedDelay = 1000L, initialDelay = 1000L)
+    public void expire() {
+        var deadline = System.currentTimeMillis() - sendTimeout;
+        this.sending.forEach(connection -> connection.expire(deadline));
+    }
+
+    public class Connection {
+        private final SseEmitter sseEmitter;
+        private Thread sendingThread;
+        private long sendStartedAt;
+        private volatile boolean closed;
+
+        private Connection(SseEmitter sseEmitter) {
+            this.sseEmitter = sseEmitter;
+        }
+
+        /**
+         * 发送事件，发送失败或超时时断开连接
+         *
+         * @return 连接是否仍然可用
+         */
+        public boolean send(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (this.closed) {
+                    return false;
+                }
+                this.sendingThread = Thread.currentThread();
+                this.sendStartedAt = System.currentTimeMillis();
+            }
+            sending.add(this);
+            try {
+                this.sseEmitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                this.closed = true;
+                this.sseEmitter.completeWithError(e);
+            } finally {
+                sending.remove(this);
+                synchronized (this) {
+                    this.sendingThread = null;
+                    if (this.closed) {
+                        // 清除超时断开时设置的中断标记
+                        Thread.interrupted();
+                    }
+                }
+            }
+            return !this.closed;
+        }
+
+        /**
+         * 连接已完成、超时或出错时调用，之后不再发送
+         */
+        public void markClosed() {
+            this.closed = true;
+        }
+
+        public void close() {
+            this.closed = true;
+            this.sseEmitter.complete();
+        }
+
+        public boolean isClosed() {
+            return this.closed;
+        }
+
+        private synchronized void expire(long deadline) {
+            if (this.closed || this.sendingThread == null || this.sendStartedAt > deadline) {
+                return;
+            }
+            log.debug("sse send timeout, disconnect");
+            this.closed = true;
+            this.sendingThread.interrupt();
+            this.sseEmitter.completeWithError(new IOException("推送超时"));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dev.jianmu.infrastructure.cluster;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author agent
+ * @class ClusterCoordinator
+ * @description 多节点部署时的协调接口，提供事务级互斥锁、租约以及跨节点的Worker信号
+ * @create 2026-10-18 00:14
+ */
+public interface ClusterCoordinator {
+    /**
+     * 在当前事务中获取Key对应的互斥锁，事务结束时释放
+     *
+     * @param key
+     */
+    void lock(String key);
+
+    /**
+     * 获取或续期租约
+     *
+     * @param name
+     * @param ttl
+     * @return 当前节点是否持有租约
+     */
+    boolean tryAcquireLease(String name, Duration ttl);
+
+    /**
+     * 发布Worker信号，已存在时清除领取状态，可以再次被领取
+     *
+     * @param signal
+     */
+    void publish(WorkerSignal signal);
+
+    /**
+     * 查询发送给指定Worker的信号
+     *
+     * @param workerIds
+     * @return
+     */
+    List<WorkerSignal> findSignals(Collection<String> workerIds);
+
+    /**
+     * 领取信号，同一信号只有一个节点能够领取成功
+     *
+     * @param signalId
+     * @return 是否领取成功
+     */
+    boolean claim(String signalId);
+
+    /**
+     * 删除任务相关的所有信号
+     *
+     * @param businessId
+     */
+    void removeSignals(String businessId);
+}
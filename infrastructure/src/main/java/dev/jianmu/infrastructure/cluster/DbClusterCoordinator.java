@@ -0,0 +1,129 @@
+package dev.jianmu.infrastructure.cluster;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.mapper.cluster.ClusterLeaseMapper;
+import dev.jianmu.infrastructure.mapper.cluster.WorkerSignalMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author agent
+ * @class DbClusterCoordinator
+ * @description 基于数据库的集群协调，锁为租约表中的行锁，随事务提交或回滚释放，
+ * Worker信号以带条件的UPDATE领取，只有一个节点能将未领取的信号更新成功。
+ * 进程内缓存不做跨节点失效，集群部署时的处理见GlobalProperties.Cluster
+ * @create 2026-10-18 00:14
+ */
+@Component
+@ConditionalOnProperty(prefix = "jianmu.cluster", name = "coordinator", havingValue = "db")
+public class DbClusterCoordinator implements ClusterCoordinator {
+    private static final String SIGNAL_CLEANER = "worker-signal-cleaner";
+
+    private final ClusterLeaseMapper clusterLeaseMapper;
+    private final WorkerSignalMapper workerSignalMapper;
+    private final GlobalProperties globalProperties;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public DbClusterCoordinator(
+            ClusterLeaseMapper clusterLeaseMapper,
+            WorkerSignalMapper workerSignalMapper,
+            GlobalProperties globalProperties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.clusterLeaseMapper = clusterLeaseMapper;
+        this.workerSignalMapper = workerSignalMapper;
+        this.globalProperties = globalProperties;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void lock(String key) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("获取锁需要在事务中执行: " + key);
+        }
+        if (this.clusterLeaseMapper.lock(key).isPresent()) {
+            return;
+        }
+        // 锁记录在独立事务中创建，避免并发插入时在外部事务中持有共享锁造成死锁
+        try {
+            this.newTransactionTemplate.executeWithoutResult(status -> this.clusterLeaseMapper.add(key, null, null));
+        } catch (DuplicateKeyException ignored) {
+        }
+        this.clusterLeaseMapper.lock(key)
+                .orElseThrow(() -> new RuntimeException("获取集群锁失败: " + key));
+    }
+
+    @Override
+    public boolean tryAcquireLease(String name, Duration ttl) {
+        var owner = this.globalProperties.getCluster().getNodeId();
+        var now = LocalDateTime.now();
+        var expireTime = now.plus(ttl);
+        return this.newTransactionTemplate.execute(status -> {
+            if (this.clusterLeaseMapper.renew(name, owner, now, expireTime) > 0) {
+                return true;
+            }
+            try {
+                this.clusterLeaseMapper.add(name, owner, expireTime);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void publish(WorkerSignal signal) {
+        try {
+            this.workerSignalMapper.add(signal);
+        } catch (DuplicateKeyException e) {
+            // 任务重新入队时再次发布，其他节点可以重新领取
+            this.workerSignalMapper.reset(signal);
+        }
+    }
+
+    @Override
+    public List<WorkerSignal> findSignals(Collection<String> workerIds) {
+        if (workerIds.isEmpty()) {
+            return List.of();
+        }
+        return this.workerSignalMapper.findByWorkerIds(workerIds);
+    }
+
+    @Override
+    public boolean claim(String signalId) {
+        var owner = this.globalProperties.getCluster().getNodeId();
+        return this.workerSignalMapper.claim(signalId, owner, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    public void removeSignals(String businessId) {
+        this.workerSignalMapper.deleteByBusinessId(businessId);
+    }
+
+    /**
+     * 清理没有节点领取的终止信号，Worker已结束任务时终止信号不会再被领取，
+     * 已领取的信号只用于阻止重复领取，领取后超过一个清理周期即删除
+     */
+    @Scheduled(fixedDelay = 60000L, initialDelay = 60000L)
+    public void purgeSignals() {
+        var cluster = this.globalProperties.getCluster();
+        if (!this.tryAcquireLease(SIGNAL_CLEANER, Duration.ofMinutes(2))) {
+            return;
+        }
+        this.workerSignalMapper.deleteByTypeAndCreatedTimeBefore(WorkerSignal.Type.TERMINATE,
+                LocalDateTime.now().minus(Duration.ofMillis(cluster.getSignalRetention())));
+        this.workerSignalMapper.deleteByClaimedTimeBefore(LocalDateTime.now().minusMinutes(1));
+    }
+}
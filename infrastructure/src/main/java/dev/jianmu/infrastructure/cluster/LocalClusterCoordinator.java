@@ -0,0 +1,76 @@
+package dev.jianmu.infrastructure.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author agent
+ * @class LocalClusterCoordinator
+ * @description 单节点部署时使用，锁为进程内锁，租约始终由当前节点持有，不发布跨节点信号
+ * @create 2026-10-18 00:14
+ */
+@Component
+@ConditionalOnProperty(prefix = "jianmu.cluster", name = "coordinator", havingValue = "local", matchIfMissing = true)
+public class LocalClusterCoordinator implements ClusterCoordinator {
+    private final Map<String, KeyLock> locks = new ConcurrentHashMap<>();
+
+    private static class KeyLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+
+    @Override
+    public void lock(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("获取锁需要在事务中执行: " + key);
+        }
+        var keyLock = this.locks.compute(key, (k, l) -> {
+            if (l == null) {
+                l = new KeyLock();
+            }
+            l.holders++;
+            return l;
+        });
+        keyLock.lock.lock();
+        // 事务提交或回滚后释放，没有线程持有时移除对应的锁
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                keyLock.lock.unlock();
+                locks.computeIfPresent(key, (k, l) -> --l.holders == 0 ? null : l);
+            }
+        });
+    }
+
+    @Override
+    public boolean tryAcquireLease(String name, Duration ttl) {
+        return true;
+    }
+
+    @Override
+    public void publish(WorkerSignal signal) {
+    }
+
+    @Override
+    public List<WorkerSignal> findSignals(Collection<String> workerIds) {
+        return List.of();
+    }
+
+    @Override
+    public boolean claim(String signalId) {
+        return true;
+    }
+
+    @Override
+    public void removeSignals(String businessId) {
+    }
+}
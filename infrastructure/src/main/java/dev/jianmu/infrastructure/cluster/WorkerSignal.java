@@ -0,0 +1,33 @@
+package dev.jianmu.infrastructure.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author agent
+ * @class WorkerSignal
+ * @description 跨节点Worker信号，Worker的拉取或监听请求可能挂起在其他节点上
+ * @create 2026-10-18 00:14
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WorkerSignal {
+    public enum Type {
+        // 任务已分发，等待Worker拉取，ID为任务实例ID
+        DISPATCH,
+        // 终止任务
+        TERMINATE
+    }
+
+    private String id;
+    private Type type;
+    private String workerId;
+    private String businessId;
+    private LocalDateTime createdTime;
+}
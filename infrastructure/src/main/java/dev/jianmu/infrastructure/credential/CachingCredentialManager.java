@@ -0,0 +1,233 @@
+package dev.jianmu.infrastructure.credential;
+
+import dev.jianmu.secret.aggregate.CredentialManager;
+import dev.jianmu.secret.aggregate.KVPair;
+import dev.jianmu.secret.aggregate.Namespace;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * @author agent
+ * @class CachingCredentialManager
+ * @description 带缓存的凭证管理器，按命名空间整体预取密钥，缓存中的值使用进程内随机密钥加密保存。
+ * 每次清除缓存时递增版本号，加载期间发生过清除的结果不放入缓存，避免旧值覆盖修改
+ * @create 2026-10-17 23:43
+ */
+@Slf4j
+public class CachingCredentialManager implements CredentialManager {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private final CredentialManager delegate;
+    private final long ttlMillis;
+    private final SecretKey secretKey;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, CachedNamespace> namespaces;
+    // 缓存版本号，每次清除时递增
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    private static class CachedNamespace {
+        private final long expireAt;
+        // key -> 加密后的value
+        private final Map<String, byte[]> values;
+
+        private CachedNamespace(long expireAt, Map<String, byte[]> values) {
+            this.expireAt = expireAt;
+            this.values = values;
+        }
+    }
+
+    public CachingCredentialManager(CredentialManager delegate, CredentialProperties.CacheProperties cacheProperties) {
+        this.delegate = delegate;
+        this.ttlMillis = cacheProperties.getTtl() * 1000;
+        var maxNamespaces = cacheProperties.getMaxNamespaces();
+        this.namespaces = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedNamespace> eldest) {
+                return this.size() > maxNamespaces;
+            }
+        });
+        try {
+            var keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            this.secretKey = keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("凭证缓存密钥创建失败", e);
+        }
+    }
+
+    @Override
+    public String getType() {
+        return this.delegate.getType();
+    }
+
+    @Override
+    public void createNamespace(Namespace namespace) {
+        this.delegate.createNamespace(namespace);
+        this.evict(namespace.getName());
+    }
+
+    @Override
+    public void deleteNamespace(String name) {
+        this.delegate.deleteNamespace(name);
+        this.evict(name);
+    }
+
+    @Override
+    public void createKVPair(KVPair kvPair) {
+        this.delegate.createKVPair(kvPair);
+        this.evict(kvPair.getNamespaceName());
+    }
+
+    @Override
+    public void deleteKVPair(String namespaceName, String key) {
+        this.delegate.deleteKVPair(namespaceName, key);
+        this.evict(namespaceName);
+    }
+
+    @Override
+    public Optional<Namespace> findNamespaceByName(String name) {
+        return this.delegate.findNamespaceByName(name);
+    }
+
+    @Override
+    public List<KVPair> findAllKVByNamespaceName(String namespaceName) {
+        var cached = this.findCached(namespaceName);
+        if (cached == null) {
+            cached = this.load(namespaceName);
+        }
+        var kvPairs = new ArrayList<KVPair>();
+        cached.values.forEach((key, value) -> this.toKVPair(namespaceName, key, value).ifPresent(kvPairs::add));
+        return kvPairs;
+    }
+
+    @Override
+    public List<Namespace> findAllNamespace() {
+        return this.delegate.findAllNamespace();
+    }
+
+    @Override
+    public Optional<KVPair> findByNamespaceNameAndKey(String namespaceName, String key) {
+        var cached = this.findCached(namespaceName);
+        if (cached != null) {
+            return this.toKVPair(namespaceName, key, cached.values.get(key));
+        }
+        // 未命中时预取整个命名空间，同一命名空间的其他密钥不再访问凭证存储
+        CachedNamespace loaded;
+        try {
+            loaded = this.load(namespaceName);
+        } catch (Exception e) {
+            log.warn("凭证命名空间{}预取失败: {}", namespaceName, e.getMessage());
+            return this.delegate.findByNamespaceNameAndKey(namespaceName, key);
+        }
+        return this.toKVPair(namespaceName, key, loaded.values.get(key));
+    }
+
+    /**
+     * 清除命名空间缓存
+     */
+    public void evict(String namespaceName) {
+        synchronized (this.namespaces) {
+            this.generation.incrementAndGet();
+            this.namespaces.remove(namespaceName);
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getLoadCount() {
+        return this.loads.sum();
+    }
+
+    public int getSize() {
+        return this.namespaces.size();
+    }
+
+    private CachedNamespace findCached(String namespaceName) {
+        var cached = this.namespaces.get(namespaceName);
+        if (cached != null && cached.expireAt > System.currentTimeMillis()) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    private CachedNamespace load(String namespaceName) {
+        var loadedGeneration = this.generation.get();
+        var kvPairs = this.delegate.findAllKVByNamespaceName(namespaceName);
+        var values = kvPairs.stream()
+                .collect(Collectors.toMap(KVPair::getKey, kvPair -> this.encrypt(kvPair.getValue()), (a, b) -> a, LinkedHashMap::new));
+        var cached = new CachedNamespace(System.currentTimeMillis() + this.ttlMillis, values);
+        synchronized (this.namespaces) {
+            // 加载期间缓存被清除时，结果可能早于修改，只返回给本次调用
+            if (this.generation.get() == loadedGeneration) {
+                this.namespaces.put(namespaceName, cached);
+            }
+        }
+        this.loads.increment();
+        log.debug("凭证缓存命中: {} 未命中: {} 加载: {}", this.hits.sum(), this.misses.sum(), this.loads.sum());
+        return cached;
+    }
+
+    private Optional<KVPair> toKVPair(String namespaceName, String key, byte[] value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        return Optional.of(KVPair.Builder.aKVPair()
+                .namespaceName(namespaceName)
+                .key(key)
+                .value(this.decrypt(value))
+                .build());
+    }
+
+    private byte[] encrypt(String value) {
+        try {
+            var iv = new byte[IV_LENGTH];
+            this.random.nextBytes(iv);
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, this.secretKey, new GCMParameterSpec(TAG_LENGTH, iv));
+            var encrypted = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.allocate(IV_LENGTH + encrypted.length)
+                    .put(iv)
+                    .put(encrypted)
+                    .array();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("凭证缓存加密失败", e);
+        }
+    }
+
+    private String decrypt(byte[] value) {
+        try {
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, this.secretKey, new GCMParameterSpec(TAG_LENGTH, value, 0, IV_LENGTH));
+            var decrypted = cipher.doFinal(value, IV_LENGTH, value.length - IV_LENGTH);
+            return new String(decrypted, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("凭证缓存解密失败", e);
+        }
+    }
+}
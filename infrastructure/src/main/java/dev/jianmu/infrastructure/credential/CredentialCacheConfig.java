@@ -0,0 +1,55 @@
+package dev.jianmu.infrastructure.credential;
+
+import dev.jianmu.secret.aggregate.CredentialManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * @class CredentialCacheConfig
+ * @description 为凭证管理器增加缓存，并定期输出缓存命中统计
+ * @author agent
+ * @create 2026-10-17 23:43
+*/
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "credential.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CredentialCacheConfig {
+    private final ObjectProvider<CredentialManager> credentialManagers;
+
+    public CredentialCacheConfig(ObjectProvider<CredentialManager> credentialManagers) {
+        this.credentialManagers = credentialManagers;
+    }
+
+    @Bean
+    public static BeanPostProcessor credentialCachePostProcessor(ObjectProvider<CredentialProperties> credentialProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CredentialManager && !(bean instanceof CachingCredentialManager)) {
+                    return new CachingCredentialManager((CredentialManager) bean, credentialProperties.getObject().getCache());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Scheduled(fixedDelay = 60000L, initialDelay = 60000L)
+    public void report() {
+        this.credentialManagers.stream()
+                .filter(manager -> manager instanceof CachingCredentialManager)
+                .map(manager -> (CachingCredentialManager) manager)
+                .filter(manager -> manager.getHitCount() + manager.getMissCount() > 0)
+                .forEach(manager -> log.info("凭证缓存{} 命中: {} 未命中: {} 加载: {} 缓存命名空间: {}",
+                        manager.getType(),
+                        manager.getHitCount(),
+                        manager.getMissCount(),
+                        manager.getLoadCount(),
+                        manager.getSize()
+                ));
+    }
+}
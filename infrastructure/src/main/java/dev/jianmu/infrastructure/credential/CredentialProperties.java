@@ -24,6 +24,18 @@ public class CredentialProperties {
     @NotBlank
     private String type;
     private VaultProperties vault;
+    private CacheProperties cache = new CacheProperties();
+
+    @Data
+    @Component
+    @Validated
+    public static class CacheProperties {
+        private boolean enabled = true;
+        // 缓存有效期，单位秒
+        private long ttl = 60L;
+        // 最多缓存的命名空间数量
+        private int maxNamespaces = 256;
+    }
 
     @Data
     @Component
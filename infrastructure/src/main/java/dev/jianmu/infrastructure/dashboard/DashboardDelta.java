@@ -0,0 +1,46 @@
+package dev.jianmu.infrastructure.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author agent
+ * @class DashboardDelta
+ * @description 推送给看板的状态变化，只包含实例标识与最新事件，客户端按需查询详情
+ * @create 2026-10-18 00:40
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DashboardDelta {
+    public enum Kind {
+        WORKFLOW_INSTANCE,
+        ASYNC_TASK_INSTANCE,
+        TASK_INSTANCE
+    }
+
+    private Kind kind;
+    // 实例ID
+    private String id;
+    private String triggerId;
+    private String workflowRef;
+    // 节点唯一引用名称
+    private String nodeRef;
+    // 任务实例的业务ID
+    private String businessId;
+    // 事件名称
+    private String event;
+    private LocalDateTime occurredTime;
+
+    /**
+     * 同一实例的变化合并为最新一条
+     */
+    public String coalesceKey() {
+        return this.kind + ":" + this.id;
+    }
+}
@@ -0,0 +1,177 @@
+package dev.jianmu.infrastructure.dashboard;
+
+import dev.jianmu.infrastructure.SseSender;
+import dev.jianmu.infrastructure.SseTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author agent
+ * @class DashboardHub
+ * @description 看板事件广播中心，按频道(触发器、项目组)推送状态变化。
+ * 每个订阅者的待推送变化按实例合并，消费过慢时只保留每个实例的最新状态，
+ * 待推送实例过多或推送线程不足时断开该订阅者，推送超时的连接由SseSender断开
+ * @create 2026-10-18 00:40
+ */
+@Slf4j
+@Component
+public class DashboardHub {
+    private static final int maxPendingDeltas = 1024;
+
+    private final SseTemplate template;
+    private final SseSender sender;
+    private final Map<String, List<Subscriber>> channels = new ConcurrentHashMap<>();
+
+    public DashboardHub(SseTemplate template, SseSender sender) {
+        this.template = template;
+        this.sender = sender;
+    }
+
+    public SseEmitter subscribe(String channel) {
+        var sseEmitter = this.template.newSseEmitter();
+        var subscriber = new Subscriber(this.sender.connect(sseEmitter));
+        this.channels.compute(channel, (k, subscribers) -> {
+            if (subscribers == null) {
+                subscribers = new CopyOnWriteArrayList<>();
+            }
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        Runnable remove = () -> this.unsubscribe(channel, subscriber);
+        sseEmitter.onCompletion(remove);
+        sseEmitter.onTimeout(remove);
+        sseEmitter.onError(throwable -> remove.run());
+        return sseEmitter;
+    }
+
+    private void unsubscribe(String channel, Subscriber subscriber) {
+        subscriber.connection.markClosed();
+        this.channels.computeIfPresent(channel, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    public boolean hasSubscribers(String channel) {
+        return this.channels.containsKey(channel);
+    }
+
+    public boolean hasSubscribersWithPrefix(String prefix) {
+        return this.channels.keySet().stream().anyMatch(channel -> channel.startsWith(prefix));
+    }
+
+    public void publish(String channel, DashboardDelta delta) {
+        var subscribers = this.channels.get(channel);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(delta));
+        }
+    }
+
+    /**
+     * 定时发送注释行，及时发现已断开的连接，正在推送或有待推送变化的订阅者跳过
+     */
+    @Scheduled(fixedDelay = 30000L, initialDelay = 30000L)
+    public void heartbeat() {
+        this.channels.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    private class Subscriber {
+        private final SseSender.Connection connection;
+        private final LinkedHashMap<String, DashboardDelta> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean heartbeat;
+
+        private Subscriber(SseSender.Connection connection) {
+            this.connection = connection;
+        }
+
+        private void offer(DashboardDelta delta) {
+            if (this.connection.isClosed()) {
+                return;
+            }
+            synchronized (this) {
+                // 移除后重新放入，保证按最近一次变化的顺序推送
+                this.pending.remove(delta.coalesceKey());
+                this.pending.put(delta.coalesceKey(), delta);
+                if (this.pending.size() > maxPendingDeltas) {
+                    log.debug("dashboard subscriber is too slow, disconnect");
+                    this.disconnect();
+                    return;
+                }
+                if (this.draining) {
+                    return;
+                }
+                this.draining = true;
+            }
+            if (!sender.execute(this::drain)) {
+                log.debug("dashboard sender is busy, disconnect");
+                synchronized (this) {
+                    this.disconnect();
+                }
+            }
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                if (this.connection.isClosed() || this.draining || !this.pending.isEmpty()) {
+                    return;
+                }
+                this.draining = true;
+                this.heartbeat = true;
+            }
+            if (!sender.execute(this::drain)) {
+                // 推送线程不足时跳过本次心跳
+                synchronized (this) {
+                    this.draining = false;
+                    this.heartbeat = false;
+                }
+            }
+        }
+
+        private void disconnect() {
+            this.pending.clear();
+            this.draining = false;
+            this.heartbeat = false;
+            this.connection.close();
+        }
+
+        private void drain() {
+            while (true) {
+                List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+                synchronized (this) {
+                    if (this.heartbeat) {
+                        this.heartbeat = false;
+                        events.add(SseEmitter.event().comment("heartbeat"));
+                    }
+                    if (events.isEmpty() && (this.pending.isEmpty() || this.connection.isClosed())) {
+                        this.draining = false;
+                        return;
+                    }
+                    this.pending.values().forEach(delta -> events.add(SseEmitter.event()
+                            .name(delta.getKind().name())
+                            .data(delta, MediaType.APPLICATION_JSON)));
+                    this.pending.clear();
+                }
+                for (var event : events) {
+                    if (!this.connection.send(event)) {
+                        synchronized (this) {
+                            this.pending.clear();
+                            this.draining = false;
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -8,6 +8,10 @@ import dev.jianmu.workflow.el.ExpressionLanguage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * @class ExpressionLanguageWarp
  * @description 表达式引擎包装类
@@ -17,9 +21,24 @@ import org.springframework.stereotype.Service;
 @Service
 @Slf4j
 public class ExpressionLanguageWarp implements ExpressionLanguage {
+    private static final int maxCachedExpressions = 2048;
+
+    // 编译后的表达式不可变，按表达式文本缓存复用
+    private final Map<String, El> cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, El> eldest) {
+            return this.size() > maxCachedExpressions;
+        }
+    });
+
     @Override
     public Expression parseExpression(String expression) {
-        return new El(expression);
+        var el = this.cache.get(expression);
+        if (el == null) {
+            el = new El(expression);
+            this.cache.put(expression, el);
+        }
+        return el;
     }
 
     @Override
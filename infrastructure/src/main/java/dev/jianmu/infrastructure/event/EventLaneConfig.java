@@ -0,0 +1,69 @@
+package dev.jianmu.infrastructure.event;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * @author agent
+ * @class EventLaneConfig
+ * @description 按事件类别创建独立的分发通道，新触发的流程不会占用进行中流程的线程与队列
+ * @create 2026-10-18 00:04
+ */
+@Slf4j
+@Configuration
+public class EventLaneConfig {
+    private final List<EventLaneExecutor> executors;
+
+    public EventLaneConfig(List<EventLaneExecutor> executors) {
+        this.executors = executors;
+    }
+
+    @Bean(EventLanes.PROGRESS)
+    public static EventLaneExecutor progressEventLane(GlobalProperties globalProperties) {
+        return create(EventLanes.PROGRESS, globalProperties.getEventLanes().getProgress());
+    }
+
+    @Bean(EventLanes.ACTIVATION)
+    public static EventLaneExecutor activationEventLane(GlobalProperties globalProperties) {
+        return create(EventLanes.ACTIVATION, globalProperties.getEventLanes().getActivation());
+    }
+
+    @Bean(EventLanes.TRIGGER)
+    public static EventLaneExecutor triggerEventLane(GlobalProperties globalProperties) {
+        return create(EventLanes.TRIGGER, globalProperties.getEventLanes().getTrigger());
+    }
+
+    private static EventLaneExecutor create(String name, GlobalProperties.Lane lane) {
+        return new EventLaneExecutor(
+                name,
+                lane.getCorePoolSize(),
+                lane.getMaxPoolSize(),
+                lane.getQueueCapacity(),
+                lane.getSpillCapacity()
+        );
+    }
+
+    @Scheduled(fixedDelay = 60000L, initialDelay = 60000L)
+    public void report() {
+        this.executors.stream()
+                .filter(executor -> executor.getSubmittedCount() > 0)
+                .forEach(executor -> log.info("事件通道{} 队列深度: {} 溢出队列深度: {} 活动线程: {} 已完成: {} 平均排队: {}ms 最长排队: {}ms 平均执行: {}ms 拒绝: {} 溢出: {} 通道线程直接执行: {}",
+                        executor.getLaneName(),
+                        executor.getQueueDepth(),
+                        executor.getSpillDepth(),
+                        executor.getActiveCount(),
+                        executor.getCompletedCount(),
+                        executor.getAverageWaitMillis(),
+                        executor.getMaxWaitMillis(),
+                        executor.getAverageRunMillis(),
+                        executor.getRejectedCount(),
+                        executor.getSpilledCount(),
+                        executor.getCallerRunsCount()
+                ));
+    }
+}
@@ -0,0 +1,168 @@
+package dev.jianmu.infrastructure.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author agent
+ * @class EventLaneExecutor
+ * @description 事件分发通道，使用有界队列，队列已满时不阻塞提交线程：
+ * 通道内部线程提交的任务在该线程中直接执行，外部线程提交的任务放入有界的溢出队列，
+ * 溢出队列容量为0或已满时抛出RejectedExecutionException并计入拒绝统计，
+ * 同时统计队列深度与排队、执行耗时
+ * @create 2026-10-18 00:04
+ */
+@Slf4j
+public class EventLaneExecutor extends ThreadPoolTaskExecutor {
+    // 当前线程是否为任一事件通道的工作线程
+    private static final ThreadLocal<Boolean> laneThread = ThreadLocal.withInitial(() -> false);
+
+    private final String laneName;
+    private final int spillCapacity;
+    // 队列已满时外部线程提交的任务，由通道线程执行完当前任务后处理
+    private final BlockingQueue<Runnable> spill;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public EventLaneExecutor(String laneName, int corePoolSize, int maxPoolSize, int queueCapacity, int spillCapacity) {
+        this.laneName = laneName;
+        this.spillCapacity = spillCapacity;
+        this.spill = new LinkedBlockingQueue<>(Math.max(spillCapacity, 1));
+        this.setCorePoolSize(corePoolSize);
+        this.setMaxPoolSize(maxPoolSize);
+        this.setQueueCapacity(queueCapacity);
+        this.setKeepAliveSeconds(60);
+        this.setThreadNamePrefix(laneName + "-");
+        this.setTaskDecorator(this::measure);
+        this.setRejectedExecutionHandler(new BackpressureHandler());
+        this.setWaitForTasksToCompleteOnShutdown(true);
+        this.setAwaitTerminationSeconds(30);
+    }
+
+    private Runnable measure(Runnable runnable) {
+        this.submitted.increment();
+        var enqueuedAt = System.nanoTime();
+        return () -> {
+            var startedAt = System.nanoTime();
+            var wait = startedAt - enqueuedAt;
+            this.waitNanos.add(wait);
+            this.maxWaitNanos.accumulate(wait);
+            var inLane = laneThread.get();
+            laneThread.set(true);
+            try {
+                runnable.run();
+            } finally {
+                laneThread.set(inLane);
+                this.runNanos.add(System.nanoTime() - startedAt);
+                this.completed.increment();
+            }
+            // 只在最外层任务结束后处理溢出队列，同步执行的任务不重复处理
+            if (!inLane) {
+                this.drainSpill();
+            }
+        };
+    }
+
+    private void drainSpill() {
+        var inLane = laneThread.get();
+        laneThread.set(true);
+        try {
+            Runnable runnable;
+            while ((runnable = this.spill.poll()) != null) {
+                runnable.run();
+            }
+        } finally {
+            laneThread.set(inLane);
+        }
+    }
+
+    private class BackpressureHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("事件通道" + laneName + "已关闭");
+            }
+            if (laneThread.get()) {
+                // 通道线程等待本通道队列可能死锁，直接执行
+                callerRuns.increment();
+                log.debug("事件通道{}队列已满，在当前线程{}中执行", laneName, Thread.currentThread().getName());
+                runnable.run();
+                return;
+            }
+            if (spillCapacity == 0 || !spill.offer(runnable)) {
+                rejected.increment();
+                log.warn("事件通道{}队列已满，拒绝新任务，队列深度: {} 溢出队列深度: {}", laneName, executor.getQueue().size(), spill.size());
+                throw new RejectedExecutionException("事件通道" + laneName + "繁忙");
+            }
+            spilled.increment();
+            log.warn("事件通道{}队列已满，放入溢出队列，溢出队列深度: {}", laneName, spill.size());
+            // 通道线程可能在放入前已全部空闲，提交一次溢出处理；
+            // 队列仍然已满时不需要提交，排队中的任务结束后会处理溢出队列
+            if (!executor.getQueue().offer(EventLaneExecutor.this::drainSpill)) {
+                log.debug("事件通道{}队列已满，由排队中的任务处理溢出队列", laneName);
+            }
+        }
+    }
+
+    public String getLaneName() {
+        return laneName;
+    }
+
+    public int getQueueDepth() {
+        return this.getThreadPoolExecutor().getQueue().size();
+    }
+
+    public long getSubmittedCount() {
+        return this.submitted.sum();
+    }
+
+    public long getCompletedCount() {
+        return this.completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    public long getCallerRunsCount() {
+        return this.callerRuns.sum();
+    }
+
+    public long getSpilledCount() {
+        return this.spilled.sum();
+    }
+
+    public int getSpillDepth() {
+        return this.spill.size();
+    }
+
+    public long getAverageWaitMillis() {
+        var count = this.completed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.waitNanos.sum() / count);
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos.get());
+    }
+
+    public long getAverageRunMillis() {
+        var count = this.completed.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.runNanos.sum() / count);
+    }
+}
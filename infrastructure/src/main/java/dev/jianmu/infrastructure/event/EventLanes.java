@@ -0,0 +1,19 @@
+package dev.jianmu.infrastructure.event;
+
+/**
+ * @author agent
+ * @class EventLanes
+ * @description 事件分发通道名称，用于@Async指定执行器
+ * @create 2026-10-18 00:04
+ */
+public final class EventLanes {
+    // 任务成功、节点成功、流程结束与终止等推进进行中流程的事件
+    public static final String PROGRESS = "progressEventLane";
+    // 节点激活、任务创建与重试等事件
+    public static final String ACTIVATION = "activationEventLane";
+    // 新触发的流程，队列已满时拒绝外部提交
+    public static final String TRIGGER = "triggerEventLane";
+
+    private EventLanes() {
+    }
+}
@@ -0,0 +1,169 @@
+package dev.jianmu.infrastructure.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author agent
+ * @class EventMailbox
+ * @description 按Key串行处理事件，同一流程实例(triggerId)的事件依次执行，不同Key之间在事件通道中并行执行，
+ * 邮箱为空时立即移除。任务在提交线程中同步执行完成时循环提交下一个，不递归；
+ * 任务只有执行或提交方收到拒绝后才从邮箱移除，其他任务被拒绝时留在邮箱中稍后重新提交
+ * @create 2026-10-18 00:08
+ */
+@Slf4j
+@Component
+public class EventMailbox {
+    private static final long retryDelay = 100L;
+    // 任务提交状态，提交线程与执行线程中只有后完成的一方继续提交下一个任务
+    private static final int PENDING = 0;
+    private static final int SUBMITTED = 1;
+    private static final int DONE = 2;
+
+    private final Map<String, EventLaneExecutor> lanes;
+    // 存在即表示该Key的任务正在执行或等待提交，队首为当前任务
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskScheduler retryScheduler;
+
+    private static class Entry {
+        private final Executor executor;
+        private final Runnable task;
+
+        private Entry(Executor executor, Runnable task) {
+            this.executor = executor;
+            this.task = task;
+        }
+    }
+
+    private static class Mailbox {
+        private final Queue<Entry> entries = new ArrayDeque<>();
+    }
+
+    public EventMailbox(Map<String, EventLaneExecutor> lanes) {
+        this.lanes = lanes;
+        this.retryScheduler = new ThreadPoolTaskScheduler();
+        this.retryScheduler.setPoolSize(1);
+        this.retryScheduler.setThreadNamePrefix("event-mailbox-");
+        this.retryScheduler.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.retryScheduler.shutdown();
+    }
+
+    /**
+     * 在指定事件通道中执行任务，同一Key的任务按提交顺序依次执行
+     *
+     * @throws RejectedExecutionException 通道拒绝本次提交的任务时抛出，该任务不会执行
+     */
+    public void dispatch(String lane, String key, Runnable task) {
+        var executor = this.lanes.get(lane);
+        if (executor == null) {
+            throw new IllegalArgumentException("未找到事件通道: " + lane);
+        }
+        var entry = new Entry(executor, task);
+        var start = new boolean[1];
+        this.mailboxes.compute(key, (k, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+                start[0] = true;
+            }
+            mailbox.entries.add(entry);
+            return mailbox;
+        });
+        if (start[0]) {
+            this.drain(key, entry);
+        }
+    }
+
+    public int getSize() {
+        return this.mailboxes.size();
+    }
+
+    /**
+     * 依次提交邮箱队首的任务，直到有任务在其他线程中异步执行或邮箱为空
+     *
+     * @param owned 调用方提交的任务，被拒绝时从邮箱移除并抛给调用方
+     */
+    private void drain(String key, Entry owned) {
+        while (true) {
+            var entry = this.peek(key);
+            var state = new AtomicInteger(PENDING);
+            try {
+                entry.executor.execute(() -> this.run(key, entry, state));
+            } catch (RejectedExecutionException e) {
+                if (entry == owned) {
+                    if (this.advance(key)) {
+                        this.retryLater(key);
+                    }
+                    throw e;
+                }
+                // 不是调用方的任务，不丢弃也不抛给调用方
+                log.warn("事件通道繁忙，稍后重新提交, key: {}", key);
+                this.retryLater(key);
+                return;
+            }
+            // 任务尚未执行完成时由执行线程继续提交，已在当前线程中同步执行完成时继续循环
+            if (state.compareAndSet(PENDING, SUBMITTED) || !this.advance(key)) {
+                return;
+            }
+        }
+    }
+
+    private void run(String key, Entry entry, AtomicInteger state) {
+        try {
+            entry.task.run();
+        } catch (RuntimeException e) {
+            log.error("事件处理异常, key: {}", key, e);
+        } finally {
+            if (!state.compareAndSet(PENDING, DONE) && this.advance(key)) {
+                this.drain(key, null);
+            }
+        }
+    }
+
+    private Entry peek(String key) {
+        var head = new Entry[1];
+        this.mailboxes.computeIfPresent(key, (k, mailbox) -> {
+            head[0] = mailbox.entries.peek();
+            return mailbox;
+        });
+        return head[0];
+    }
+
+    /**
+     * 移除队首已完成的任务
+     *
+     * @return 是否还有待执行的任务
+     */
+    private boolean advance(String key) {
+        var remaining = new boolean[1];
+        this.mailboxes.computeIfPresent(key, (k, mailbox) -> {
+            mailbox.entries.poll();
+            remaining[0] = !mailbox.entries.isEmpty();
+            return remaining[0] ? mailbox : null;
+        });
+        return remaining[0];
+    }
+
+    private void retryLater(String key) {
+        try {
+            this.retryScheduler.schedule(() -> this.drain(key, null), Instant.now().plusMillis(retryDelay));
+        } catch (RejectedExecutionException e) {
+            log.error("应用关闭，丢弃未执行的事件, key: {}", key);
+            this.mailboxes.remove(key);
+        }
+    }
+}
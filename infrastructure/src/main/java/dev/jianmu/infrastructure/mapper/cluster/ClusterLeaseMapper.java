@@ -0,0 +1,30 @@
+package dev.jianmu.infrastructure.mapper.cluster;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * @author agent
+ * @class ClusterLeaseMapper
+ * @description ClusterLeaseMapper
+ * @create 2026-10-18 00:14
+ */
+public interface ClusterLeaseMapper {
+    @Insert("insert into jianmu_cluster_lease(name, owner, expire_time) values(#{name}, #{owner}, #{expireTime})")
+    void add(@Param("name") String name, @Param("owner") String owner, @Param("expireTime") LocalDateTime expireTime);
+
+    // 锁记录在独立事务中创建后会再次查询，不能使用会话缓存中的空结果
+    @Select("select name from jianmu_cluster_lease where name = #{name} for update")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Optional<String> lock(String name);
+
+    @Update("update jianmu_cluster_lease set owner = #{owner}, expire_time = #{expireTime} " +
+            "where name = #{name} and (owner = #{owner} or expire_time is null or expire_time < #{now})")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now, @Param("expireTime") LocalDateTime expireTime);
+}
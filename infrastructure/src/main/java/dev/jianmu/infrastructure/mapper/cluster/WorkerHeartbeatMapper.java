@@ -0,0 +1,40 @@
+package dev.jianmu.infrastructure.mapper.cluster;
+
+import dev.jianmu.infrastructure.worker.WorkerHeartbeat;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author agent
+ * @class WorkerHeartbeatMapper
+ * @description WorkerHeartbeatMapper
+ * @create 2026-10-18 00:54
+ */
+public interface WorkerHeartbeatMapper {
+    @Insert("insert into jianmu_worker_heartbeat(worker_id, last_seen_time) values(#{workerId}, #{lastSeenTime})")
+    void add(@Param("workerId") String workerId, @Param("lastSeenTime") LocalDateTime lastSeenTime);
+
+    // 任意节点都可以直接更新，不区分收到ping的节点
+    @Update("update jianmu_worker_heartbeat set last_seen_time = #{lastSeenTime} where worker_id = #{workerId}")
+    int touch(@Param("workerId") String workerId, @Param("lastSeenTime") LocalDateTime lastSeenTime);
+
+    @Select("<script>" +
+            "select * from jianmu_worker_heartbeat where worker_id in " +
+            "<foreach collection='workerIds' item='item' open='(' close=')' separator=','> #{item} </foreach>" +
+            "</script>")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "last_seen_time", property = "lastSeenTime")
+    List<WorkerHeartbeat> findByWorkerIds(@Param("workerIds") Collection<String> workerIds);
+
+    @Select("select w.id from worker w left join jianmu_worker_heartbeat h on h.worker_id = w.id " +
+            "where w.status = 'ONLINE' and (h.last_seen_time is null or h.last_seen_time < #{expiredTime})")
+    List<String> findExpiredOnlineWorkerIds(LocalDateTime expiredTime);
+
+    // 标记离线前再次确认没有节点更新过存活时间，与并发的ping互斥
+    @Update("update worker set status = 'OFFLINE' where id = #{workerId} and status = 'ONLINE' and not exists " +
+            "(select 1 from jianmu_worker_heartbeat h where h.worker_id = #{workerId} and h.last_seen_time >= #{expiredTime})")
+    int evict(@Param("workerId") String workerId, @Param("expiredTime") LocalDateTime expiredTime);
+}
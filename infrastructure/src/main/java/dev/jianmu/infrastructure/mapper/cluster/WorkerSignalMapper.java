@@ -0,0 +1,48 @@
+package dev.jianmu.infrastructure.mapper.cluster;
+
+import dev.jianmu.infrastructure.cluster.WorkerSignal;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author agent
+ * @class WorkerSignalMapper
+ * @description WorkerSignalMapper
+ * @create 2026-10-18 00:14
+ */
+public interface WorkerSignalMapper {
+    @Insert("insert into jianmu_worker_signal(id, type, worker_id, business_id, created_time) " +
+            "values(#{id}, #{type}, #{workerId}, #{businessId}, #{createdTime})")
+    void add(WorkerSignal signal);
+
+    // 重新发布已领取的信号时清除领取状态
+    @Update("update jianmu_worker_signal set worker_id = #{workerId}, created_time = #{createdTime}, " +
+            "claimed_by = null, claimed_time = null where id = #{id}")
+    int reset(WorkerSignal signal);
+
+    @Select("<script>" +
+            "select * from jianmu_worker_signal where claimed_by is null and worker_id in " +
+            "<foreach collection='workerIds' item='item' open='(' close=')' separator=','> #{item} </foreach>" +
+            "</script>")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "created_time", property = "createdTime")
+    List<WorkerSignal> findByWorkerIds(@Param("workerIds") Collection<String> workerIds);
+
+    // 只有未被领取的信号能够更新成功
+    @Update("update jianmu_worker_signal set claimed_by = #{owner}, claimed_time = #{claimedTime} " +
+            "where id = #{id} and claimed_by is null")
+    int claim(@Param("id") String id, @Param("owner") String owner, @Param("claimedTime") LocalDateTime claimedTime);
+
+    @Delete("delete from jianmu_worker_signal where business_id = #{businessId}")
+    void deleteByBusinessId(String businessId);
+
+    @Delete("delete from jianmu_worker_signal where type = #{type} and claimed_by is null and created_time < #{createdTime}")
+    void deleteByTypeAndCreatedTimeBefore(@Param("type") WorkerSignal.Type type, @Param("createdTime") LocalDateTime createdTime);
+
+    @Delete("delete from jianmu_worker_signal where claimed_by is not null and claimed_time < #{claimedTime}")
+    void deleteByClaimedTimeBefore(LocalDateTime claimedTime);
+}
@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionMapper
@@ -23,6 +24,20 @@ public interface NodeDefinitionMapper {
     @Result(column = "document_link", property = "documentLink")
     Optional<NodeDefinition> findById(String id);
 
+    @Select("<script>" +
+            "SELECT * FROM `hub_node_definition` WHERE `id` IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    @Result(column = "owner_name", property = "ownerName")
+    @Result(column = "owner_type", property = "ownerType")
+    @Result(column = "owner_ref", property = "ownerRef")
+    @Result(column = "creator_name", property = "creatorName")
+    @Result(column = "creator_ref", property = "creatorRef")
+    @Result(column = "source_link", property = "sourceLink")
+    @Result(column = "document_link", property = "documentLink")
+    List<NodeDefinition> findByIds(@Param("ids") Set<String> ids);
+
     @Select("<script>" +
             "SELECT * FROM `hub_node_definition` " +
             "<where>" +
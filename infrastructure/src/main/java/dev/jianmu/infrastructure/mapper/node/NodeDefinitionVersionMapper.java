@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionVersionMapper
@@ -32,6 +33,24 @@ public interface NodeDefinitionVersionMapper {
     @Result(column = "output_parameters", property = "outputParameters", typeHandler = NodeParameterListTypeHandler.class)
     List<NodeDefinitionVersion> findByOwnerRefAndRef(@Param("ownerRef") String ownerRef, @Param("ref") String ref);
 
+    @Select("<script>" +
+            "SELECT * FROM `hub_node_definition_version` WHERE `id` IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    @Result(column = "result_file", property = "resultFile")
+    @Result(column = "owner_ref", property = "ownerRef")
+    @Result(column = "creator_name", property = "creatorName")
+    @Result(column = "creator_ref", property = "creatorRef")
+    @Result(column = "input_parameters", property = "inputParameters", typeHandler = NodeParameterListTypeHandler.class)
+    @Result(column = "output_parameters", property = "outputParameters", typeHandler = NodeParameterListTypeHandler.class)
+    List<NodeDefinitionVersion> findByIds(@Param("ids") Set<String> ids);
+
+    @Select("SELECT id, input_parameters, output_parameters FROM hub_node_definition_version")
+    @Result(column = "input_parameters", property = "inputParameters", typeHandler = NodeParameterListTypeHandler.class)
+    @Result(column = "output_parameters", property = "outputParameters", typeHandler = NodeParameterListTypeHandler.class)
+    List<NodeDefinitionVersion> findAllParameters();
+
     @Insert("insert into hub_node_definition_version(id, owner_ref, ref, creator_name, creator_ref, version, description, result_file, input_parameters, output_parameters, spec) " +
             "values(#{id}, #{ownerRef}, #{ref}, #{creatorName}, #{creatorRef}, #{version}, #{description}, #{resultFile}, " +
             "#{inputParameters, jdbcType=BLOB,typeHandler=dev.jianmu.infrastructure.typehandler.NodeParameterListTypeHandler}, " +
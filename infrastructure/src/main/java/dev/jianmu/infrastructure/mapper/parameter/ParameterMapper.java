@@ -22,6 +22,14 @@ public interface ParameterMapper {
             " </script>")
     void addAll(@Param("parameters") List<Parameter> parameters);
 
+    @Insert("<script>" +
+            "insert ignore into parameter(id, type, value) values" +
+            "<foreach collection='parameters' item='i' index='index' separator=','>" +
+            "(#{i.id}, #{i.type}, convert(#{i.value}, BINARY))" +
+            "</foreach>" +
+            " </script>")
+    void addAllIgnore(@Param("parameters") List<Parameter> parameters);
+
     @Select("<script>" +
             "SELECT * FROM `parameter` WHERE `id` IN" +
             "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
@@ -50,4 +58,13 @@ public interface ParameterMapper {
             })
     })
     List<Parameter> findByIds(@Param("ids") Set<String> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM `parameter` WHERE `id` IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            " AND NOT EXISTS (SELECT 1 FROM `task_instance_parameter` t WHERE t.parameter_id = `parameter`.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM `jianmu_trigger_event_parameter` e WHERE e.parameter_id = `parameter`.id)" +
+            "</script>")
+    void deleteUnreferencedByIds(@Param("ids") Set<String> ids);
 }
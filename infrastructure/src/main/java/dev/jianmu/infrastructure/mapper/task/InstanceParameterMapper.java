@@ -1,6 +1,7 @@
 package dev.jianmu.infrastructure.mapper.task;
 
 import dev.jianmu.task.aggregate.InstanceParameter;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Result;
@@ -64,4 +65,18 @@ public interface InstanceParameterMapper {
     @Result(column = "parameter_id", property = "parameterId")
     @Result(column = "workflow_type", property = "workflowType")
     List<InstanceParameter> findLastOutputParamByTriggerId(String triggerId);
+
+    @Select("<script>" +
+            "select parameter_id from task_instance_parameter where trigger_id in" +
+            "<foreach collection='triggerIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    List<String> findParameterIdsByTriggerIds(@Param("triggerIds") List<String> triggerIds);
+
+    @Delete("<script>" +
+            "delete from task_instance_parameter where trigger_id in" +
+            "<foreach collection='triggerIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByTriggerIds(@Param("triggerIds") List<String> triggerIds);
 }
@@ -37,6 +37,20 @@ public interface TaskInstanceMapper {
     @Delete("delete from task_instance where trigger_id = #{triggerId}")
     void deleteByTriggerId(String triggerId);
 
+    @Delete("<script>" +
+            "delete from task_instance where trigger_id in" +
+            "<foreach collection='triggerIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByTriggerIds(@Param("triggerIds") List<String> triggerIds);
+
+    @Select("<script>" +
+            "select id from task_instance where trigger_id in" +
+            "<foreach collection='triggerIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    List<String> findIdsByTriggerIds(@Param("triggerIds") List<String> triggerIds);
+
     @Select("select * from task_instance where id = #{instanceId}")
     @Result(column = "serial_no", property = "serialNo")
     @Result(column = "def_key", property = "defKey")
@@ -152,6 +166,36 @@ public interface TaskInstanceMapper {
     @Result(column = "end_time", property = "endTime")
     Optional<TaskInstance> findByWorkerIdAndTriggerIdLimit(@Param("workerId") String workerId, @Param("triggerId") String triggerId);
 
+    @Select("select * from task_instance where worker_id is not null and status = 'WAITING' and _version = 0 order by start_time asc")
+    @Result(column = "serial_no", property = "serialNo")
+    @Result(column = "def_key", property = "defKey")
+    @Result(column = "node_info", property = "nodeInfo", typeHandler = NodeInfoTypeHandler.class)
+    @Result(column = "async_task_ref", property = "asyncTaskRef")
+    @Result(column = "workflow_ref", property = "workflowRef")
+    @Result(column = "workflow_version", property = "workflowVersion")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "_version", property = "version")
+    @Result(column = "start_time", property = "startTime")
+    @Result(column = "end_time", property = "endTime")
+    List<TaskInstance> findDispatchedWaitingTask();
+
+    @Select("select * from task_instance where worker_id = #{workerId} and status = 'WAITING' and _version = 0 order by start_time asc")
+    @Result(column = "serial_no", property = "serialNo")
+    @Result(column = "def_key", property = "defKey")
+    @Result(column = "node_info", property = "nodeInfo", typeHandler = NodeInfoTypeHandler.class)
+    @Result(column = "async_task_ref", property = "asyncTaskRef")
+    @Result(column = "workflow_ref", property = "workflowRef")
+    @Result(column = "workflow_version", property = "workflowVersion")
+    @Result(column = "business_id", property = "businessId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "worker_id", property = "workerId")
+    @Result(column = "_version", property = "version")
+    @Result(column = "start_time", property = "startTime")
+    @Result(column = "end_time", property = "endTime")
+    List<TaskInstance> findDispatchedWaitingTaskByWorkerId(String workerId);
+
     @Select("select * from task_instance where business_id = #{businessId} and status = 'WAITING' and _version = #{version}")
     @Result(column = "serial_no", property = "serialNo")
     @Result(column = "def_key", property = "defKey")
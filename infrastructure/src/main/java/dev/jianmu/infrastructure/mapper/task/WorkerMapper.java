@@ -27,6 +27,9 @@ public interface WorkerMapper {
     @Update("update worker set tags = #{tags} where id = #{id}")
     void updateTag(Worker worker);
 
+    @Update("update worker set capacity = #{capacity} where id = #{id}")
+    void updateCapacity(Worker worker);
+
     @Select("select * from worker where id = #{workerId}")
     @Result(column = "created_time", property = "createdTime")
     Optional<Worker> findById(String workerId);
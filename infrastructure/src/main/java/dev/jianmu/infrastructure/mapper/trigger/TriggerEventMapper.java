@@ -1,10 +1,9 @@
 package dev.jianmu.infrastructure.mapper.trigger;
 
 import dev.jianmu.trigger.event.TriggerEvent;
-import org.apache.ibatis.annotations.Insert;
-import org.apache.ibatis.annotations.Result;
-import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.*;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,4 +24,23 @@ public interface TriggerEventMapper {
     @Insert("insert into jianmu_trigger_event(id, project_id, trigger_id, web_request_id, trigger_type, occurred_time) " +
             "values(#{id}, #{projectId}, #{triggerId}, #{webRequestId}, #{triggerType}, #{occurredTime})")
     void save(TriggerEvent triggerEvent);
+
+    @Select("<script>" +
+            "SELECT * FROM `jianmu_trigger_event` WHERE id IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    @Result(column = "project_id", property = "projectId")
+    @Result(column = "trigger_id", property = "triggerId")
+    @Result(column = "web_request_id", property = "webRequestId")
+    @Result(column = "trigger_type", property = "triggerType")
+    @Result(column = "occurred_time", property = "occurredTime")
+    List<TriggerEvent> findByIds(@Param("ids") List<String> ids);
+
+    @Delete("<script>" +
+            "DELETE FROM `jianmu_trigger_event` WHERE id IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByIds(@Param("ids") List<String> ids);
 }
@@ -1,10 +1,7 @@
 package dev.jianmu.infrastructure.mapper.trigger;
 
 import dev.jianmu.trigger.event.TriggerEventParameter;
-import org.apache.ibatis.annotations.Insert;
-import org.apache.ibatis.annotations.Param;
-import org.apache.ibatis.annotations.Result;
-import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.*;
 
 import java.util.List;
 
@@ -22,4 +19,18 @@ public interface TriggerEventParameterMapper {
     @Insert("insert into jianmu_trigger_event_parameter(trigger_event_id, name, type, value, parameter_id) " +
             "values(#{triggerEventId}, #{ep.name}, #{ep.type}, #{ep.value}, #{ep.parameterId})")
     void save(@Param("triggerEventId") String triggerEventId, @Param("ep") TriggerEventParameter triggerEventParameter);
+
+    @Select("<script>" +
+            "SELECT parameter_id FROM `jianmu_trigger_event_parameter` WHERE trigger_event_id IN" +
+            "<foreach collection='triggerEventIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    List<String> findParameterIdsByIds(@Param("triggerEventIds") List<String> triggerEventIds);
+
+    @Delete("<script>" +
+            "DELETE FROM `jianmu_trigger_event_parameter` WHERE trigger_event_id IN" +
+            "<foreach collection='triggerEventIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByIds(@Param("triggerEventIds") List<String> triggerEventIds);
 }
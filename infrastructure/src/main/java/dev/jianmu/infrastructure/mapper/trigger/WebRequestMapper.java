@@ -41,4 +41,11 @@ public interface WebRequestMapper {
 
     @Update("UPDATE jianmu_web_request set status_code = #{statusCode}, error_msg = #{errorMsg} where id = #{id}")
     void update(WebRequest webRequest);
+
+    @Delete("<script>" +
+            "DELETE FROM jianmu_web_request WHERE id IN" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByIds(@Param("ids") List<String> ids);
 }
@@ -0,0 +1,66 @@
+package dev.jianmu.infrastructure.mapper.webhook;
+
+import dev.jianmu.infrastructure.webhook.WebhookInbox;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author agent
+ * @class WebhookInboxMapper
+ * @description WebhookInboxMapper
+ * @create 2026-10-18 00:32
+ */
+public interface WebhookInboxMapper {
+    @Insert("insert into jianmu_webhook_inbox(id, project_name, user_agent, payload, status_code, error_msg, dedupe_key, status, received_time) " +
+            "values(#{id}, #{projectName}, #{userAgent}, #{payload}, #{statusCode}, #{errorMsg}, #{dedupeKey}, #{status}, #{receivedTime})")
+    void add(WebhookInbox webhookInbox);
+
+    @Select("select id from jianmu_webhook_inbox where dedupe_key = #{dedupeKey}")
+    Optional<String> findIdByDedupeKey(String dedupeKey);
+
+    // 领取等待中或领取超时的记录，多个节点并发领取时由行锁保证每条记录只被一个批次领取
+    @Update("update jianmu_webhook_inbox set status = 'PROCESSING', claim_id = #{claimId}, claimed_time = #{claimedTime}, attempts = attempts + 1 " +
+            "where status = 'PENDING' or (status = 'PROCESSING' and claimed_time < #{expiredTime}) " +
+            "order by received_time limit #{limit}")
+    int claim(@Param("claimId") String claimId, @Param("claimedTime") LocalDateTime claimedTime,
+              @Param("expiredTime") LocalDateTime expiredTime, @Param("limit") int limit);
+
+    @Update("update jianmu_webhook_inbox set status = 'PROCESSING', claim_id = #{claimId}, claimed_time = #{claimedTime}, attempts = attempts + 1 " +
+            "where id = #{id} and status = 'PENDING'")
+    int claimById(@Param("id") String id, @Param("claimId") String claimId, @Param("claimedTime") LocalDateTime claimedTime);
+
+    @Select("select * from jianmu_webhook_inbox where claim_id = #{claimId} order by received_time")
+    @Result(column = "project_name", property = "projectName")
+    @Result(column = "user_agent", property = "userAgent")
+    @Result(column = "status_code", property = "statusCode")
+    @Result(column = "error_msg", property = "errorMsg")
+    @Result(column = "dedupe_key", property = "dedupeKey")
+    @Result(column = "claim_id", property = "claimId")
+    @Result(column = "claimed_time", property = "claimedTime")
+    @Result(column = "received_time", property = "receivedTime")
+    List<WebhookInbox> findByClaimId(String claimId);
+
+    // 线程池拒绝时放回，不计入领取次数
+    @Update("update jianmu_webhook_inbox set status = 'PENDING', claim_id = null, claimed_time = null, attempts = attempts - 1 " +
+            "where id = #{id} and claim_id = #{claimId}")
+    void release(@Param("id") String id, @Param("claimId") String claimId);
+
+    // 处理失败后放回，等待下次领取重试
+    @Update("update jianmu_webhook_inbox set status = 'PENDING', claim_id = null, claimed_time = null, failure = #{failure} " +
+            "where id = #{id} and claim_id = #{claimId}")
+    void retry(@Param("id") String id, @Param("claimId") String claimId, @Param("failure") String failure);
+
+    // 超过最大领取次数，保留载荷用于排查
+    @Update("update jianmu_webhook_inbox set status = 'FAILED', failure = #{failure} where id = #{id} and claim_id = #{claimId}")
+    void fail(@Param("id") String id, @Param("claimId") String claimId, @Param("failure") String failure);
+
+    // 处理完成后清空载荷，载荷已写入Webhook文件；领取已被其他节点接管时返回0
+    @Update("update jianmu_webhook_inbox set status = 'DONE', payload = null where id = #{id} and claim_id = #{claimId}")
+    int finish(@Param("id") String id, @Param("claimId") String claimId);
+
+    @Delete("delete from jianmu_webhook_inbox where status in ('DONE', 'FAILED') and received_time < #{receivedTime}")
+    void deleteFinishedByReceivedTimeBefore(LocalDateTime receivedTime);
+}
@@ -110,6 +110,13 @@ public interface AsyncTaskInstanceMapper {
     @Delete("delete from async_task_instance where workflow_instance_id = #{workflowInstanceId}")
     void deleteByWorkflowInstanceId(String workflowInstanceId);
 
+    @Delete("<script>" +
+            "delete from async_task_instance where workflow_instance_id in" +
+            "<foreach collection='workflowInstanceIds' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByWorkflowInstanceIds(@Param("workflowInstanceIds") List<String> workflowInstanceIds);
+
     @Delete("delete from async_task_instance where workflow_ref = #{workflowRef}")
     void deleteByWorkflowRef(String workflowRef);
 }
@@ -91,7 +91,14 @@ public interface WorkflowInstanceMapper {
     @Delete("delete from workflow_instance where id=#{id}")
     void deleteById(String id);
 
-    @Select("SELECT * FROM workflow_instance where workflow_ref=#{workflowRef} and serial_no < ((select max(serial_no) from workflow_instance where workflow_ref=#{workflowRef}) - #{offset})")
+    @Delete("<script>" +
+            "delete from workflow_instance where id in" +
+            "<foreach collection='ids' item='item' open='(' separator=',' close=')'> #{item}" +
+            "</foreach>" +
+            "</script>")
+    void deleteByIds(@Param("ids") List<String> ids);
+
+    @Select("select * from workflow_instance where workflow_ref = #{workflowRef} and status in ('FINISHED', 'TERMINATED') and serial_no < #{serialNo} order by serial_no limit #{limit}")
     @Result(column = "serial_no", property = "serialNo")
     @Result(column = "workflow_ref", property = "workflowRef")
     @Result(column = "workflow_version", property = "workflowVersion")
@@ -101,7 +108,7 @@ public interface WorkflowInstanceMapper {
     @Result(column = "start_time", property = "startTime")
     @Result(column = "suspended_time", property = "suspendedTime")
     @Result(column = "end_time", property = "endTime")
-    List<WorkflowInstance> findByRefOffset(@Param("workflowRef") String workflowRef, @Param("offset") long offset);
+    List<WorkflowInstance> findExpiredByRef(@Param("workflowRef") String workflowRef, @Param("serialNo") int serialNo, @Param("limit") int limit);
 
     @Select("select * from workflow_instance")
     @Result(column = "serial_no", property = "serialNo")
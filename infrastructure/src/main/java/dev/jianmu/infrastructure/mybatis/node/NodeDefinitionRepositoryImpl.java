@@ -7,7 +7,9 @@ import dev.jianmu.node.definition.aggregate.NodeDefinition;
 import dev.jianmu.node.definition.repository.NodeDefinitionRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionRepositoryImpl
@@ -34,6 +36,14 @@ public class NodeDefinitionRepositoryImpl implements NodeDefinitionRepository {
                 .doSelectPageInfo(() -> this.nodeDefinitionMapper.findPage(ownerRef, name));
     }
 
+    @Override
+    public List<NodeDefinition> findByIds(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.nodeDefinitionMapper.findByIds(ids);
+    }
+
     @Override
     public void saveOrUpdate(NodeDefinition nodeDefinition) {
         this.nodeDefinitionMapper.saveOrUpdate(nodeDefinition);
@@ -2,11 +2,16 @@ package dev.jianmu.infrastructure.mybatis.node;
 
 import dev.jianmu.infrastructure.mapper.node.NodeDefinitionVersionMapper;
 import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
+import dev.jianmu.node.definition.aggregate.NodeParameter;
 import dev.jianmu.node.definition.repository.NodeDefinitionVersionRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * @class NodeDefinitionVersionRepositoryImpl
@@ -32,6 +37,26 @@ public class NodeDefinitionVersionRepositoryImpl implements NodeDefinitionVersio
         return this.nodeDefinitionVersionMapper.findByOwnerRefAndRef(ownerRef, ref);
     }
 
+    @Override
+    public List<NodeDefinitionVersion> findByIds(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.nodeDefinitionVersionMapper.findByIds(ids);
+    }
+
+    @Override
+    public Set<String> findAllParameterIds() {
+        var parameterIds = new HashSet<String>();
+        this.nodeDefinitionVersionMapper.findAllParameters().forEach(version -> Stream.of(version.getInputParameters(), version.getOutputParameters())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(NodeParameter::getParameterId)
+                .filter(Objects::nonNull)
+                .forEach(parameterIds::add));
+        return parameterIds;
+    }
+
     @Override
     public void saveOrUpdate(NodeDefinitionVersion nodeDefinitionVersion) {
         this.nodeDefinitionVersionMapper.saveOrUpdate(nodeDefinitionVersion);
@@ -0,0 +1,30 @@
+package dev.jianmu.infrastructure.mybatis.parameter;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.repository.ParameterRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @class ContentAddressedParameterConfig
+ * @description 按内容寻址的参数存储配置，启动时设置一次参数ID生成策略，
+ * 使用参数仓储的组件都在此之后创建参数
+ * @author agent
+ * @create 2026-10-18 01:28
+*/
+@Configuration
+@ConditionalOnProperty(prefix = "jianmu.parameter", name = "store", havingValue = "content")
+public class ContentAddressedParameterConfig {
+
+    public ContentAddressedParameterConfig() {
+        Parameter.setIdGenerator(ContentAddressedParameterRepository::contentId);
+    }
+
+    @Bean
+    public ParameterRepository contentAddressedParameterRepository(ParameterMapper parameterMapper, GlobalProperties globalProperties) {
+        return new ContentAddressedParameterRepository(parameterMapper, globalProperties);
+    }
+}
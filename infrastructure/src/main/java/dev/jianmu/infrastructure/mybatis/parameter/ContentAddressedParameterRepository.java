@@ -0,0 +1,107 @@
+package dev.jianmu.infrastructure.mybatis.parameter;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
+import dev.jianmu.workflow.aggregate.parameter.Parameter;
+import dev.jianmu.workflow.repository.ParameterRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @class ContentAddressedParameterRepository
+ * @description 按内容寻址的参数仓储实现，参数ID由类型与值计算，相同参数只保存一次，
+ * 由ContentAddressedParameterConfig创建并设置ID生成策略
+ * @author agent
+ * @create 2026-10-17 23:41
+*/
+public class ContentAddressedParameterRepository implements ParameterRepository {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ParameterMapper parameterMapper;
+    // 参数内容不可变，按ID缓存热点参数
+    private final Map<String, Parameter> cache;
+
+    public ContentAddressedParameterRepository(ParameterMapper parameterMapper, GlobalProperties globalProperties) {
+        this.parameterMapper = parameterMapper;
+        var cacheSize = globalProperties.getParameter().getCacheSize();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Parameter> eldest) {
+                return this.size() > cacheSize;
+            }
+        });
+    }
+
+    static String contentId(Parameter<?> parameter) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(parameter.getType().name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            var hash = digest.digest(parameter.getStringValue().getBytes(StandardCharsets.UTF_8));
+            // 取前128位作为ID
+            var chars = new char[32];
+            for (int i = 0; i < 16; i++) {
+                chars[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                chars[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(chars);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("参数ID计算失败", e);
+        }
+    }
+
+    @Override
+    public void addAll(List<Parameter> parameters) {
+        var distinct = parameters.stream()
+                .collect(Collectors.toMap(Parameter::getId, parameter -> parameter, (a, b) -> a, LinkedHashMap::new));
+        if (distinct.isEmpty()) {
+            return;
+        }
+        this.parameterMapper.addAllIgnore(new ArrayList<>(distinct.values()));
+        this.cache.putAll(distinct);
+    }
+
+    @Override
+    public List<Parameter> findByIds(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var parameters = new ArrayList<Parameter>();
+        var missing = new HashSet<String>();
+        ids.forEach(id -> {
+            var parameter = this.cache.get(id);
+            if (parameter == null) {
+                missing.add(id);
+            } else {
+                parameters.add(parameter);
+            }
+        });
+        if (!missing.isEmpty()) {
+            var loaded = this.parameterMapper.findByIds(missing);
+            loaded.forEach(parameter -> this.cache.put(parameter.getId(), parameter));
+            parameters.addAll(loaded);
+        }
+        return parameters;
+    }
+
+    /**
+     * 相同内容的参数被多条记录共享，删除时跳过仍被任务或触发事件引用的参数，
+     * 节点定义的默认参数由调用方排除。重新保存已存在的参数时insert ignore锁定该行，
+     * 删除会等待保存参数的事务提交后再检查引用
+     */
+    @Override
+    public void deleteUnreferencedByIds(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        this.parameterMapper.deleteUnreferencedByIds(ids);
+        // 仍被引用而未删除的参数重新查询时再放入缓存
+        synchronized (this.cache) {
+            this.cache.keySet().removeAll(ids);
+        }
+    }
+}
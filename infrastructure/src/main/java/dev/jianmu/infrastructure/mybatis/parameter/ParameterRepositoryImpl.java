@@ -3,6 +3,7 @@ package dev.jianmu.infrastructure.mybatis.parameter;
 import dev.jianmu.infrastructure.mapper.parameter.ParameterMapper;
 import dev.jianmu.workflow.aggregate.parameter.Parameter;
 import dev.jianmu.workflow.repository.ParameterRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.Set;
  * @create 2021-04-10 09:55
 */
 @Repository
+@ConditionalOnProperty(prefix = "jianmu.parameter", name = "store", havingValue = "uuid", matchIfMissing = true)
 public class ParameterRepositoryImpl implements ParameterRepository {
     private final ParameterMapper parameterMapper;
 
@@ -36,4 +38,11 @@ public class ParameterRepositoryImpl implements ParameterRepository {
         }
         return this.parameterMapper.findByIds(ids);
     }
+
+    @Override
+    public void deleteUnreferencedByIds(Set<String> ids) {
+        if (!ids.isEmpty()) {
+            this.parameterMapper.deleteUnreferencedByIds(ids);
+        }
+    }
 }
@@ -43,4 +43,19 @@ public class InstanceParameterRepositoryImpl implements InstanceParameterReposit
     public List<InstanceParameter> findLastOutputParamByTriggerId(String triggerId) {
         return this.instanceParameterMapper.findLastOutputParamByTriggerId(triggerId);
     }
+
+    @Override
+    public List<String> findParameterIdsByTriggerIds(List<String> triggerIds) {
+        if (triggerIds.isEmpty()) {
+            return List.of();
+        }
+        return this.instanceParameterMapper.findParameterIdsByTriggerIds(triggerIds);
+    }
+
+    @Override
+    public void deleteByTriggerIds(List<String> triggerIds) {
+        if (!triggerIds.isEmpty()) {
+            this.instanceParameterMapper.deleteByTriggerIds(triggerIds);
+        }
+    }
 }
@@ -169,11 +169,36 @@ public class TaskInstanceRepositoryImpl implements TaskInstanceRepository {
         this.taskInstanceMapper.deleteByTriggerId(triggerId);
     }
 
+    @Override
+    public void deleteByTriggerIds(List<String> triggerIds) {
+        if (!triggerIds.isEmpty()) {
+            this.taskInstanceMapper.deleteByTriggerIds(triggerIds);
+        }
+    }
+
+    @Override
+    public List<String> findIdsByTriggerIds(List<String> triggerIds) {
+        if (triggerIds.isEmpty()) {
+            return List.of();
+        }
+        return this.taskInstanceMapper.findIdsByTriggerIds(triggerIds);
+    }
+
     @Override
     public Optional<TaskInstance> findByWorkerIdAndTriggerIdLimit(String workerId, String triggerId) {
         return this.taskInstanceMapper.findByWorkerIdAndTriggerIdLimit(workerId, triggerId);
     }
 
+    @Override
+    public List<TaskInstance> findDispatchedWaitingTask() {
+        return this.taskInstanceMapper.findDispatchedWaitingTask();
+    }
+
+    @Override
+    public List<TaskInstance> findDispatchedWaitingTaskByWorkerId(String workerId) {
+        return this.taskInstanceMapper.findDispatchedWaitingTaskByWorkerId(workerId);
+    }
+
     @Override
     public Optional<TaskInstance> findByBusinessIdAndVersion(String businessId, int version) {
         return this.taskInstanceMapper.findByBusinessIdAndVersion(businessId, version);
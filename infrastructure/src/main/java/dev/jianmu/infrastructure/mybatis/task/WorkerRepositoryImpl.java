@@ -43,6 +43,11 @@ public class WorkerRepositoryImpl implements WorkerRepository {
         this.workerMapper.updateTag(worker);
     }
 
+    @Override
+    public void updateCapacity(Worker worker) {
+        this.workerMapper.updateCapacity(worker);
+    }
+
     @Override
     public Optional<Worker> findById(String workerId) {
         return this.workerMapper.findById(workerId);
@@ -6,6 +6,7 @@ import dev.jianmu.trigger.event.TriggerEvent;
 import dev.jianmu.trigger.repository.TriggerEventRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,4 +44,28 @@ public class TriggerEventRepositoryImpl implements TriggerEventRepository {
             this.triggerEventParameterMapper.save(triggerEvent.getId(), parameter);
         });
     }
+
+    @Override
+    public List<TriggerEvent> findByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.triggerEventMapper.findByIds(ids);
+    }
+
+    @Override
+    public List<String> findParameterIdsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.triggerEventParameterMapper.findParameterIdsByIds(ids);
+    }
+
+    @Override
+    public void deleteByIds(List<String> ids) {
+        if (!ids.isEmpty()) {
+            this.triggerEventParameterMapper.deleteByIds(ids);
+            this.triggerEventMapper.deleteByIds(ids);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import dev.jianmu.trigger.aggregate.WebRequest;
 import dev.jianmu.trigger.repository.WebRequestRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -38,6 +39,13 @@ public class WebRequestRepositoryImpl implements WebRequestRepository {
         this.webRequestMapper.update(webRequest);
     }
 
+    @Override
+    public void deleteByIds(List<String> ids) {
+        if (!ids.isEmpty()) {
+            this.webRequestMapper.deleteByIds(ids);
+        }
+    }
+
     public PageInfo<WebRequest> findPage(String projectId, int pageNum, int pageSize) {
         return PageHelper.startPage(pageNum, pageSize)
                 .doSelectPageInfo(() -> this.webRequestMapper.findPage(projectId));
@@ -107,6 +107,13 @@ public class AsyncTaskInstanceRepositoryImpl implements AsyncTaskInstanceReposit
         this.asyncTaskInstanceMapper.deleteByWorkflowInstanceId(workflowInstanceId);
     }
 
+    @Override
+    public void deleteByWorkflowInstanceIds(List<String> workflowInstanceIds) {
+        if (!workflowInstanceIds.isEmpty()) {
+            this.asyncTaskInstanceMapper.deleteByWorkflowInstanceIds(workflowInstanceIds);
+        }
+    }
+
     @Override
     public void deleteByWorkflowRef(String workflowRef) {
         this.asyncTaskInstanceMapper.deleteByWorkflowRef(workflowRef);
@@ -89,8 +89,8 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
     }
 
     @Override
-    public List<WorkflowInstance> findByRefOffset(String workflowRef, long offset) {
-        return this.workflowInstanceMapper.findByRefOffset(workflowRef, offset);
+    public List<WorkflowInstance> findExpiredByRef(String workflowRef, int serialNo, int limit) {
+        return this.workflowInstanceMapper.findExpiredByRef(workflowRef, serialNo, limit);
     }
 
     @Override
@@ -102,4 +102,11 @@ public class WorkflowInstanceRepositoryImpl implements WorkflowInstanceRepositor
         return PageHelper.startPage(pageNum, pageSize)
                 .doSelectPageInfo(() -> this.workflowInstanceMapper.findPageByWorkflowRef(workflowRef));
     }
+
+    @Override
+    public void deleteByIds(List<String> ids) {
+        if (!ids.isEmpty()) {
+            this.workflowInstanceMapper.deleteByIds(ids);
+        }
+    }
 }
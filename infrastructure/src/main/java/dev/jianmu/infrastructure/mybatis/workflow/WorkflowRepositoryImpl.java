@@ -8,7 +8,10 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,20 +22,42 @@ import java.util.Optional;
 */
 @Repository
 public class WorkflowRepositoryImpl implements WorkflowRepository {
+    private static final int maxCachedWorkflows = 256;
 
     @Resource
     private WorkflowMapper workflowMapper;
     @Resource
     private ApplicationEventPublisher publisher;
 
+    // 流程定义版本写入后不再变更，按refVersion缓存，每次查询返回独立的工作副本
+    private final Map<String, Workflow> cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Workflow> eldest) {
+            return this.size() > maxCachedWorkflows;
+        }
+    });
+
+    private Optional<Workflow> findCached(String refVersion) {
+        var workflow = this.cache.get(refVersion);
+        if (workflow == null) {
+            var workflowOptional = this.workflowMapper.findByRefAndVersion(refVersion);
+            if (workflowOptional.isEmpty()) {
+                return Optional.empty();
+            }
+            workflow = workflowOptional.get();
+            this.cache.put(refVersion, workflow);
+        }
+        return Optional.of(workflow.workingCopy());
+    }
+
     @Override
     public Optional<Workflow> findByRefAndVersion(String ref, String version) {
-        return this.workflowMapper.findByRefAndVersion(ref + version);
+        return this.findCached(ref + version);
     }
 
     @Override
     public Optional<Workflow> findByRefVersion(String refVersion) {
-        return this.workflowMapper.findByRefAndVersion(refVersion);
+        return this.findCached(refVersion);
     }
 
     @Override
@@ -51,11 +76,15 @@ public class WorkflowRepositoryImpl implements WorkflowRepository {
     @Override
     public void deleteByRefAndVersion(String ref, String version) {
         this.workflowMapper.deleteByRefAndVersion(ref + version);
+        this.cache.remove(ref + version);
     }
 
     @Override
     public void deleteByRef(String ref) {
         this.workflowMapper.deleteByRef(ref);
+        synchronized (this.cache) {
+            this.cache.values().removeIf(workflow -> workflow.getRef().equals(ref));
+        }
     }
 
     @Override
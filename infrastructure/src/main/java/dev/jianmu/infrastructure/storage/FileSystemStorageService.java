@@ -1,6 +1,7 @@
 package dev.jianmu.infrastructure.storage;
 
 import dev.jianmu.infrastructure.SseTemplate;
+import dev.jianmu.infrastructure.storage.vo.LogCursor;
 import dev.jianmu.infrastructure.storage.vo.LogVo;
 import dev.jianmu.task.aggregate.InstanceStatus;
 import dev.jianmu.task.repository.TaskInstanceRepository;
@@ -21,7 +22,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Ethan Liu
@@ -40,6 +40,7 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
     // For SSE
     private final SseTemplate template;
     private final MonitoringFileService monitoringFileService;
+    private final LogFileReader logFileReader;
     private final Path rootLocation;
     private final Path webhookRootLocation;
     private final Path workflowLocation;
@@ -48,12 +49,14 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
 
     public FileSystemStorageService(SseTemplate template,
                                     MonitoringFileService monitoringFileService,
+                                    LogFileReader logFileReader,
                                     StorageProperties properties,
                                     WorkflowInstanceRepository workflowInstanceRepository,
                                     TaskInstanceRepository taskInstanceRepository
     ) {
         this.template = template;
         this.monitoringFileService = monitoringFileService;
+        this.logFileReader = logFileReader;
         this.rootLocation = Paths.get(properties.getFilepath(), taskFilepath);
         this.webhookRootLocation = Paths.get(properties.getFilepath(), webhookFilepath);
         this.workflowLocation = Paths.get(properties.getFilepath(), workflowFilepath);
@@ -105,38 +108,24 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
         String filePath = (isTask ? this.rootLocation : this.workflowLocation) + File.separator + fullName;
         var sseEmitter = this.template.newSseEmitter();
         if (isComplete) {
-            this.firstReadLog(Paths.get(filePath), new AtomicLong(1), sseEmitter, size);
+            this.firstReadLog(Paths.get(filePath), new LogCursor(), sseEmitter, size, true);
             return sseEmitter;
         }
         // 订阅未完成日志
-        var consumerVo = this.monitoringFileService.listen(fullName, ((file, counter) -> {
-            try {
-                Files.lines(file).skip(counter.intValue())
-                        .forEach(line -> {
-                            this.template.sendMessage(SseEmitter.event()
-                                    .id(String.valueOf(counter.get()))
-                                    .data(line), sseEmitter);
-                            counter.incrementAndGet();
-                        });
-            } catch (IOException e) {
-                logger.trace("Could not read log file", e);
-            }
-        }));
-        this.firstReadLog(Paths.get(filePath), consumerVo.getCounter(), sseEmitter, size);
+        this.monitoringFileService.subscribe(fullName, Paths.get(filePath), sseEmitter, size);
         return sseEmitter;
     }
 
-    private void firstReadLog(Path path, AtomicLong counter, SseEmitter sseEmitter, int size) {
-        try (var linesCount = Files.lines(path);
-             var lines = Files.lines(path)) {
-            var countLine = linesCount.count();
-            counter.set(countLine - size);
-            lines.skip(countLine > size ? countLine - size : 0)
-                    .forEach(line -> this.template.sendMessage(SseEmitter.event()
-                            .id(String.valueOf(counter.incrementAndGet()))
-                            .data(line), sseEmitter)
-                    );
-            counter.set(countLine);
+    private void firstReadLog(Path path, LogCursor cursor, SseEmitter sseEmitter, int size, boolean isComplete) {
+        try {
+            var countLine = this.logFileReader.countLines(path, isComplete);
+            var start = this.logFileReader.seek(path, Math.max(countLine - size, 0) + 1);
+            cursor.setOffset(start.getOffset());
+            cursor.setLine(start.getLine());
+            this.logFileReader.read(path, cursor, Long.MAX_VALUE, isComplete, (lineNum, line) ->
+                    this.template.sendMessage(SseEmitter.event()
+                            .id(String.valueOf(lineNum))
+                            .data(line), sseEmitter));
         } catch (IOException e) {
             logger.trace("Could not read log file", e);
         }
@@ -146,15 +135,14 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
     public List<LogVo> randomReadLog(String logFileName, Integer line, Integer size, boolean isTask) {
         var filePath = (isTask ? this.rootLocation : this.workflowLocation) + File.separator + logFileName + LogfilePostfix;
         var list = new ArrayList<LogVo>();
-        var lineNum = new AtomicLong(line - 1);
-        try (var lines = Files.lines(Paths.get(filePath))) {
-            lines.skip(line - 1)
-                    .limit(size)
-                    .forEach(str -> list.add(LogVo.builder()
-                            .lastEventId(String.valueOf(lineNum.incrementAndGet()))
-                            .data(str)
-                            .build())
-                    );
+        try {
+            var path = Paths.get(filePath);
+            var cursor = this.logFileReader.seek(path, line);
+            this.logFileReader.read(path, cursor, size, true, (lineNum, str) -> list.add(LogVo.builder()
+                    .lastEventId(String.valueOf(lineNum))
+                    .data(str)
+                    .build())
+            );
         } catch (IOException e) {
             logger.trace("Could not read log file", e);
         }
@@ -197,4 +185,23 @@ public class FileSystemStorageService implements StorageService, ApplicationRunn
             throw new RuntimeException("webhook文件不存在");
         }
     }
+
+    @Override
+    public void deleteLog(String logFileName, boolean isTask) {
+        var path = (isTask ? this.rootLocation : this.workflowLocation).resolve(logFileName + LogfilePostfix);
+        this.deleteFile(path);
+    }
+
+    @Override
+    public void deleteWebhook(String webhookFileName) {
+        this.deleteFile(this.webhookRootLocation.resolve(webhookFileName + webhookFilePostfix));
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除文件{}异常: {}", path, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package dev.jianmu.infrastructure.storage;
+
+import dev.jianmu.infrastructure.storage.vo.LogCursor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * @author agent
+ * @class LogFileReader
+ * @description 按字节偏移增量读取日志，并为每个日志文件维护稀疏的行号到偏移索引
+ * @create 2026-10-17 23:20
+ */
+@Service
+public class LogFileReader {
+    // 每隔多少行记录一次偏移
+    private static final int indexInterval = 1000;
+    private static final int maxIndexSize = 512;
+    private static final int bufferSize = 64 * 1024;
+
+    private final Map<Path, LineIndex> indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, LineIndex> eldest) {
+            return this.size() > maxIndexSize;
+        }
+    });
+
+    /**
+     * 稀疏行索引，offsets[k]为第k * indexInterval + 1行的起始偏移
+     */
+    private static class LineIndex {
+        private final List<Long> offsets = new ArrayList<>(List.of(0L));
+        // 已扫描的字节数
+        private long scannedOffset;
+        // 已扫描的完整行数
+        private long lines;
+        // 最后一个未结束行的起始偏移
+        private long lastLineStart;
+
+        private synchronized void extend(FileChannel channel) throws IOException {
+            var size = channel.size();
+            if (size < this.scannedOffset) {
+                // 文件被重写
+                this.offsets.subList(1, this.offsets.size()).clear();
+                this.scannedOffset = 0;
+                this.lines = 0;
+                this.lastLineStart = 0;
+            }
+            var buffer = ByteBuffer.allocate(bufferSize);
+            var position = this.scannedOffset;
+            while (position < size) {
+                buffer.clear();
+                var read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        this.lines++;
+                        this.lastLineStart = position + i + 1;
+                        if (this.lines % indexInterval == 0) {
+                            this.offsets.add(this.lastLineStart);
+                        }
+                    }
+                }
+                position += read;
+            }
+            this.scannedOffset = position;
+        }
+
+        private synchronized long countLines(boolean includePartial) {
+            return this.lines + (includePartial && this.scannedOffset > this.lastLineStart ? 1 : 0);
+        }
+
+        /**
+         * 返回不超过目标行的最近索引位置
+         */
+        private synchronized LogCursor floor(long line) {
+            var k = (int) Math.min((line - 1) / indexInterval, this.offsets.size() - 1);
+            return new LogCursor(this.offsets.get(k), (long) k * indexInterval);
+        }
+    }
+
+    private LineIndex getIndex(Path path, FileChannel channel) throws IOException {
+        var index = this.indexes.computeIfAbsent(path, k -> new LineIndex());
+        index.extend(channel);
+        return index;
+    }
+
+    /**
+     * 统计日志行数
+     *
+     * @param path
+     * @param includePartial 是否包含未以换行结束的最后一行
+     * @return
+     */
+    public long countLines(Path path, boolean includePartial) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return this.getIndex(path, channel).countLines(includePartial);
+        }
+    }
+
+    /**
+     * 定位到指定行(从1开始)的起始位置，返回的cursor.line为该行之前的行数
+     *
+     * @param path
+     * @param line
+     * @return
+     */
+    public LogCursor seek(Path path, long line) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var cursor = this.getIndex(path, channel).floor(Math.max(line, 1));
+            var size = channel.size();
+            var buffer = ByteBuffer.allocate(bufferSize);
+            while (cursor.getLine() < line - 1 && cursor.getOffset() < size) {
+                buffer.clear();
+                var read = channel.read(buffer, cursor.getOffset());
+                if (read <= 0) {
+                    break;
+                }
+                var i = 0;
+                for (; i < read && cursor.getLine() < line - 1; i++) {
+                    if (buffer.get(i) == '\n') {
+                        cursor.setLine(cursor.getLine() + 1);
+                    }
+                }
+                cursor.setOffset(cursor.getOffset() + i);
+            }
+            return cursor;
+        }
+    }
+
+    /**
+     * 从cursor位置读取最多limit行，读取后推进cursor
+     *
+     * @param path
+     * @param cursor
+     * @param limit
+     * @param includePartial 是否读取未以换行结束的最后一行
+     * @param consumer       行号与行内容
+     */
+    public void read(Path path, LogCursor cursor, long limit, boolean includePartial, BiConsumer<Long, String> consumer) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < cursor.getOffset()) {
+                // 文件被重写，从头读取
+                cursor.setOffset(0);
+                cursor.setLine(0);
+            }
+            var buffer = ByteBuffer.allocate(bufferSize);
+            var lineBuffer = new ByteArrayOutputStream();
+            var position = cursor.getOffset();
+            var count = 0L;
+            while (position < size && count < limit) {
+                buffer.clear();
+                var read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read && count < limit; i++) {
+                    var b = buffer.get(i);
+                    if (b != '\n') {
+                        lineBuffer.write(b);
+                        continue;
+                    }
+                    cursor.setOffset(position + i + 1);
+                    cursor.setLine(cursor.getLine() + 1);
+                    consumer.accept(cursor.getLine(), decode(lineBuffer));
+                    lineBuffer.reset();
+                    count++;
+                }
+                position += read;
+            }
+            if (includePartial && count < limit && lineBuffer.size() > 0) {
+                cursor.setOffset(size);
+                cursor.setLine(cursor.getLine() + 1);
+                consumer.accept(cursor.getLine(), decode(lineBuffer));
+            }
+        }
+    }
+
+    private static String decode(ByteArrayOutputStream lineBuffer) {
+        var bytes = lineBuffer.toByteArray();
+        var length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package dev.jianmu.infrastructure.storage;
+
+import dev.jianmu.infrastructure.SseSender;
+import dev.jianmu.infrastructure.storage.vo.LogCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author agent
+ * @class LogHub
+ * @description 单个日志的广播中心，新增内容只读取一次后推送给所有订阅者，订阅者之间只共享日志行，
+ * SSE事件在每次发送时单独创建，
+ * 每个订阅者的待推送内容按字节数限制，超过限制或推送线程不足时断开该订阅者
+ * @create 2026-10-17 23:24
+ */
+@Slf4j
+class LogHub {
+    private static final long maxPendingBytes = 1024 * 1024;
+
+    private final Path path;
+    private final LogFileReader logFileReader;
+    private final SseSender sender;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private LogCursor cursor;
+    private boolean closed;
+
+    LogHub(Path path, LogFileReader logFileReader, SseSender sender) {
+        this.path = path;
+        this.logFileReader = logFileReader;
+        this.sender = sender;
+    }
+
+    /**
+     * 添加订阅者，先推送最近size行，之后推送新增内容
+     *
+     * @return 广播中心已关闭时返回false
+     */
+    synchronized boolean subscribe(SseEmitter sseEmitter, int size, Runnable onRemoved) {
+        if (this.closed) {
+            return false;
+        }
+        if (this.cursor == null) {
+            this.cursor = this.seekLine(Long.MAX_VALUE);
+        }
+        var subscriber = new Subscriber(this.sender.connect(sseEmitter));
+        // 历史日志只读取到当前广播位置，避免与后续推送重复
+        var start = this.seekLine(Math.max(this.cursor.getLine() - size, 0) + 1);
+        this.readChunk(start, this.cursor.getLine() - start.getLine(), false)
+                .ifPresent(subscriber::offer);
+        this.subscribers.add(subscriber);
+        Runnable remove = () -> {
+            this.unsubscribe(subscriber);
+            onRemoved.run();
+        };
+        sseEmitter.onCompletion(remove);
+        sseEmitter.onTimeout(remove);
+        sseEmitter.onError(throwable -> remove.run());
+        return true;
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscriber.connection.markClosed();
+        this.subscribers.remove(subscriber);
+        if (this.subscribers.isEmpty()) {
+            this.closed = true;
+        }
+    }
+
+    synchronized boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * 读取新增日志并广播
+     *
+     * @param includePartial 是否包含未以换行结束的最后一行
+     */
+    synchronized void poll(boolean includePartial) {
+        if (this.closed || this.cursor == null) {
+            return;
+        }
+        this.readChunk(this.cursor, Long.MAX_VALUE, includePartial)
+                .ifPresent(chunk -> this.subscribers.forEach(subscriber -> subscriber.offer(chunk)));
+    }
+
+    synchronized void close() {
+        this.poll(true);
+        this.closed = true;
+    }
+
+    private LogCursor seekLine(long line) {
+        try {
+            var count = this.logFileReader.countLines(this.path, false);
+            return this.logFileReader.seek(this.path, Math.min(line, count + 1));
+        } catch (IOException e) {
+            // 日志文件尚未创建
+            return new LogCursor();
+        }
+    }
+
+    private Optional<LogChunk> readChunk(LogCursor from, long limit, boolean includePartial) {
+        if (limit <= 0) {
+            return Optional.empty();
+        }
+        var lines = new ArrayList<LogLine>();
+        var bytes = new AtomicLong();
+        try {
+            this.logFileReader.read(this.path, from, limit, includePartial, (lineNum, line) -> {
+                lines.add(new LogLine(lineNum, line));
+                bytes.addAndGet(line.length());
+            });
+        } catch (IOException e) {
+            log.trace("Could not read log file", e);
+        }
+        return lines.isEmpty() ? Optional.empty() : Optional.of(new LogChunk(lines, bytes.get()));
+    }
+
+    private class Subscriber {
+        private final SseSender.Connection connection;
+        private final Queue<LogChunk> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(SseSender.Connection connection) {
+            this.connection = connection;
+        }
+
+        private void offer(LogChunk chunk) {
+            if (this.connection.isClosed()) {
+                return;
+            }
+            // 没有待推送内容时总是接收，保证首次推送的历史日志不被拒绝
+            var bytes = this.pendingBytes.getAndAdd(chunk.bytes);
+            if (bytes > 0 && bytes + chunk.bytes > maxPendingBytes) {
+                // 消费过慢，断开连接，客户端重连后重新读取
+                log.debug("log subscriber is too slow, disconnect: {}", path);
+                this.disconnect();
+                return;
+            }
+            this.pending.offer(chunk);
+            if (this.draining.compareAndSet(false, true) && !sender.execute(this::drain)) {
+                log.debug("log sender is busy, disconnect: {}", path);
+                this.disconnect();
+            }
+        }
+
+        private void disconnect() {
+            this.connection.close();
+            this.pending.clear();
+        }
+
+        private void drain() {
+            while (true) {
+                var chunk = this.pending.poll();
+                if (chunk == null) {
+                    this.draining.set(false);
+                    if (this.pending.isEmpty() || !this.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                this.pendingBytes.addAndGet(-chunk.bytes);
+                for (var line : chunk.lines) {
+                    // SseEventBuilder在发送时会被修改，不能在订阅者之间共享
+                    var event = SseEmitter.event()
+                            .id(String.valueOf(line.lineNum))
+                            .data(line.line);
+                    if (!this.connection.send(event)) {
+                        this.pending.clear();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 一次读取的日志行，所有订阅者共享，内容不可变
+     */
+    private static class LogChunk {
+        private final List<LogLine> lines;
+        private final long bytes;
+
+        private LogChunk(List<LogLine> lines, long bytes) {
+            this.lines = lines;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class LogLine {
+        private final long lineNum;
+        private final String line;
+
+        private LogLine(long lineNum, String line) {
+            this.lineNum = lineNum;
+            this.line = line;
+        }
+    }
+}
@@ -1,19 +1,17 @@
 package dev.jianmu.infrastructure.storage;
 
-import dev.jianmu.infrastructure.storage.vo.ConsumerVo;
+import dev.jianmu.infrastructure.SseSender;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiConsumer;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 
@@ -28,11 +26,18 @@ import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 public class MonitoringFileService implements DisposableBean {
     private static final String LogfilePostfix = ".log";
 
-    private final Map<String, CopyOnWriteArrayList<ConsumerVo>> callbackMap = new ConcurrentHashMap<>();
+    private final Map<String, LogHub> callbackMap = new ConcurrentHashMap<>();
+    private final LogFileReader logFileReader;
+    private final SseSender sender;
     private WatchService watchService;
     private Path monitoringTaskDirectory;
     private Path monitoringWorkflowDirectory;
 
+    public MonitoringFileService(LogFileReader logFileReader, SseSender sender) {
+        this.logFileReader = logFileReader;
+        this.sender = sender;
+    }
+
     public void init(Path taskPath, Path workflowPath) throws IOException {
         this.monitoringTaskDirectory = taskPath;
         this.monitoringWorkflowDirectory = workflowPath;
@@ -42,11 +47,29 @@ public class MonitoringFileService implements DisposableBean {
         executorService.submit(this::monitor);
     }
 
-    public ConsumerVo listen(String topic, BiConsumer<Path, AtomicLong> consumer) {
-        callbackMap.putIfAbsent(topic, new CopyOnWriteArrayList<>());
-        var consumerVo = new ConsumerVo(consumer);
-        callbackMap.get(topic).add(consumerVo);
-        return consumerVo;
+    /**
+     * 订阅日志，同一日志的所有订阅者共享一次读取
+     *
+     * @param topic      日志文件名
+     * @param path       日志文件路径
+     * @param sseEmitter
+     * @param size       首次推送的历史行数
+     */
+    public void subscribe(String topic, Path path, SseEmitter sseEmitter, int size) {
+        while (true) {
+            var hub = this.callbackMap.computeIfAbsent(topic, k -> new LogHub(path, this.logFileReader, this.sender));
+            if (hub.subscribe(sseEmitter, size, () -> this.removeIfClosed(topic, hub))) {
+                return;
+            }
+            // 广播中心已随最后一个订阅者关闭
+            this.callbackMap.remove(topic, hub);
+        }
+    }
+
+    private void removeIfClosed(String topic, LogHub hub) {
+        if (hub.isClosed()) {
+            this.callbackMap.remove(topic, hub);
+        }
     }
 
     void monitor() {
@@ -56,12 +79,10 @@ public class MonitoringFileService implements DisposableBean {
                 for (final WatchEvent<?> event : key.pollEvents()) {
                     final Path changed = this.monitoringWorkflowDirectory.resolve((Path) event.context());
                     final String fileName = changed.getFileName().toString();
-                    var set = this.callbackMap.get(fileName);
-                    if (event.kind() == ENTRY_MODIFY && set != null) {
-                        set.forEach(consumerVo -> {
-                            log.trace("monitor - ENTRY_MODIFY: " + changed);
-                            consumerVo.getConsumer().accept(changed, consumerVo.getCounter());
-                        });
+                    var hub = this.callbackMap.get(fileName);
+                    if (event.kind() == ENTRY_MODIFY && hub != null) {
+                        log.trace("monitor - ENTRY_MODIFY: " + changed);
+                        hub.poll(false);
                     }
                 }
                 boolean isKeyStillValid = key.reset();
@@ -78,19 +99,18 @@ public class MonitoringFileService implements DisposableBean {
 
     public void clearCallbackByLogId(String logId) {
         var topic = logId + LogfilePostfix;
-        this.callbackMap.remove(topic);
+        var hub = this.callbackMap.remove(topic);
+        if (hub != null) {
+            hub.close();
+        }
     }
 
     public void sendLog(String logId) {
         var topic = logId + LogfilePostfix;
-        var list = this.callbackMap.get(topic);
-        if (list == null) {
-            return;
+        var hub = this.callbackMap.get(topic);
+        if (hub != null) {
+            hub.poll(false);
         }
-        list.forEach(consumerVo -> {
-            var path = this.monitoringTaskDirectory.resolve(topic);
-            consumerVo.getConsumer().accept(path, consumerVo.getCounter());
-        });
     }
 
     @Override
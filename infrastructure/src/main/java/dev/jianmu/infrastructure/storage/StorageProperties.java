@@ -16,4 +16,10 @@ import org.springframework.stereotype.Component;
 public class StorageProperties {
     // 文件路径
     private String filepath = "ci";
+    // 任务日志刷盘间隔(毫秒)
+    private Long logFlushInterval = 200L;
+    // 任务日志缓冲区大小(KB)，超过后立即刷盘
+    private Integer logFlushSize = 64;
+    // 任务日志写入器空闲关闭时间(秒)
+    private Long logIdleTimeout = 300L;
 }
@@ -29,4 +29,8 @@ public interface StorageService {
     BufferedWriter writeWebhook(String webhookFileName);
 
     String readWebhook(String webhookFileName);
+
+    void deleteLog(String logFileName, boolean isTask);
+
+    void deleteWebhook(String webhookFileName);
 }
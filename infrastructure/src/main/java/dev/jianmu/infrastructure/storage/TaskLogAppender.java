@@ -0,0 +1,173 @@
+package dev.jianmu.infrastructure.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ * @class TaskLogAppender
+ * @description 任务日志写入器，每个任务实例保持一个长期打开的文件，
+ * 日志先写入缓冲区，按时间间隔或缓冲大小批量刷盘，每次刷盘只通知一次订阅者
+ * @create 2026-10-17 23:26
+ */
+@Service
+@Slf4j
+public class TaskLogAppender implements DisposableBean {
+    private final Map<String, Appender> appenders = new ConcurrentHashMap<>();
+    private final StorageService storageService;
+    private final MonitoringFileService monitoringFileService;
+    private final int flushSize;
+    private final long idleTimeout;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+
+    public TaskLogAppender(StorageService storageService, MonitoringFileService monitoringFileService, StorageProperties properties) {
+        this.storageService = storageService;
+        this.monitoringFileService = monitoringFileService;
+        this.flushSize = properties.getLogFlushSize() * 1024;
+        this.idleTimeout = TimeUnit.SECONDS.toMillis(properties.getLogIdleTimeout());
+        this.flusher.scheduleWithFixedDelay(this::flushAll, properties.getLogFlushInterval(), properties.getLogFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    private class Appender {
+        private final String taskInstanceId;
+        private final FileChannel channel;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private long lastWriteTime = System.currentTimeMillis();
+        private boolean closed;
+
+        private Appender(String taskInstanceId, boolean append) throws IOException {
+            this.taskInstanceId = taskInstanceId;
+            var path = storageService.logFile(taskInstanceId).toPath();
+            this.channel = append ?
+                    FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND) :
+                    FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private synchronized boolean write(String content) {
+            if (this.closed) {
+                return false;
+            }
+            var bytes = content.getBytes(StandardCharsets.UTF_8);
+            this.buffer.write(bytes, 0, bytes.length);
+            this.lastWriteTime = System.currentTimeMillis();
+            if (this.buffer.size() >= flushSize) {
+                this.flush();
+            }
+            return true;
+        }
+
+        private synchronized void flush() {
+            if (this.buffer.size() == 0 || this.closed) {
+                return;
+            }
+            try {
+                var byteBuffer = ByteBuffer.wrap(this.buffer.toByteArray());
+                while (byteBuffer.hasRemaining()) {
+                    this.channel.write(byteBuffer);
+                }
+            } catch (IOException e) {
+                log.error("任务日志写入失败：", e);
+            }
+            this.buffer.reset();
+            monitoringFileService.sendLog(this.taskInstanceId);
+        }
+
+        private synchronized void close() {
+            this.flush();
+            this.closed = true;
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                log.warn("任务日志关闭失败：{}", e.getMessage());
+            }
+        }
+
+        private synchronized boolean isIdle(long now) {
+            return this.buffer.size() == 0 && now - this.lastWriteTime > idleTimeout;
+        }
+    }
+
+    /**
+     * 追加任务日志，内容写入缓冲区后批量刷盘
+     *
+     * @param taskInstanceId
+     * @param content
+     */
+    public void append(String taskInstanceId, String content) {
+        while (!this.getAppender(taskInstanceId).write(content)) {
+            // 写入器已被空闲回收，重新打开
+            this.appenders.remove(taskInstanceId);
+        }
+    }
+
+    /**
+     * 清空任务日志，后续内容从头写入
+     *
+     * @param taskInstanceId
+     */
+    public void truncate(String taskInstanceId) {
+        this.appenders.compute(taskInstanceId, (k, appender) -> {
+            if (appender != null) {
+                appender.close();
+            }
+            return this.open(taskInstanceId, false);
+        });
+    }
+
+    /**
+     * 刷盘并关闭任务日志
+     *
+     * @param taskInstanceId
+     */
+    public void close(String taskInstanceId) {
+        var appender = this.appenders.remove(taskInstanceId);
+        if (appender != null) {
+            appender.close();
+        }
+    }
+
+    private Appender getAppender(String taskInstanceId) {
+        return this.appenders.computeIfAbsent(taskInstanceId, k -> this.open(taskInstanceId, true));
+    }
+
+    private Appender open(String taskInstanceId, boolean append) {
+        try {
+            return new Appender(taskInstanceId, append);
+        } catch (IOException e) {
+            throw new StorageException("Could not create log file", e);
+        }
+    }
+
+    private void flushAll() {
+        var now = System.currentTimeMillis();
+        this.appenders.forEach((taskInstanceId, appender) -> {
+            try {
+                appender.flush();
+                if (appender.isIdle(now) && this.appenders.remove(taskInstanceId, appender)) {
+                    appender.close();
+                }
+            } catch (Exception e) {
+                log.error("任务日志刷盘失败：", e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        this.flusher.shutdown();
+        this.appenders.keySet().forEach(this::close);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.jianmu.infrastructure.storage.vo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @class LogCursor
+ * @description 日志读取位置，offset为下一次读取的字节偏移，line为已读取的完整行数
+ * @author agent
+ * @create 2026-10-17 23:20
+ */
+@Getter
+@Setter
+public class LogCursor {
+    private long offset;
+    private long line;
+
+    public LogCursor() {
+    }
+
+    public LogCursor(long offset, long line) {
+        this.offset = offset;
+        this.line = line;
+    }
+}
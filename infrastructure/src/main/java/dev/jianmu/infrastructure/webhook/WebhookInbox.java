@@ -0,0 +1,47 @@
+package dev.jianmu.infrastructure.webhook;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author agent
+ * @class WebhookInbox
+ * @description Webhook收件箱记录，接收请求时写入，由处理线程池领取后异步执行触发
+ * @create 2026-10-18 00:32
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WebhookInbox {
+    public enum Status {
+        // 等待领取
+        PENDING,
+        // 已被领取，领取超时后可重新领取
+        PROCESSING,
+        // 处理完成，保留至去重期限结束
+        DONE,
+        // 超过最大领取次数仍未处理成功，保留至去重期限结束
+        FAILED
+    }
+
+    // 与WebRequest ID相同
+    private String id;
+    private String projectName;
+    private String userAgent;
+    private String payload;
+    private String statusCode;
+    private String errorMsg;
+    private String dedupeKey;
+    private Status status;
+    private String claimId;
+    private LocalDateTime claimedTime;
+    // 领取次数，线程池拒绝时不计入
+    private int attempts;
+    private String failure;
+    private LocalDateTime receivedTime;
+}
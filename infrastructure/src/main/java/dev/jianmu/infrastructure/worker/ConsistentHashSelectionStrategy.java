@@ -0,0 +1,97 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * @class ConsistentHashSelectionStrategy
+ * @description 有界负载一致性哈希，Worker增减时只迁移少量流程实例，
+ * 顺时针查找时跳过负载超过平均负载loadFactor倍的Worker
+ * @author agent
+ * @create 2026-10-17 23:18
+ */
+@Component
+@ConditionalOnProperty(prefix = "jianmu.worker", name = "dispatch-strategy", havingValue = "consistent-hash")
+public class ConsistentHashSelectionStrategy implements WorkerSelectionStrategy {
+    private final static int virtualNodes = 160;
+    private final static double loadFactor = 1.25;
+
+    private final WorkerLoadTracker workerLoadTracker;
+
+    private volatile Ring ring = new Ring(Set.of(), new TreeMap<>());
+
+    public ConsistentHashSelectionStrategy(WorkerLoadTracker workerLoadTracker) {
+        this.workerLoadTracker = workerLoadTracker;
+    }
+
+    private static class Ring {
+        private final Set<String> workerIds;
+        private final NavigableMap<Long, String> nodes;
+
+        private Ring(Set<String> workerIds, NavigableMap<Long, String> nodes) {
+            this.workerIds = workerIds;
+            this.nodes = nodes;
+        }
+    }
+
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        var workerMap = workers.stream()
+                .collect(Collectors.toMap(Worker::getId, worker -> worker, (w1, w2) -> w1));
+        var nodes = this.getRing(workerMap.keySet()).nodes;
+        var totalLoad = workers.stream()
+                .mapToInt(this.workerLoadTracker::getLoad)
+                .sum();
+        var maxLoad = (int) Math.ceil((totalLoad + 1) * loadFactor / workerMap.size());
+
+        var hash = hash(triggerId);
+        var candidates = nodes.tailMap(hash, true).values().stream()
+                .collect(Collectors.toList());
+        candidates.addAll(nodes.headMap(hash, false).values());
+        for (String workerId : candidates) {
+            var worker = workerMap.get(workerId);
+            if (this.workerLoadTracker.getLoad(worker) < maxLoad) {
+                return worker;
+            }
+        }
+        return workerMap.get(candidates.get(0));
+    }
+
+    private Ring getRing(Set<String> workerIds) {
+        var current = this.ring;
+        if (current.workerIds.equals(workerIds)) {
+            return current;
+        }
+        var nodes = new TreeMap<Long, String>();
+        workerIds.forEach(workerId -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                nodes.put(hash(workerId + "#" + i), workerId);
+            }
+        });
+        current = new Ring(Set.copyOf(workerIds), nodes);
+        this.ring = current;
+        return current;
+    }
+
+    private static long hash(String key) {
+        try {
+            var digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ((long) (digest[3] & 0xFF) << 24)
+                    | ((long) (digest[2] & 0xFF) << 16)
+                    | ((long) (digest[1] & 0xFF) << 8)
+                    | (digest[0] & 0xFF);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -17,7 +17,7 @@ import java.util.Set;
  */
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 public class ContainerSpec {
     private String image;
     private String network;
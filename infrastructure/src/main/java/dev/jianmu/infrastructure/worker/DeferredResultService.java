@@ -1,54 +1,293 @@
 package dev.jianmu.infrastructure.worker;
 
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.cluster.WorkerSignal;
+import dev.jianmu.task.aggregate.InstanceStatus;
+import dev.jianmu.task.aggregate.TaskInstance;
+import dev.jianmu.task.repository.TaskInstanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.request.async.DeferredResult;
 
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 /**
  * @author Daihw
  * @class DeferredResultService
  * @description DeferredResultService
+ * 集群部署时Worker的请求可能挂起在其他节点上，待拉取任务与终止通知同时发布为Worker信号，
+ * 任务只有领取信号成功的节点才能返回给Worker。
+ * 事务中分发的任务在提交后才进入队列，响应创建多次失败的任务标记为分发失败
  * @create 2022/5/20 9:57 上午
  */
 @Service
 public class DeferredResultService {
+    private static final Logger logger = LoggerFactory.getLogger(DeferredResultService.class);
 
     private final static Long pullTimeout = 1000L * 60 * 30;
     private final static Long watchTimeout = 1000L * 60;
+    private final static int maxResponseFailures = 3;
 
-    private final Map<String, List<DeferredResult<ResponseEntity<?>>>> pullDeferredResults = new ConcurrentHashMap<>();
+    private final Map<String, WorkerQueue> workerQueues = new ConcurrentHashMap<>();
     private final Map<String, Map<String, DeferredResult<ResponseEntity<?>>>> watchDeferredResults = new ConcurrentHashMap<>();
 
+    private final ClusterCoordinator clusterCoordinator;
+    private final TaskInstanceRepository taskInstanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeferredResultService(
+            ClusterCoordinator clusterCoordinator,
+            TaskInstanceRepository taskInstanceRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.taskInstanceRepository = taskInstanceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Worker待拉取任务队列与挂起的拉取请求，同一Worker的操作在队列对象上同步
+     */
+    private static class WorkerQueue {
+        private final Deque<TaskInstance> tasks = new ArrayDeque<>();
+        private final List<PullRequest> pullRequests = new ArrayList<>();
+        // 响应创建失败次数，key为任务businessId
+        private final Map<String, Integer> failures = new HashMap<>();
+    }
+
+    private static class PullRequest {
+        private final String triggerId;
+        private final DeferredResult<ResponseEntity<?>> deferredResult;
+        private final Function<TaskInstance, ResponseEntity<?>> responder;
+
+        private PullRequest(String triggerId, DeferredResult<ResponseEntity<?>> deferredResult, Function<TaskInstance, ResponseEntity<?>> responder) {
+            this.triggerId = triggerId;
+            this.deferredResult = deferredResult;
+            this.responder = responder;
+        }
+
+        private boolean match(TaskInstance taskInstance) {
+            return this.triggerId == null || this.triggerId.equals(taskInstance.getTriggerId());
+        }
+    }
+
+    private WorkerQueue getQueue(String workerId) {
+        return this.workerQueues.computeIfAbsent(workerId, k -> new WorkerQueue());
+    }
+
     /**
      * 创建拉取任务的DeferredResult
+     * 队列中有可执行任务时直接返回，否则挂起等待任务分发
      *
      * @param workerId
+     * @param triggerId 为null时拉取该Worker的任意任务
+     * @param responder 将任务实例转换为响应内容
      * @return
      */
-    public DeferredResult<ResponseEntity<?>> newPullDeferredResult(String workerId) {
+    public DeferredResult<ResponseEntity<?>> newPullDeferredResult(String workerId, String triggerId, Function<TaskInstance, ResponseEntity<?>> responder) {
         var deferredResult = new DeferredResult<ResponseEntity<?>>(pullTimeout, null);
-        this.pullDeferredResults.putIfAbsent(workerId, new CopyOnWriteArrayList<>());
-        this.pullDeferredResults.get(workerId).add(deferredResult);
+        var pullRequest = new PullRequest(triggerId, deferredResult, responder);
+        var queue = this.getQueue(workerId);
 
         deferredResult.onError(Throwable -> deferredResult.setResult(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("error")));
         deferredResult.onTimeout(() -> deferredResult.setErrorResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("timeout")));
-        deferredResult.onCompletion(() -> this.pullDeferredResults.get(workerId).remove(deferredResult));
+        deferredResult.onCompletion(() -> {
+            synchronized (queue) {
+                queue.pullRequests.remove(pullRequest);
+            }
+        });
+
+        TaskInstance taskInstance;
+        do {
+            synchronized (queue) {
+                taskInstance = this.pollTask(queue, pullRequest);
+                if (taskInstance == null) {
+                    queue.pullRequests.add(pullRequest);
+                    return deferredResult;
+                }
+            }
+            // 未领取成功的任务已由其他节点返回给Worker
+        } while (!this.clusterCoordinator.claim(taskInstance.getId()));
+        this.complete(workerId, pullRequest, taskInstance);
         return deferredResult;
     }
 
-    public void clearWorker(String workerId) {
-        var list = this.pullDeferredResults.get(workerId);
-        if (list == null || list.isEmpty()) {
+    /**
+     * 分发任务到Worker，存在挂起的拉取请求时直接返回任务，否则进入待拉取队列。
+     * 在事务中调用时，事务提交后才分发，回滚时不分发
+     *
+     * @param workerId
+     * @param taskInstance
+     */
+    public void dispatch(String workerId, TaskInstance taskInstance) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.doDispatch(workerId, taskInstance);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    doDispatch(workerId, taskInstance);
+                } catch (RuntimeException e) {
+                    // 任务仍为已分配Worker的等待状态，重启后恢复到队列
+                    logger.error("任务{}分发失败，", taskInstance.getBusinessId(), e);
+                }
+            }
+        });
+    }
+
+    private void doDispatch(String workerId, TaskInstance taskInstance) {
+        this.clusterCoordinator.publish(this.dispatchSignal(workerId, taskInstance));
+        this.deliver(workerId, taskInstance);
+    }
+
+    private void deliver(String workerId, TaskInstance taskInstance) {
+        var queue = this.getQueue(workerId);
+        PullRequest pullRequest;
+        synchronized (queue) {
+            pullRequest = queue.pullRequests.stream()
+                    .filter(request -> request.match(taskInstance))
+                    .findFirst()
+                    .orElse(null);
+            if (pullRequest == null) {
+                this.offer(queue, taskInstance, false);
+                return;
+            }
+            queue.pullRequests.remove(pullRequest);
+        }
+        if (!this.clusterCoordinator.claim(taskInstance.getId())) {
+            synchronized (queue) {
+                if (!pullRequest.deferredResult.isSetOrExpired()) {
+                    queue.pullRequests.add(pullRequest);
+                }
+            }
             return;
         }
-        list.forEach(deferredResult -> deferredResult.setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("retry")));
-        this.pullDeferredResults.remove(workerId);
+        this.complete(workerId, pullRequest, taskInstance);
+    }
+
+    private void offer(WorkerQueue queue, TaskInstance taskInstance, boolean first) {
+        if (queue.tasks.stream().anyMatch(task -> task.getId().equals(taskInstance.getId()))) {
+            return;
+        }
+        if (first) {
+            queue.tasks.offerFirst(taskInstance);
+        } else {
+            queue.tasks.offer(taskInstance);
+        }
+    }
+
+    private WorkerSignal dispatchSignal(String workerId, TaskInstance taskInstance) {
+        return WorkerSignal.builder()
+                .id(taskInstance.getId())
+                .type(WorkerSignal.Type.DISPATCH)
+                .workerId(workerId)
+                .businessId(taskInstance.getBusinessId())
+                .createdTime(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * 从待拉取队列中移除任务
+     *
+     * @param workerId
+     * @param businessId
+     */
+    public void removeTask(String workerId, String businessId) {
+        if (workerId == null) {
+            return;
+        }
+        this.clusterCoordinator.removeSignals(businessId);
+        var queue = this.workerQueues.get(workerId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            queue.tasks.removeIf(taskInstance -> taskInstance.getBusinessId().equals(businessId));
+            queue.failures.remove(businessId);
+        }
+    }
+
+    private TaskInstance pollTask(WorkerQueue queue, PullRequest pullRequest) {
+        var iterator = queue.tasks.iterator();
+        while (iterator.hasNext()) {
+            var taskInstance = iterator.next();
+            if (pullRequest.match(taskInstance)) {
+                iterator.remove();
+                return taskInstance;
+            }
+        }
+        return null;
+    }
+
+    private void complete(String workerId, PullRequest pullRequest, TaskInstance taskInstance) {
+        var queue = this.getQueue(workerId);
+        ResponseEntity<?> response;
+        try {
+            response = pullRequest.responder.apply(taskInstance);
+        } catch (RuntimeException e) {
+            logger.error("任务{}响应创建失败，", taskInstance.getBusinessId(), e);
+            pullRequest.deferredResult.setResult(ResponseEntity.status(HttpStatus.NO_CONTENT).body("retry"));
+            int failures;
+            synchronized (queue) {
+                failures = queue.failures.merge(taskInstance.getBusinessId(), 1, Integer::sum);
+                if (failures >= maxResponseFailures) {
+                    queue.failures.remove(taskInstance.getBusinessId());
+                }
+            }
+            if (failures >= maxResponseFailures) {
+                this.dispatchFailed(taskInstance);
+            } else {
+                this.requeue(workerId, taskInstance);
+            }
+            return;
+        }
+        // 请求已超时或断开时任务重新入队，等待下一次拉取
+        if (!pullRequest.deferredResult.setResult(response)) {
+            this.requeue(workerId, taskInstance);
+            return;
+        }
+        synchronized (queue) {
+            queue.failures.remove(taskInstance.getBusinessId());
+        }
+    }
+
+    /**
+     * 多次无法创建响应的任务不再重新入队，标记为分发失败
+     */
+    private void dispatchFailed(TaskInstance taskInstance) {
+        logger.error("任务{}响应创建失败{}次，标记为分发失败", taskInstance.getBusinessId(), maxResponseFailures);
+        try {
+            this.clusterCoordinator.removeSignals(taskInstance.getBusinessId());
+            this.transactionTemplate.executeWithoutResult(status -> this.taskInstanceRepository.findById(taskInstance.getId())
+                    .filter(instance -> instance.getStatus() == InstanceStatus.WAITING)
+                    .ifPresent(instance -> {
+                        instance.dispatchFailed();
+                        this.taskInstanceRepository.updateStatus(instance);
+                    }));
+        } catch (RuntimeException e) {
+            logger.error("任务{}状态更新失败，", taskInstance.getBusinessId(), e);
+        }
+    }
+
+    private void requeue(String workerId, TaskInstance taskInstance) {
+        this.clusterCoordinator.publish(this.dispatchSignal(workerId, taskInstance));
+        var queue = this.getQueue(workerId);
+        synchronized (queue) {
+            this.offer(queue, taskInstance, true);
+        }
     }
 
     /**
@@ -70,14 +309,85 @@ public class DeferredResultService {
     }
 
     public void terminateDeferredResult(String workerId, String businessId) {
+        if (this.terminateLocal(workerId, businessId)) {
+            return;
+        }
+        // Worker的监听请求可能挂起在其他节点上
+        this.clusterCoordinator.publish(WorkerSignal.builder()
+                .id(UUID.randomUUID().toString().replace("-", ""))
+                .type(WorkerSignal.Type.TERMINATE)
+                .workerId(workerId)
+                .businessId(businessId)
+                .createdTime(LocalDateTime.now())
+                .build());
+    }
+
+    private boolean terminateLocal(String workerId, String businessId) {
         var map = this.watchDeferredResults.get(workerId);
         if (map == null) {
+            return false;
+        }
+        var deferredResult = map.remove(businessId);
+        if (deferredResult == null) {
+            return false;
+        }
+        deferredResult.setResult(ResponseEntity.status(HttpStatus.OK).body(businessId));
+        return true;
+    }
+
+    /**
+     * 领取其他节点发布给本节点挂起请求的Worker信号
+     */
+    @Scheduled(fixedDelayString = "${jianmu.cluster.signal-interval:1000}")
+    public void receiveSignals() {
+        var workerIds = new HashSet<String>();
+        this.workerQueues.forEach((workerId, queue) -> {
+            synchronized (queue) {
+                if (!queue.pullRequests.isEmpty()) {
+                    workerIds.add(workerId);
+                }
+            }
+        });
+        this.watchDeferredResults.forEach((workerId, map) -> {
+            if (!map.isEmpty()) {
+                workerIds.add(workerId);
+            }
+        });
+        if (workerIds.isEmpty()) {
+            return;
+        }
+        for (var signal : this.clusterCoordinator.findSignals(workerIds)) {
+            try {
+                if (signal.getType() == WorkerSignal.Type.DISPATCH) {
+                    this.receiveDispatch(signal);
+                } else {
+                    this.receiveTerminate(signal);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Worker信号{}处理失败: {}", signal.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void receiveDispatch(WorkerSignal signal) {
+        var taskInstance = this.taskInstanceRepository.findById(signal.getId())
+                .filter(instance -> instance.getStatus() == InstanceStatus.WAITING)
+                .orElse(null);
+        if (taskInstance == null) {
+            // 任务已被删除或已开始执行
+            this.clusterCoordinator.claim(signal.getId());
+            return;
+        }
+        this.deliver(signal.getWorkerId(), taskInstance);
+    }
+
+    private void receiveTerminate(WorkerSignal signal) {
+        var map = this.watchDeferredResults.get(signal.getWorkerId());
+        if (map == null || !map.containsKey(signal.getBusinessId())) {
             return;
         }
-        var deferredResult = map.get(businessId);
-        if (deferredResult != null) {
-            deferredResult.setResult(ResponseEntity.status(HttpStatus.OK).body(businessId));
-            map.remove(businessId);
+        if (this.clusterCoordinator.claim(signal.getId())) {
+            this.terminateLocal(signal.getWorkerId(), signal.getBusinessId());
         }
     }
 }
@@ -0,0 +1,42 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @class LeastTaskSelectionStrategy
+ * @description 选择未完成任务数最少的Worker，任务数相同时随机选择
+ * @author agent
+ * @create 2026-10-17 23:18
+ */
+@Component
+@ConditionalOnProperty(prefix = "jianmu.worker", name = "dispatch-strategy", havingValue = "least-task", matchIfMissing = true)
+public class LeastTaskSelectionStrategy implements WorkerSelectionStrategy {
+    private final WorkerLoadTracker workerLoadTracker;
+
+    public LeastTaskSelectionStrategy(WorkerLoadTracker workerLoadTracker) {
+        this.workerLoadTracker = workerLoadTracker;
+    }
+
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        var min = Integer.MAX_VALUE;
+        var candidates = new ArrayList<Worker>();
+        for (Worker worker : workers) {
+            var load = this.workerLoadTracker.getLoad(worker);
+            if (load < min) {
+                min = load;
+                candidates.clear();
+            }
+            if (load == min) {
+                candidates.add(worker);
+            }
+        }
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,44 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @class WeightedSelectionStrategy
+ * @description 按Worker连接时声明的容量加权，选择负载率最低的Worker，未声明容量时按1计算
+ * @author agent
+ * @create 2026-10-17 23:18
+ */
+@Component
+@ConditionalOnProperty(prefix = "jianmu.worker", name = "dispatch-strategy", havingValue = "weighted")
+public class WeightedSelectionStrategy implements WorkerSelectionStrategy {
+    private final WorkerLoadTracker workerLoadTracker;
+
+    public WeightedSelectionStrategy(WorkerLoadTracker workerLoadTracker) {
+        this.workerLoadTracker = workerLoadTracker;
+    }
+
+    @Override
+    public Worker select(String triggerId, List<Worker> workers) {
+        var min = Double.MAX_VALUE;
+        var candidates = new ArrayList<Worker>();
+        for (Worker worker : workers) {
+            var capacity = worker.getCapacity() == null || worker.getCapacity() <= 0 ? 1 : worker.getCapacity();
+            // 分配后的负载率
+            var ratio = (this.workerLoadTracker.getLoad(worker) + 1) / (double) capacity;
+            if (ratio < min) {
+                min = ratio;
+                candidates.clear();
+            }
+            if (ratio == min) {
+                candidates.add(worker);
+            }
+        }
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,23 @@
+package dev.jianmu.infrastructure.worker;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author agent
+ * @class WorkerHeartbeat
+ * @description Worker最后一次ping的时间，任意节点收到ping时更新
+ * @create 2026-10-18 00:54
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WorkerHeartbeat {
+    private String workerId;
+    private LocalDateTime lastSeenTime;
+}
@@ -0,0 +1,87 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @class WorkerLoadTracker
+ * @description 记录每个Worker未完成(WAITING/RUNNING)的任务数，以及流程实例所在的Worker
+ * @author agent
+ * @create 2026-10-17 23:18
+ */
+@Service
+public class WorkerLoadTracker {
+    // taskInstanceId -> workerId
+    private final Map<String, String> taskWorkers = new ConcurrentHashMap<>();
+    // workerId -> 未完成任务数
+    private final Map<String, AtomicInteger> workerLoads = new ConcurrentHashMap<>();
+    // triggerId -> workerId
+    private final Map<String, String> triggerWorkers = new ConcurrentHashMap<>();
+
+    public void acquire(String workerId, String triggerId, String taskInstanceId) {
+        this.triggerWorkers.put(triggerId, workerId);
+        var previous = this.taskWorkers.put(taskInstanceId, workerId);
+        if (workerId.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            this.decrement(previous);
+        }
+        this.workerLoads.computeIfAbsent(workerId, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * 在事务中分配任务，事务未提交(回滚或异常)时释放本次分配，
+     * 流程实例此前没有分配Worker时同时清除流程实例所在的Worker
+     */
+    public void acquireInTransaction(String workerId, String triggerId, String taskInstanceId) {
+        var newTrigger = !this.triggerWorkers.containsKey(triggerId);
+        this.acquire(workerId, triggerId, taskInstanceId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                release(taskInstanceId);
+                if (newTrigger) {
+                    triggerWorkers.remove(triggerId, workerId);
+                }
+            }
+        });
+    }
+
+    public void release(String taskInstanceId) {
+        var workerId = this.taskWorkers.remove(taskInstanceId);
+        if (workerId != null) {
+            this.decrement(workerId);
+        }
+    }
+
+    public void releaseTrigger(String triggerId) {
+        this.triggerWorkers.remove(triggerId);
+    }
+
+    private void decrement(String workerId) {
+        this.workerLoads.computeIfPresent(workerId, (k, load) -> load.decrementAndGet() <= 0 ? null : load);
+    }
+
+    public int getLoad(Worker worker) {
+        var load = this.workerLoads.get(worker.getId());
+        return load == null ? 0 : load.get();
+    }
+
+    public Optional<String> findWorkerIdByTriggerId(String triggerId) {
+        return Optional.ofNullable(this.triggerWorkers.get(triggerId));
+    }
+}
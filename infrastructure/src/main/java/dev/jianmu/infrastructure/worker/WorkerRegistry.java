@@ -0,0 +1,254 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.infrastructure.GlobalProperties;
+import dev.jianmu.infrastructure.cluster.ClusterCoordinator;
+import dev.jianmu.infrastructure.mapper.cluster.WorkerHeartbeatMapper;
+import dev.jianmu.infrastructure.worker.event.WorkerEvictedEvent;
+import dev.jianmu.worker.aggregate.Worker;
+import dev.jianmu.worker.repository.WorkerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @class WorkerRegistry
+ * @description 在线Worker列表，由join与ping维护，连续多次未ping的Worker被移除。
+ * 集群部署时ping可能发送到其他节点，收到ping的节点将存活时间写入存活时间表，
+ * 各节点本地超时的Worker以存活时间表为准，只有持有移除租约的节点将超时的Worker标记为离线并释放其任务
+ * @author agent
+ * @create 2026-10-18 00:23
+ */
+@Service
+public class WorkerRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerRegistry.class);
+    private static final String WORKER_EVICTOR = "worker-evictor";
+
+    private final WorkerRepository workerRepository;
+    private final WorkerHeartbeatMapper workerHeartbeatMapper;
+    private final ClusterCoordinator clusterCoordinator;
+    private final ApplicationEventPublisher publisher;
+    private final GlobalProperties globalProperties;
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    private static class Member {
+        private final Worker worker;
+        private volatile long lastSeen;
+        private volatile long lastSaved;
+
+        private Member(Worker worker, long lastSeen) {
+            this.worker = worker;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    public WorkerRegistry(
+            WorkerRepository workerRepository,
+            WorkerHeartbeatMapper workerHeartbeatMapper,
+            ClusterCoordinator clusterCoordinator,
+            ApplicationEventPublisher publisher,
+            GlobalProperties globalProperties
+    ) {
+        this.workerRepository = workerRepository;
+        this.workerHeartbeatMapper = workerHeartbeatMapper;
+        this.clusterCoordinator = clusterCoordinator;
+        this.publisher = publisher;
+        this.globalProperties = globalProperties;
+    }
+
+    /**
+     * Worker加入或更新标签、容量后重新登记
+     *
+     * @param worker
+     */
+    public void register(Worker worker) {
+        this.load();
+        var member = new Member(worker, System.currentTimeMillis());
+        this.members.put(worker.getId(), member);
+        this.save(member);
+    }
+
+    /**
+     * 收到Worker的ping，服务重启或已被移除的Worker重新登记为在线
+     *
+     * @param workerId
+     */
+    public void heartbeat(String workerId) {
+        this.load();
+        var member = this.members.get(workerId);
+        if (member == null) {
+            var worker = this.workerRepository.findById(workerId).orElse(null);
+            if (worker == null) {
+                return;
+            }
+            if (worker.getStatus() != Worker.Status.ONLINE) {
+                this.updateStatus(workerId, Worker.Status.ONLINE);
+                logger.info("Worker {}重新上线", workerId);
+            }
+            member = this.members.computeIfAbsent(workerId, k -> new Member(worker, System.currentTimeMillis()));
+        }
+        member.lastSeen = System.currentTimeMillis();
+        // 拉取任务也视为ping，存活时间每半个ping间隔最多写入一次
+        if (member.lastSeen - member.lastSaved >= this.globalProperties.getWorker().getPingInterval() / 2) {
+            this.save(member);
+        }
+    }
+
+    /**
+     * 查询在线Worker
+     *
+     * @param types
+     * @param tags  为空时不按标签过滤
+     * @return
+     */
+    public List<Worker> findOnline(List<Worker.Type> types, List<String> tags) {
+        this.load();
+        return this.members.values().stream()
+                .map(member -> member.worker)
+                .filter(worker -> types.contains(worker.getType()))
+                .filter(worker -> tags.isEmpty() || this.matchTags(worker, tags))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Worker标签为逗号分隔的多个标签时，任一标签匹配即可
+     */
+    private boolean matchTags(Worker worker, List<String> tags) {
+        var workerTags = worker.getTags();
+        if (workerTags == null) {
+            return false;
+        }
+        if (tags.contains(workerTags)) {
+            return true;
+        }
+        return Arrays.stream(workerTags.split(","))
+                .map(String::trim)
+                .anyMatch(tags::contains);
+    }
+
+    @Scheduled(fixedDelayString = "${jianmu.worker.ping-interval:10000}")
+    public void evict() {
+        if (!this.loaded) {
+            return;
+        }
+        var timeout = this.getTimeout();
+        var now = System.currentTimeMillis();
+        var expiredTime = LocalDateTime.now().minus(Duration.ofMillis(timeout));
+        this.expireLocal(now, timeout, expiredTime);
+        // 服务启动后等待Worker重新ping，避免刚启动时误判
+        if (now - this.loadedAt < timeout) {
+            return;
+        }
+        if (!this.clusterCoordinator.tryAcquireLease(WORKER_EVICTOR, Duration.ofMillis(timeout))) {
+            return;
+        }
+        this.workerHeartbeatMapper.findExpiredOnlineWorkerIds(expiredTime).forEach(workerId -> {
+            var member = this.members.get(workerId);
+            if (member != null && now - member.lastSeen < timeout) {
+                return;
+            }
+            if (this.workerHeartbeatMapper.evict(workerId, expiredTime) == 0) {
+                return;
+            }
+            this.members.remove(workerId);
+            logger.warn("Worker {}已超过{}ms未ping，标记为离线", workerId, timeout);
+            try {
+                this.publisher.publishEvent(WorkerEvictedEvent.builder().workerId(workerId).build());
+            } catch (RuntimeException e) {
+                logger.error("Worker {}移除处理失败，", workerId, e);
+            }
+        });
+    }
+
+    /**
+     * 本节点超时的Worker，其他节点仍收到ping时保留，否则从本节点在线列表中移除
+     */
+    private void expireLocal(long now, long timeout, LocalDateTime expiredTime) {
+        var expired = new ArrayList<String>();
+        this.members.forEach((workerId, member) -> {
+            if (now - member.lastSeen >= timeout) {
+                expired.add(workerId);
+            }
+        });
+        if (expired.isEmpty()) {
+            return;
+        }
+        var lastSeenTimes = this.workerHeartbeatMapper.findByWorkerIds(expired).stream()
+                .collect(Collectors.toMap(WorkerHeartbeat::getWorkerId, WorkerHeartbeat::getLastSeenTime));
+        expired.forEach(workerId -> {
+            var member = this.members.get(workerId);
+            if (member == null) {
+                return;
+            }
+            var lastSeenTime = lastSeenTimes.get(workerId);
+            if (lastSeenTime != null && lastSeenTime.isAfter(expiredTime)) {
+                member.lastSeen = Math.max(member.lastSeen, lastSeenTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                return;
+            }
+            if (this.members.remove(workerId, member)) {
+                logger.info("Worker {}已超过{}ms未ping，从本节点在线列表中移除", workerId, timeout);
+            }
+        });
+    }
+
+    /**
+     * 首次使用时加载数据库中的在线Worker，等待其重新ping
+     */
+    private void load() {
+        if (this.loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (this.loaded) {
+                return;
+            }
+            var now = System.currentTimeMillis();
+            this.workerRepository.findByTypeInAndCreatedTimeLessThan(Arrays.asList(Worker.Type.values()), LocalDateTime.now()).stream()
+                    .filter(worker -> worker.getStatus() == Worker.Status.ONLINE)
+                    .forEach(worker -> this.members.putIfAbsent(worker.getId(), new Member(worker, now)));
+            logger.info("加载在线Worker数量：{}", this.members.size());
+            this.loadedAt = now;
+            this.loaded = true;
+        }
+    }
+
+    private void save(Member member) {
+        member.lastSaved = System.currentTimeMillis();
+        var workerId = member.worker.getId();
+        var now = LocalDateTime.now();
+        if (this.workerHeartbeatMapper.touch(workerId, now) > 0) {
+            return;
+        }
+        try {
+            this.workerHeartbeatMapper.add(workerId, now);
+        } catch (DuplicateKeyException e) {
+            this.workerHeartbeatMapper.touch(workerId, now);
+        }
+    }
+
+    private void updateStatus(String workerId, Worker.Status status) {
+        this.workerRepository.updateStatus(Worker.Builder.aWorker()
+                .id(workerId)
+                .status(status)
+                .build());
+    }
+
+    private long getTimeout() {
+        var worker = this.globalProperties.getWorker();
+        return worker.getPingInterval() * worker.getMaxMissedPings();
+    }
+}
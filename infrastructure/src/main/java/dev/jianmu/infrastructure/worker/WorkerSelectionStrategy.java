@@ -0,0 +1,23 @@
+package dev.jianmu.infrastructure.worker;
+
+import dev.jianmu.worker.aggregate.Worker;
+
+import java.util.List;
+
+/**
+ * @class WorkerSelectionStrategy
+ * @description Worker选择策略，为新的流程实例选择执行的Worker，
+ * 通过jianmu.worker.dispatch-strategy选择实现：least-task(默认)、weighted、consistent-hash
+ * @author agent
+ * @create 2026-10-17 23:18
+ */
+public interface WorkerSelectionStrategy {
+    /**
+     * 从候选Worker中选择一个
+     *
+     * @param triggerId 流程实例触发ID
+     * @param workers   候选Worker，不能为空
+     * @return
+     */
+    Worker select(String triggerId, List<Worker> workers);
+}
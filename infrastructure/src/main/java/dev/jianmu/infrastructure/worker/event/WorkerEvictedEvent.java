@@ -0,0 +1,20 @@
+package dev.jianmu.infrastructure.worker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @class WorkerEvictedEvent
+ * @description Worker连续多次未ping，已从在线列表中移除
+ * @author agent
+ * @create 2026-10-18 00:23
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WorkerEvictedEvent {
+    private String workerId;
+}
@@ -2,7 +2,9 @@ package dev.jianmu.node.definition.repository;
 
 import dev.jianmu.node.definition.aggregate.NodeDefinition;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionRepository
@@ -13,6 +15,8 @@ import java.util.Optional;
 public interface NodeDefinitionRepository {
     Optional<NodeDefinition> findById(String id);
 
+    List<NodeDefinition> findByIds(Set<String> ids);
+
     void saveOrUpdate(NodeDefinition nodeDefinition);
 
     void deleteById(String id);
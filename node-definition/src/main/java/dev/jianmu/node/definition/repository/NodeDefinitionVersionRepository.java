@@ -4,6 +4,7 @@ import dev.jianmu.node.definition.aggregate.NodeDefinitionVersion;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @class NodeDefinitionVersionRepository
@@ -16,6 +17,15 @@ public interface NodeDefinitionVersionRepository {
 
     List<NodeDefinitionVersion> findByOwnerRefAndRef(String ownerRef, String ref);
 
+    List<NodeDefinitionVersion> findByIds(Set<String> ids);
+
+    /**
+     * 查询所有节点定义版本引用的默认参数ID
+     *
+     * @return
+     */
+    Set<String> findAllParameterIds();
+
     void saveOrUpdate(NodeDefinitionVersion nodeDefinitionVersion);
 
     void deleteByOwnerRefAndRef(String ownerRef, String ref);
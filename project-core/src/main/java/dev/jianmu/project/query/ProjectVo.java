@@ -17,6 +17,8 @@ public class ProjectVo extends Project {
     private LocalDateTime latestTime;
     // 最后执行状态
     private String status;
+    // Cron触发器表达式
+    private String schedule;
 
     public String getWorkflowInstanceId() {
         return workflowInstanceId;
@@ -41,4 +43,8 @@ public class ProjectVo extends Project {
     public String getStatus() {
         return status;
     }
+
+    public String getSchedule() {
+        return schedule;
+    }
 }
@@ -20,4 +20,8 @@ public interface InstanceParameterRepository {
     List<InstanceParameter> findByInstanceIdAndType(String instanceId, InstanceParameter.Type type);
 
     List<InstanceParameter> findLastOutputParamByTriggerId(String triggerId);
+
+    List<String> findParameterIdsByTriggerIds(List<String> triggerIds);
+
+    void deleteByTriggerIds(List<String> triggerIds);
 }
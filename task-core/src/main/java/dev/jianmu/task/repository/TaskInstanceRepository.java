@@ -42,8 +42,16 @@ public interface TaskInstanceRepository {
 
     void deleteByTriggerId(String triggerId);
 
+    void deleteByTriggerIds(List<String> triggerIds);
+
+    List<String> findIdsByTriggerIds(List<String> triggerIds);
+
     Optional<TaskInstance> findByWorkerIdAndTriggerIdLimit(String workerId, String triggerId);
 
+    List<TaskInstance> findDispatchedWaitingTask();
+
+    List<TaskInstance> findDispatchedWaitingTaskByWorkerId(String workerId);
+
     Optional<TaskInstance> findByBusinessIdAndVersion(String businessId, int version);
 
     List<TaskInstance> findByTriggerIdAndStatus(String triggerId, InstanceStatus status);
@@ -2,6 +2,7 @@ package dev.jianmu.trigger.repository;
 
 import dev.jianmu.trigger.event.TriggerEvent;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,4 +15,10 @@ public interface TriggerEventRepository {
     Optional<TriggerEvent> findById(String id);
 
     void save(TriggerEvent triggerEvent);
+
+    List<TriggerEvent> findByIds(List<String> ids);
+
+    List<String> findParameterIdsByIds(List<String> ids);
+
+    void deleteByIds(List<String> ids);
 }
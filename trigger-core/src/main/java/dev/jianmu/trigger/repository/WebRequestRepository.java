@@ -2,6 +2,7 @@ package dev.jianmu.trigger.repository;
 
 import dev.jianmu.trigger.aggregate.WebRequest;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,4 +17,6 @@ public interface WebRequestRepository {
     Optional<WebRequest> findById(String id);
 
     void update(WebRequest webRequest);
+
+    void deleteByIds(List<String> ids);
 }
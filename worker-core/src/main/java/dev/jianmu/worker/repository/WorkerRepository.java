@@ -21,6 +21,8 @@ public interface WorkerRepository {
 
     void updateTag(Worker worker);
 
+    void updateCapacity(Worker worker);
+
     Optional<Worker> findById(String workerId);
 
     Worker findByType(Worker.Type type);
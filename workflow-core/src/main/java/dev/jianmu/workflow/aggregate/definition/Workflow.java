@@ -38,7 +38,7 @@ public class Workflow extends AggregateRoot {
     // 描述
     private String description;
     // 版本
-    private final String version = UUID.randomUUID().toString().replace("-", "");
+    private final String version;
     // Node列表
     private Set<Node> nodes;
     // 全局参数
@@ -46,13 +46,40 @@ public class Workflow extends AggregateRoot {
     // DSL原始内容
     private String dslText;
     // 创建时间
-    private final LocalDateTime createdTime = LocalDateTime.now();
+    private final LocalDateTime createdTime;
     // 表达式计算服务
     private ExpressionLanguage expressionLanguage;
     // 参数上下文
     private EvaluationContext context;
+    // 节点索引
+    private volatile NodeIndex index;
 
     private Workflow() {
+        this.version = UUID.randomUUID().toString().replace("-", "");
+        this.createdTime = LocalDateTime.now();
+    }
+
+    private Workflow(Workflow source) {
+        this.name = source.name;
+        this.ref = source.ref;
+        this.type = source.type;
+        this.tag = source.tag;
+        this.description = source.description;
+        this.version = source.version;
+        this.nodes = source.nodes;
+        this.globalParameters = source.globalParameters;
+        this.dslText = source.dslText;
+        this.createdTime = source.createdTime;
+        this.index = source.index();
+    }
+
+    /**
+     * 创建工作副本，节点定义共享，表达式计算服务、参数上下文与领域事件相互独立
+     *
+     * @return 工作副本
+     */
+    public Workflow workingCopy() {
+        return new Workflow(this);
     }
 
     public void setExpressionLanguage(ExpressionLanguage expressionLanguage) {
@@ -313,55 +340,127 @@ public class Workflow extends AggregateRoot {
     }
 
     public Node findStart() {
-        return this.nodes.stream()
-                .filter(n -> n instanceof Start)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("未找到启动节点"));
+        var start = this.index().start;
+        if (start == null) {
+            throw new RuntimeException("未找到启动节点");
+        }
+        return start;
     }
 
     public Node findNode(String nodeRef) {
-        return this.nodes.stream()
-                .filter(n -> n.getRef().equals(nodeRef))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("未找到该节点定义: " + nodeRef));
+        var node = this.index().nodes.get(nodeRef);
+        if (node == null) {
+            throw new RuntimeException("未找到该节点定义: " + nodeRef);
+        }
+        return node;
     }
 
     // 返回当前节点上游Node的ref List
     public List<String> findNodes(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
-                .collect(Collectors.toList());
+        this.findNode(nodeRef);
+        return this.index().sources.get(nodeRef);
     }
 
     // 返回当前节点上游GateWay的ref List
     public List<String> findGateWay(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .filter(n -> n instanceof Gateway)
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
-                .collect(Collectors.toList());
+        this.findNode(nodeRef);
+        return this.index().gatewaySources.get(nodeRef);
     }
 
     // 返回AsyncTask列表
     public List<Node> findTasks() {
-        return this.nodes.stream()
-                .filter(n -> n instanceof AsyncTask)
-                .collect(Collectors.toList());
+        return this.index().tasks;
     }
 
     // 返回不包含网关节点的当前节点上游Node的ref List
     public List<String> findNodesWithoutGateway(String nodeRef) {
-        Node node = this.findNode(nodeRef);
-        return this.nodes.stream()
-                .filter(n -> !(n instanceof Gateway))
-                .map(Node::getRef)
-                .filter(ref -> node.getSources().contains(ref))
+        this.findNode(nodeRef);
+        return this.index().nonGatewaySources.get(nodeRef);
+    }
+
+    // 返回事件发送节点是否为当前节点环路对的上游
+    public boolean isLoopSource(String nodeRef, String sender) {
+        this.findNode(nodeRef);
+        return this.index().loopSources.get(nodeRef).contains(sender);
+    }
+
+    // 返回当前节点环路对下游Node的ref List，不包含由事件发送节点触发的环路
+    public List<String> findLoopTargets(String nodeRef, String sender) {
+        this.findNode(nodeRef);
+        return this.index().loopPairs.get(nodeRef).stream()
+                .filter(loopPair -> !loopPair.getSource().equals(sender))
+                .map(LoopPair::getTarget)
                 .collect(Collectors.toList());
     }
 
+    private NodeIndex index() {
+        var nodeIndex = this.index;
+        if (nodeIndex == null) {
+            nodeIndex = new NodeIndex(this.nodes);
+            this.index = nodeIndex;
+        }
+        return nodeIndex;
+    }
+
+    /**
+     * 节点索引，节点定义加载后不再变更，首次使用时构建
+     */
+    private static class NodeIndex {
+        private final Map<String, Node> nodes;
+        private final Node start;
+        private final List<Node> tasks;
+        // 上游节点
+        private final Map<String, List<String>> sources;
+        // 上游网关节点
+        private final Map<String, List<String>> gatewaySources;
+        // 上游非网关节点
+        private final Map<String, List<String>> nonGatewaySources;
+        // 环路对
+        private final Map<String, List<LoopPair>> loopPairs;
+        // 环路对上游节点
+        private final Map<String, Set<String>> loopSources;
+
+        private NodeIndex(Set<Node> nodeSet) {
+            var nodeMap = new HashMap<String, Node>();
+            nodeSet.forEach(node -> nodeMap.putIfAbsent(node.getRef(), node));
+            this.nodes = Collections.unmodifiableMap(nodeMap);
+            this.start = nodeSet.stream()
+                    .filter(n -> n instanceof Start)
+                    .findFirst()
+                    .orElse(null);
+            this.tasks = nodeSet.stream()
+                    .filter(n -> n instanceof AsyncTask)
+                    .collect(Collectors.toUnmodifiableList());
+            var sourceMap = new HashMap<String, List<String>>();
+            var gatewayMap = new HashMap<String, List<String>>();
+            var nonGatewayMap = new HashMap<String, List<String>>();
+            var loopPairMap = new HashMap<String, List<LoopPair>>();
+            var loopSourceMap = new HashMap<String, Set<String>>();
+            nodeSet.forEach(node -> {
+                var sourceRefs = node.getSources().stream()
+                        .filter(nodeMap::containsKey)
+                        .collect(Collectors.toUnmodifiableList());
+                sourceMap.put(node.getRef(), sourceRefs);
+                gatewayMap.put(node.getRef(), sourceRefs.stream()
+                        .filter(ref -> nodeMap.get(ref) instanceof Gateway)
+                        .collect(Collectors.toUnmodifiableList()));
+                nonGatewayMap.put(node.getRef(), sourceRefs.stream()
+                        .filter(ref -> !(nodeMap.get(ref) instanceof Gateway))
+                        .collect(Collectors.toUnmodifiableList()));
+                var pairs = node.getLoopPairs() == null ? List.<LoopPair>of() : List.copyOf(node.getLoopPairs());
+                loopPairMap.put(node.getRef(), pairs);
+                loopSourceMap.put(node.getRef(), pairs.stream()
+                        .map(LoopPair::getSource)
+                        .collect(Collectors.toUnmodifiableSet()));
+            });
+            this.sources = sourceMap;
+            this.gatewaySources = gatewayMap;
+            this.nonGatewaySources = nonGatewayMap;
+            this.loopPairs = loopPairMap;
+            this.loopSources = loopSourceMap;
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -5,6 +5,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * @author Ethan Liu
@@ -112,9 +113,12 @@ public abstract class Parameter<T> {
         }
     }
 
-    // ID
-    // TODO 暂时使用UUID的值
-    protected final String id = UUID.randomUUID().toString().replace("-", "");
+    // ID生成策略，默认使用UUID
+    private static volatile Function<Parameter<?>, String> idGenerator =
+            parameter -> UUID.randomUUID().toString().replace("-", "");
+
+    // ID，首次获取时生成
+    protected volatile String id;
     // 参数类型
     protected Type type;
     // 参数值
@@ -126,7 +130,26 @@ public abstract class Parameter<T> {
 
     public abstract String getStringValue();
 
+    /**
+     * 设置参数ID生成策略
+     *
+     * @param generator 根据参数类型与值生成ID
+     */
+    public static void setIdGenerator(Function<Parameter<?>, String> generator) {
+        idGenerator = generator;
+    }
+
     public String getId() {
+        var id = this.id;
+        if (id == null) {
+            synchronized (this) {
+                id = this.id;
+                if (id == null) {
+                    id = idGenerator.apply(this);
+                    this.id = id;
+                }
+            }
+        }
         return id;
     }
 
@@ -36,5 +36,7 @@ public interface AsyncTaskInstanceRepository {
 
     void deleteByWorkflowInstanceId(String workflowInstanceId);
 
+    void deleteByWorkflowInstanceIds(List<String> workflowInstanceIds);
+
     void deleteByWorkflowRef(String workflowRef);
 }
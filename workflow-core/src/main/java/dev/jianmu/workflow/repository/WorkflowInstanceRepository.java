@@ -28,9 +28,11 @@ public interface WorkflowInstanceRepository {
 
     Optional<WorkflowInstance> findByRefAndSerialNoMax(String workflowRef);
 
-    List<WorkflowInstance> findByRefOffset(String workflowRef, long offset);
+    List<WorkflowInstance> findExpiredByRef(String workflowRef, int serialNo, int limit);
 
     void deleteByWorkflowRef(String workflowRef);
 
     void deleteById(String id);
+
+    void deleteByIds(List<String> ids);
 }
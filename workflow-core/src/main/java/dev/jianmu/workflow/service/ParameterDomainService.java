@@ -33,23 +33,32 @@ public class ParameterDomainService {
     }
 
     public Map<String, String> createNoSecParameterMap(Map<String, String> parameterMap, List<Parameter> parameters) {
+        var parameterIndex = this.indexById(parameters);
         var newParameterMap = new HashMap<String, String>();
-        parameterMap.forEach((key, val) -> parameters.stream()
-                .filter(parameter -> !(parameter instanceof SecretParameter))
-                .filter(parameter -> parameter.getId().equals(val))
-                .findFirst()
-                .ifPresent(parameter -> newParameterMap.put(key, parameter.getStringValue())));
+        parameterMap.forEach((key, val) -> {
+            var parameter = parameterIndex.get(val);
+            if (parameter != null && !(parameter instanceof SecretParameter)) {
+                newParameterMap.put(key, parameter.getStringValue());
+            }
+        });
         return newParameterMap;
     }
 
     public Map<String, Parameter> matchParameters(Map<String, String> parameterMap, List<Parameter> parameters) {
+        var parameterIndex = this.indexById(parameters);
         return parameterMap.entrySet().stream()
                 .map(entry -> {
-                    var p = parameters.stream()
-                            .filter(parameter -> parameter.getId().equals(entry.getValue()))
-                            .findFirst()
-                            .orElseThrow(() -> new RuntimeException("未找到对应的参数"));
+                    var p = parameterIndex.get(entry.getValue());
+                    if (p == null) {
+                        throw new RuntimeException("未找到对应的参数");
+                    }
                     return Map.entry(entry.getKey(), p);
                 }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
+
+    private Map<String, Parameter> indexById(List<Parameter> parameters) {
+        var parameterIndex = new HashMap<String, Parameter>();
+        parameters.forEach(parameter -> parameterIndex.putIfAbsent(parameter.getId(), parameter));
+        return parameterIndex;
+    }
 }
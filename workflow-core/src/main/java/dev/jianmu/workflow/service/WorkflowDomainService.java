@@ -1,6 +1,5 @@
 package dev.jianmu.workflow.service;
 
-import dev.jianmu.workflow.aggregate.definition.LoopPair;
 import dev.jianmu.workflow.aggregate.definition.Start;
 import dev.jianmu.workflow.aggregate.definition.Workflow;
 import dev.jianmu.workflow.aggregate.process.AsyncTaskInstance;
@@ -8,8 +7,9 @@ import dev.jianmu.workflow.aggregate.process.TaskStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Ethan Liu
@@ -20,23 +20,22 @@ import java.util.stream.Collectors;
 public class WorkflowDomainService {
     private static final Logger logger = LoggerFactory.getLogger(WorkflowDomainService.class);
 
+    private Map<String, AsyncTaskInstance> indexByRef(List<AsyncTaskInstance> asyncTaskInstances) {
+        var map = new HashMap<String, AsyncTaskInstance>();
+        asyncTaskInstances.forEach(t -> map.putIfAbsent(t.getAsyncTaskRef(), t));
+        return map;
+    }
+
     public boolean canActivateNode(String nodeRef, String sender, Workflow workflow, List<AsyncTaskInstance> asyncTaskInstances) {
-        // 返回当前节点上游Task的ref List
-        var node = workflow.findNode(nodeRef);
+        var instances = this.indexByRef(asyncTaskInstances);
         var senderNode = workflow.findNode(sender);
         if (!(senderNode instanceof Start)) {
             // 串行并发汇聚检查
-            var loopSource = node.getLoopPairs().stream()
-                    .map(LoopPair::getSource)
-                    .filter(source -> source.equals(sender))
-                    .count();
-            var sourceTask = asyncTaskInstances.stream()
-                    .filter(t -> t.getAsyncTaskRef().equals(sender))
-                    .findFirst().orElseThrow(() -> new RuntimeException("未找到事件发送节点任务"));
-            var nodeTask = asyncTaskInstances.stream()
-                    .filter(t -> t.getAsyncTaskRef().equals(nodeRef))
-                    .findFirst().orElseThrow(() -> new RuntimeException("未找到待激活节点任务"));
-            if (loopSource == 0) {
+            var sourceTask = Optional.ofNullable(instances.get(sender))
+                    .orElseThrow(() -> new RuntimeException("未找到事件发送节点任务"));
+            var nodeTask = Optional.ofNullable(instances.get(nodeRef))
+                    .orElseThrow(() -> new RuntimeException("未找到待激活节点任务"));
+            if (!workflow.isLoopSource(nodeRef, sender)) {
                 // 如果事件发送者不在环路中
                 if (nodeTask.getVersion() >= sourceTask.getVersion()) {
                     logger.warn("非环路: 当前节点已执行，不触发激活事件");
@@ -51,29 +50,18 @@ public class WorkflowDomainService {
             }
         }
         // 获取环路下游任务列表，不包含触发环路
-        var loopTargets = node.getLoopPairs().stream()
-                .filter(loopPair -> !loopPair.getSource().equals(sender))
-                .map(LoopPair::getTarget)
-                .collect(Collectors.toList());
+        var loopTargets = workflow.findLoopTargets(nodeRef, sender);
         // 根据LoopPairs统计环路下游非运行状态任务数量
-        long loop = asyncTaskInstances.stream()
-                .filter(t -> loopTargets.contains(t.getAsyncTaskRef()))
+        long loop = this.findByRefs(instances, loopTargets)
                 .filter(t -> !t.getStatus().equals(TaskStatus.RUNNING))
                 .count();
         List<String> refList = workflow.findNodes(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
         // 根据上游节点列表，统计已完成的任务数量
-        var completedSources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()) &&
-                        (
-                                t.getStatus().equals(TaskStatus.FAILED)
-                                        || t.getStatus().equals(TaskStatus.SUCCEEDED)
-                                        || t.getStatus().equals(TaskStatus.IGNORED)
-                                        || t.getStatus().equals(TaskStatus.SKIPPED)
-                        ))
+        var completedSources = this.findByRefs(instances, refList)
+                .filter(t -> t.getStatus().equals(TaskStatus.FAILED)
+                        || t.getStatus().equals(TaskStatus.SUCCEEDED)
+                        || t.getStatus().equals(TaskStatus.IGNORED)
+                        || t.getStatus().equals(TaskStatus.SKIPPED))
                 .collect(Collectors.toList());
         logger.info("当前节点{}上游Task数量为{}", nodeRef, refList.size());
         logger.info("当前节点{}上游Task已完成数量为{}", nodeRef, completedSources.size());
@@ -89,17 +77,22 @@ public class WorkflowDomainService {
         return true;
     }
 
+    // 按ref列表获取任务实例，不存在的ref忽略
+    private Stream<AsyncTaskInstance> findByRefs(Map<String, AsyncTaskInstance> instances, Collection<String> refs) {
+        return refs.stream()
+                .distinct()
+                .map(instances::get)
+                .filter(Objects::nonNull);
+    }
+
     public boolean hasSameSerialNo(String nodeRef, Workflow workflow, List<AsyncTaskInstance> asyncTaskInstances) {
+        return this.hasSameSerialNo(nodeRef, workflow, this.indexByRef(asyncTaskInstances));
+    }
+
+    private boolean hasSameSerialNo(String nodeRef, Workflow workflow, Map<String, AsyncTaskInstance> instances) {
         List<String> refList = workflow.findNodes(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
         // 上游节点实例列表
-        var sources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()))
-                .collect(Collectors.toList());
-        var sets = sources.stream()
+        var sets = this.findByRefs(instances, refList)
                 .map(AsyncTaskInstance::getSerialNo)
                 .collect(Collectors.toSet())
                 .size();
@@ -108,19 +101,14 @@ public class WorkflowDomainService {
     }
 
     public boolean canSkipNode(String nodeRef, String sender, Workflow workflow, List<AsyncTaskInstance> asyncTaskInstances) {
-        // 返回当前节点上游Task的ref List
-        var node = workflow.findNode(nodeRef);
+        var instances = this.indexByRef(asyncTaskInstances);
         // 获取环路下游任务列表，不包含触发环路
-        var loopTargets = node.getLoopPairs().stream()
-                .filter(loopPair -> !loopPair.getSource().equals(sender))
-                .map(LoopPair::getTarget)
-                .collect(Collectors.toList());
+        var loopTargets = workflow.findLoopTargets(nodeRef, sender);
         // 根据LoopPairs统计环路下游非运行状态任务数量
-        long loop = asyncTaskInstances.stream()
-                .filter(t -> loopTargets.contains(t.getAsyncTaskRef()))
+        long loop = this.findByRefs(instances, loopTargets)
                 .filter(t -> t.getStatus().equals(TaskStatus.INIT))
                 .count();
-        if (!this.hasSameSerialNo(nodeRef, workflow, asyncTaskInstances)) {
+        if (!this.hasSameSerialNo(nodeRef, workflow, instances)) {
             logger.info("上游节点执行次数不同，检测下游环路");
             if (loopTargets.size() == 0) {
                 logger.info("不存在环路，不能跳过");
@@ -133,17 +121,10 @@ public class WorkflowDomainService {
         }
         List<String> refList = workflow.findNodesWithoutGateway(nodeRef);
         List<String> gatewayRefs = workflow.findGateWay(nodeRef);
-        List<String> instanceList = asyncTaskInstances.stream()
-                .map(AsyncTaskInstance::getAsyncTaskRef)
-                .collect(Collectors.toList());
-        instanceList.retainAll(refList);
-        instanceList.retainAll(gatewayRefs);
         // 上游节点实例列表
-        var sources = asyncTaskInstances.stream()
-                .filter(t -> refList.contains(t.getAsyncTaskRef()))
+        var sources = this.findByRefs(instances, refList)
                 .collect(Collectors.toList());
-        var gatewaySources = asyncTaskInstances.stream()
-                .filter(t -> gatewayRefs.contains(t.getAsyncTaskRef()))
+        var gatewaySources = this.findByRefs(instances, gatewayRefs)
                 .collect(Collectors.toList());
         // 根据上游节点列表，统计已跳过的任务数量
         long taskSkipped = sources.stream()
@@ -4,10 +4,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @program: workflow
@@ -119,4 +119,33 @@ public class WorkflowTest {
         });
         assertEquals("节点唯一引用名称不允许重复", exception.getMessage(), "节点唯一引用名称不允许重复");
     }
+
+    @Test
+    @DisplayName("节点索引查询")
+    void nodeIndexTest() {
+        var start = Start.Builder.aStart().name("Start").ref("start").build();
+        var condition = Condition.Builder.aCondition().ref("condition").expression("true").build();
+        var end = End.Builder.anEnd().name("End").ref("end").build();
+        start.setTargets(Set.of("condition", "end"));
+        condition.setSources(Set.of("start"));
+        end.setSources(Set.of("start", "condition", "missing"));
+        var workflow = Workflow.Builder.aWorkflow()
+                .name("TestWL")
+                .ref("test_wl1")
+                .nodes(Set.of(start, condition, end))
+                .globalParameters(Set.of())
+                .build();
+
+        assertSame(start, workflow.findStart());
+        assertSame(condition, workflow.findNode("condition"));
+        assertEquals(Set.of("start", "condition"), Set.copyOf(workflow.findNodes("end")));
+        assertEquals(List.of("condition"), workflow.findGateWay("end"));
+        assertEquals(List.of("start"), workflow.findNodesWithoutGateway("end"));
+        assertTrue(workflow.findTasks().isEmpty());
+        assertThrows(RuntimeException.class, () -> workflow.findNodes("missing"));
+
+        var copy = workflow.workingCopy();
+        assertEquals(workflow.getVersion(), copy.getVersion());
+        assertSame(condition, copy.findNode("condition"));
+    }
 }